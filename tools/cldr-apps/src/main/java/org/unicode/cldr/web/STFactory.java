@@ -5,14 +5,13 @@ package org.unicode.cldr.web;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Date;
 import java.util.HashMap;
@@ -22,11 +21,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 import org.unicode.cldr.icu.LDMLConstants;
@@ -42,6 +44,7 @@ import org.unicode.cldr.util.Emoji;
 import org.unicode.cldr.util.Factory;
 import org.unicode.cldr.util.LDMLUtilities;
 import org.unicode.cldr.util.Pair;
+import org.unicode.cldr.util.PathValueIndex;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.SimpleXMLSource;
 import org.unicode.cldr.util.VoteResolver;
@@ -56,8 +59,11 @@ import org.unicode.cldr.web.SurveyException.ErrorCode;
 import org.unicode.cldr.web.UserRegistry.ModifyDenial;
 import org.unicode.cldr.web.UserRegistry.User;
 
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.ibm.icu.dev.util.ElapsedTimer;
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.util.VersionInfo;
@@ -400,20 +406,25 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      *
      */
     private final class PerLocaleData implements Comparable<PerLocaleData>, BallotBox<User> {
-        private CLDRFile file = null, rFile = null;
+        private volatile CLDRFile file = null, rFile = null;
         private CLDRLocale locale;
         private boolean readonly;
         private MutableStamp stamp = null;
+        private volatile boolean displayNameUpdated = false;
 
         /**
          * The held XMLSource.
          */
-        private DataBackedSource xmlsource = null;
+        private volatile DataBackedSource xmlsource = null;
         /**
          * The on-disk data. May be == to xmlsource for readonly data.
          */
         private XMLSource diskData = null;
         private CLDRFile diskFile = null;
+        /**
+         * Index of the resolved values, for searching. Built on first use.
+         */
+        private PathValueIndex valueIndex = null;
 
         /**
          * Per-xpath data. There's one of these per xpath- voting data, etc.
@@ -431,12 +442,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 /**
                  * What is this user voting for?
                  */
-                String vote;
+                final String vote;
                 /**
                  * What is this user's override strength?
                  */
-                Integer override = null;
-                Date when = null;
+                final Integer override;
+                final Date when;
 
                 public PerUserData(String value, Integer voteOverride, Date when) {
                     this.vote = value;
@@ -464,9 +475,25 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 }
             }
 
-            Date lastModDate = null;
+            volatile Date lastModDate = null;
             Set<String> otherValues = null;
-            Map<User, PerUserData> userToData = null;
+            volatile Map<User, PerUserData> userToData = null;
+
+            /**
+             * The resolver for this path, made by getResolver the first time it is needed, and then kept current one vote
+             * at a time by setVoteForValue instead of being made again for each request. Set and changed with this
+             * PerXPathData's monitor held; null if there is none yet, or if votes were removed some other way.
+             */
+            private volatile VoteResolver<String> resolver = null;
+            /**
+             * The voterInfoGeneration of the voter info that the resolver was made with
+             */
+            private volatile int resolverGeneration;
+            /**
+             * A frozen copy of the resolver, which is what getResolver hands out, so that a reader calling several of its
+             * getters can't see a vote come in between them. Made again when the resolver changes; null until then.
+             */
+            private volatile VoteResolver<String> resolverSnapshot = null;
 
             /**
              * Is there any user data (votes)?
@@ -522,12 +549,53 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 return userToData.get(user);
             }
 
-            public void setVoteForValue(User user, String distinguishingXpath, String value, Integer voteOverride, Date when) {
+            public synchronized void setVoteForValue(User user, String distinguishingXpath, String value, Integer voteOverride, Date when) {
                 if (value != null) {
                     setPerUserData(user, new PerUserData(value, voteOverride, when));
                 } else {
                     removePerUserData(user);
                 }
+                if (resolver != null) {
+                    try {
+                        resolver.setVote(value, user.id, voteOverride, when);
+                    } catch (VoteResolver.UnknownVoterException uve) {
+                        resolver = null; // made again with the new voters by the next getResolver
+                    }
+                }
+                resolverSnapshot = null;
+            }
+
+            /**
+             * Get a frozen copy of the kept resolver, making the resolver if needed; see resolver and resolverSnapshot.
+             *
+             * @param path the xpath of this PerXPathData
+             * @return the resolver, which can't be changed
+             */
+            VoteResolver<String> getResolver(String path) {
+                // Make the resolved file first: getResolverInternal needs it, and making it can load votes,
+                // which must not happen with this monitor held (votes take voteLock and then this monitor).
+                CLDRFile cf = make(locale, true);
+                // The votes are kept current, but the inherited value can change with votes in parent locales.
+                String baileyValue = cf.getConstructedBaileyValue(path, null, null);
+                VoteResolver<String> snapshot = resolverSnapshot;
+                if (snapshot != null && resolverGeneration == voterInfoGeneration
+                    && Objects.equals(snapshot.getBaileyValue(), baileyValue)) {
+                    return snapshot;
+                }
+                synchronized (this) {
+                    VoteResolver<String> r = resolver;
+                    if (r != null && resolverGeneration == voterInfoGeneration) {
+                        r.setBaileyValue(baileyValue);
+                    } else {
+                        int generation = voterInfoGeneration;
+                        r = PerLocaleData.this.getResolver(this, path, null);
+                        resolverGeneration = generation;
+                        resolver = r;
+                    }
+                    snapshot = r.frozenCopy();
+                    resolverSnapshot = snapshot;
+                    return snapshot;
+                }
             }
 
             private PerUserData removePerUserData(User user) {
@@ -558,8 +626,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                             toDelete.add(k);
                         }
                     });
-                    for (User k : toDelete) {
-                        userToData.remove(k);
+                    synchronized (this) {
+                        for (User k : toDelete) {
+                            userToData.remove(k);
+                        }
+                        resolver = null;
+                        resolverSnapshot = null;
                     }
                 }
             }
@@ -607,9 +679,15 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
-        private Map<String, PerXPathData> xpathToData = new HashMap<>();
+        /**
+         * Votes are only changed with voteLock held, one at a time; the maps are concurrent, so readers don't wait for that.
+         * The lock is always taken after this PerLocaleData's monitor, if both are needed, never before.
+         */
+        private final ReentrantLock voteLock = new ReentrantLock();
+
+        private final Map<String, PerXPathData> xpathToData = new ConcurrentHashMap<>();
 
-        private XMLSource resolvedXmlsource = null;
+        private volatile XMLSource resolvedXmlsource = null;
 
         PerLocaleData(CLDRLocale locale) {
             this.locale = locale;
@@ -711,6 +789,15 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          * and by PerLocaleData.makeVettedSource (with VoteLoadingContext.VXML_GENERATION).
          */
         private void loadVoteValues(DataBackedSource targetXmlSource, VoteLoadingContext voteLoadingContext) {
+            voteLock.lock();
+            try {
+                loadVoteValuesLocked(targetXmlSource, voteLoadingContext);
+            } finally {
+                voteLock.unlock();
+            }
+        }
+
+        private void loadVoteValuesLocked(DataBackedSource targetXmlSource, VoteLoadingContext voteLoadingContext) {
             VoteResolver<String> resolver = null; // save recalculating this.
             ElapsedTimer et = (SurveyLog.DEBUG) ? new ElapsedTimer("Loading PLD for " + locale) : null;
             Connection conn = null;
@@ -848,7 +935,15 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
-        public synchronized CLDRFile getFile(boolean resolved) {
+        public CLDRFile getFile(boolean resolved) {
+            CLDRFile result = resolved ? rFile : file;
+            if (result != null) {
+                return result; // already made; don't wait for the lock
+            }
+            return makeFile(resolved);
+        }
+
+        private synchronized CLDRFile makeFile(boolean resolved) {
             if (resolved) {
                 if (rFile == null) {
                     if (getSupplementalDirectory() == null)
@@ -867,6 +962,35 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
+        /**
+         * Update the locale display name cache, once, the first time this locale is fetched.
+         */
+        private void updateLocaleDisplayName() {
+            if (!displayNameUpdated) {
+                synchronized (this) {
+                    if (!displayNameUpdated) {
+                        displayNameUpdated = true; // first, since getFile(true) fetches this locale again
+                        OutputFileManager.updateLocaleDisplayName(getFile(true), locale);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the index of the resolved values, building it if needed.
+         *
+         * @param sources the unresolved sources of this locale and its parents (except root), to keep the index up to date
+         */
+        private synchronized PathValueIndex getValueIndex(List<XMLSource> sources) {
+            if (valueIndex == null) {
+                valueIndex = new PathValueIndex(getFile(true));
+                for (XMLSource source : sources) {
+                    source.addListener(valueIndex);
+                }
+            }
+            return valueIndex;
+        }
+
         /**
          * Utility class for testing values
          * @author srl
@@ -1001,7 +1125,11 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
 
         @Override
         public VoteResolver<String> getResolver(String path) {
-            return getResolver(peekXpathData(path), path, null);
+            PerXPathData xpd = peekXpathData(path);
+            if (xpd == null || !ERRORS_ALLOWED_IN_VETTING) {
+                return getResolver(xpd, path, null); // nothing to keep for a path without votes
+            }
+            return xpd.getResolver(path);
         }
 
         @Override
@@ -1082,7 +1210,15 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
-        private synchronized XMLSource makeSource(boolean resolved) {
+        private XMLSource makeSource(boolean resolved) {
+            XMLSource result = resolved ? resolvedXmlsource : readonly ? diskData : xmlsource;
+            if (result != null) {
+                return result; // already made; don't wait for the lock
+            }
+            return makeSourceLocked(resolved);
+        }
+
+        private synchronized XMLSource makeSourceLocked(boolean resolved) {
             if (resolved == true) {
                 if (resolvedXmlsource == null) {
                     resolvedXmlsource = makeResolvingSource(locale.getBaseName(), getMinimalDraftStatus());
@@ -1113,7 +1249,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          *
          * @return the DataBackedSource (NOT the same as PerLocaleData.xmlsource)
          */
-        private synchronized XMLSource makeVettedSource() {
+        private XMLSource makeVettedSource() {
             DataBackedSource vxmlSource = new DataBackedSource(this);
             if (!readonly) {
                 loadVoteValues(vxmlSource, VoteLoadingContext.VXML_GENERATION);
@@ -1138,7 +1274,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         }
 
         @Override
-        public synchronized void voteForValue(User user, String distinguishingXpath, String value, Integer withVote) throws BallotBox.InvalidXPathException,
+        public void voteForValue(User user, String distinguishingXpath, String value, Integer withVote) throws BallotBox.InvalidXPathException,
             BallotBox.VoteNotAcceptedException {
             if (!getPathsForFile().contains(distinguishingXpath)) {
                 throw new BallotBox.InvalidXPathException(distinguishingXpath);
@@ -1181,25 +1317,33 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 }
             }
 
-            String oldVal = xmlsource.getValueAtDPath(distinguishingXpath);
+            // make the files before taking voteLock (see there)
+            makeSource(false);
+            getFile(true);
+            voteLock.lock();
+            try {
+                String oldVal = xmlsource.getValueAtDPath(distinguishingXpath);
 
-            if (!readonly) {
-                saveVoteToDb(user, distinguishingXpath, value, withVote, xpathId, voteIsAutoImported);
-            } else {
-                readonly();
-            }
+                if (!readonly) {
+                    saveVoteToDb(user, distinguishingXpath, value, withVote, xpathId, voteIsAutoImported);
+                } else {
+                    readonly();
+                }
 
-            internalSetVoteForValue(user, distinguishingXpath, value, withVote, new Date());
+                internalSetVoteForValue(user, distinguishingXpath, value, withVote, new Date());
 
-            if (withVote != null && withVote == VoteResolver.Level.PERMANENT_VOTES) {
-                doPermanentVote(distinguishingXpath, xpathId, value);
-            }
+                if (withVote != null && withVote == VoteResolver.Level.PERMANENT_VOTES) {
+                    doPermanentVote(distinguishingXpath, xpathId, value);
+                }
 
-            xmlsource.setValueFromResolver(distinguishingXpath, null, VoteLoadingContext.SINGLE_VOTE);
+                xmlsource.setValueFromResolver(distinguishingXpath, null, VoteLoadingContext.SINGLE_VOTE);
 
-            String newVal = xmlsource.getValueAtDPath(distinguishingXpath);
-            if (newVal != null && !newVal.equals(oldVal)) {
-                xmlsource.notifyListeners(distinguishingXpath);
+                String newVal = xmlsource.getValueAtDPath(distinguishingXpath);
+                if (newVal != null && !newVal.equals(oldVal)) {
+                    xmlsource.notifyListeners(distinguishingXpath);
+                }
+            } finally {
+                voteLock.unlock();
             }
         }
 
@@ -1411,6 +1555,28 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             delegate = source;
         }
 
+        /**
+         * The stamp of this source, the stamp of the delegate, and the stamp made of them, replaced as a whole
+         */
+        private volatile String[] dataStamp = null;
+
+        /**
+         * The data can also change by changes to the delegate. The combined stamp is only rebuilt when one of the
+         * stamps changes.
+         */
+        @Override
+        public String getDataStamp() {
+            String own = super.getDataStamp();
+            String delegated = delegate.getDataStamp();
+            String[] old = dataStamp;
+            if (old != null && old[0].equals(own) && old[1].equals(delegated)) {
+                return old[2];
+            }
+            String[] result = { own, delegated, own + "/" + delegated };
+            dataStamp = result;
+            return result[2];
+        }
+
         /*
          * (non-Javadoc)
          *
@@ -1606,13 +1772,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     public String toString() {
         StringBuilder sb = new StringBuilder(super.toString());
         sb.append("-cache:");
-        int good = 0;
-        for (Entry<CLDRLocale, Reference<PerLocaleData>> e : locales.entrySet()) {
-            if (e.getValue().get() != null) {
-                good++;
-            }
-        }
-        sb.append(good + "/" + locales.size() + " locales. TestCache:" + gTestCache + ", diskTestCache:" + gDiskTestCache + "}");
+        sb.append(rLocales.size() + " locales. TestCache:" + gTestCache + ", diskTestCache:" + gDiskTestCache + "}");
         return sb.toString();
     }
 
@@ -1622,11 +1782,9 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     }
 
     /**
-     * Per locale map
+     * Per locale map. Loading a locale only blocks other requests for the same locale, which wait for that one load.
      */
-    private Map<CLDRLocale, Reference<PerLocaleData>> locales = new HashMap<>();
-
-    private Cache<CLDRLocale, PerLocaleData> rLocales = CacheBuilder.newBuilder().softValues().build();
+    private final Cache<CLDRLocale, PerLocaleData> rLocales = CacheBuilder.newBuilder().softValues().build();
 
     private Map<CLDRLocale, MutableStamp> localeStamps = new ConcurrentHashMap<>(SurveyMain.getLocales().length);
 
@@ -1647,12 +1805,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      * @return
      */
     public MutableStamp mintLocaleStamp(CLDRLocale locale) {
-        MutableStamp s = localeStamps.get(locale);
-        if (s == null) {
-            s = MutableStamp.getInstance();
-            localeStamps.put(locale, s);
-        }
-        return s;
+        return localeStamps.computeIfAbsent(locale, l -> MutableStamp.getInstance());
     }
 
     /**
@@ -1670,28 +1823,16 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      * @param locale
      * @return
      */
-    private synchronized final PerLocaleData get(CLDRLocale locale) {
-        PerLocaleData pld = rLocales.getIfPresent(locale);
-        if (pld == null) {
-            Reference<PerLocaleData> ref = locales.get(locale);
-            if (ref != null) {
-                SurveyLog.debug("STFactory: " + locale + " was not in LRUMap.");
-                pld = ref.get();
-                if (pld == null) {
-                    SurveyLog.debug("STFactory: " + locale + " was GC'ed." + SurveyMain.freeMem());
-                    ref.clear();
-                }
-            }
-            if (pld == null) {
-                pld = new PerLocaleData(locale);
-                rLocales.put(locale, pld);
-                locales.put(locale, (new SoftReference<>(pld)));
-                // update the locale display name cache.
-                OutputFileManager.updateLocaleDisplayName(pld.getFile(true), locale);
-            } else {
-                rLocales.put(locale, pld); // keep it in the lru
-            }
+    private final PerLocaleData get(CLDRLocale locale) {
+        PerLocaleData pld;
+        try {
+            pld = rLocales.get(locale, () -> new PerLocaleData(locale));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new InternalError("Could not load locale " + locale, e.getCause());
         }
+        // Not in the loader: making the resolved file fetches this locale again.
+        pld.updateLocaleDisplayName();
         return pld;
     }
 
@@ -1699,6 +1840,20 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         return get(CLDRLocale.getInstance(locale));
     }
 
+    /**
+     * Get the index for searching the resolved values of a locale. The index is kept up to date as votes change the values.
+     *
+     * @param locale
+     * @return
+     */
+    public PathValueIndex getValueIndex(CLDRLocale locale) {
+        List<XMLSource> sources = new ArrayList<>();
+        for (CLDRLocale l = locale; l != null && !l.equals(CLDRLocale.ROOT); l = l.getParent()) {
+            sources.add(get(l).makeSource(false));
+        }
+        return get(locale).getValueIndex(sources);
+    }
+
     public TestCache.TestResultBundle getTestResult(CLDRLocale loc, CheckCLDR.Options options) {
 //        System.err.println("Fetching: " + options);
         return get(loc).getTestResultData(options);
@@ -1739,7 +1894,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         return sm.getDiskFactory().getAvailable();
     }
 
-    private Map<CLDRLocale, Set<CLDRLocale>> subLocaleMap = new HashMap<>();
+    private Map<CLDRLocale, Set<CLDRLocale>> subLocaleMap = new ConcurrentHashMap<>();
     Set<CLDRLocale> allLocales = null;
 
     /**
@@ -2106,9 +2261,15 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         return sm.getSTFactory();
     }
 
+    /**
+     * Changed with the voter info, so that the resolvers kept with the older voter info are made again.
+     */
+    private volatile int voterInfoGeneration = 0;
+
     @Override
     public synchronized void handleUserChanged(User u) {
         VoteResolver.setVoterToInfo(sm.reg.getVoterToInfo());
+        voterInfoGeneration++;
     }
 
     public final PathHeader getPathHeader(String xpath) {
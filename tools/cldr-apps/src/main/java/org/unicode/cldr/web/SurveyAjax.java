@@ -1008,11 +1008,9 @@ public class SurveyAjax extends HttpServlet {
             // check English
             Set<String> retrievedPaths = new HashSet<>();
             SurveyMain sm = CookieSession.sm;
-            sm.getTranslationHintsFile().getPathsWithValue(q, "", null, retrievedPaths);
+            sm.getTranslationHintsIndex().search(q, retrievedPaths);
             final STFactory stFactory = sm.getSTFactory();
-            if (l != null) {
-                stFactory.make(l, true).getPathsWithValue(q, "", null, retrievedPaths);
-            }
+            stFactory.getValueIndex(l).search(q, retrievedPaths);
             for (String xp : retrievedPaths) {
                 PathHeader ph = stFactory.getPathHeader(xp);
                 if (ph != null) {
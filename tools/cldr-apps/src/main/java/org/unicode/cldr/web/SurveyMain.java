@@ -82,6 +82,7 @@ import org.unicode.cldr.util.Pair;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.PathHeader.PageId;
 import org.unicode.cldr.util.PathHeader.SurveyToolStatus;
+import org.unicode.cldr.util.PathValueIndex;
 import org.unicode.cldr.util.SandboxLocales;
 import org.unicode.cldr.util.SimpleFactory;
 import org.unicode.cldr.util.SpecialLocales;
@@ -2208,6 +2209,7 @@ public class SurveyMain extends HttpServlet implements CLDRProgressIndicator, Ex
     }
 
     private static CLDRFile gTranslationHintsFile = null;
+    private static PathValueIndex gTranslationHintsIndex = null;
     private static ExampleGenerator gTranslationHintsExample = null;
 
     private Factory gFactory = null;
@@ -2297,6 +2299,18 @@ public class SurveyMain extends HttpServlet implements CLDRProgressIndicator, Ex
         return gTranslationHintsFile;
     }
 
+    /**
+     * Index for searching the values of the translation hints file, which doesn't change.
+     * @see #getTranslationHintsFile()
+     * @return
+     */
+    public synchronized PathValueIndex getTranslationHintsIndex() {
+        if (gTranslationHintsIndex == null) {
+            gTranslationHintsIndex = new PathValueIndex(getTranslationHintsFile());
+        }
+        return gTranslationHintsIndex;
+    }
+
     private Set<UserLocaleStuff> allUserLocaleStuffs = new HashSet<>();
 
     public static final String QUERY_VALUE_SUFFIX = "_v";
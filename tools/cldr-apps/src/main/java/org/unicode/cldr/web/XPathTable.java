@@ -14,11 +14,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
 
 import org.unicode.cldr.icu.LDMLConstants;
@@ -38,6 +42,8 @@ import com.ibm.icu.impl.Utility;
  * are actually stored in the database. It keeps an in-memory cache which is
  * populated as ids are requested.
  *
+ * Lookups in the cache never lock. Only adding xpaths (to the database and then the cache) is synchronized.
+ *
  *
  * Definitions:
  *    xpath:        an XPath, such as "//ldml/shoeSize"
@@ -81,7 +87,7 @@ public class XPathTable {
 
 
     private void loadXPaths(Connection conn) throws SQLException {
-        if (stringToId.size() != 0) { // Only load the entire stringToId map
+        if (!stringToId.isEmpty()) { // Only load the entire stringToId map
             // once.
             return;
         }
@@ -139,8 +145,10 @@ public class XPathTable {
         }
     }
 
-    public Hashtable<String, Integer> stringToId = new Hashtable<>(4096); // public for statistics only
-    public Hashtable<Long, String> sidToString = new Hashtable<>(4096); // public for statistics only
+    private final Map<String, Integer> stringToId = new ConcurrentHashMap<>(4096);
+    private final LongIntMap sidToId = new LongIntMap(4096);
+    private final IdToStringArray idToString = new IdToStringArray(4096);
+    private int maxId = 0; // greatest id in the table; guarded by this
 
     public String statistics() {
         return "DB: " + stat_dbAdd + "add/" + stat_dbFetch + "fetch/"
@@ -153,40 +161,28 @@ public class XPathTable {
     public XPathTable() {
     }
 
-    /**
-     * SpecialTable implementation
-     */
-    IntHash<String> xptHash = new IntHash<>();
-
-    String idToString_put(int id, String str) {
-        return xptHash.put(id, str);
-    }
-
-    String idToString_get(int id) {
-        return xptHash.get(id);
-    }
-
     String idStats() {
-        return xptHash.stats();
+        return "ids: " + stringToId.size() + ", max id: " + idToString.length();
     }
 
-    /** END specialtable implementation */
-
     /**
      * Loads all xpath-id mappings from the database. If there are any xpaths in
      * the specified XMLSource which are not already in the database, they will
      * be created here.
      */
-    public synchronized void loadXPaths(XMLSource source) {
-        // Get list of xpaths that aren't already loaded.
+    public void loadXPaths(XMLSource source) {
+        // Get list of xpaths that aren't already loaded. Usually there are none, and no connection is needed.
         Set<String> unloadedXpaths = new HashSet<>();
         for (String xpath : source) {
-            unloadedXpaths.add(xpath);
+            if (!stringToId.containsKey(xpath)) {
+                unloadedXpaths.add(xpath);
+            }
+        }
+        if (unloadedXpaths.isEmpty()) {
+            return;
         }
-        unloadedXpaths.removeAll(stringToId.keySet());
 
         Connection conn = null;
-        PreparedStatement queryStmt = null;
         try {
             conn = DBUtils.getInstance().getDBConnection();
             if (!DEBUG) {
@@ -206,48 +202,52 @@ public class XPathTable {
             SurveyLog.logException(sqe, "loadXPaths(" + source.getLocaleID() + ")");
             SurveyMain.busted("loadXPaths(" + source.getLocaleID() + ")", sqe);
         } finally {
-            DBUtils.close(queryStmt, conn);
+            DBUtils.close(conn);
         }
     }
 
     /**
-     * Add a set of xpaths to the database.
+     * Add a set of xpaths to the database, in one batch.
      *
      * @param xpaths
      * @param conn
      * @throws SQLException
      */
     private synchronized void addXpaths(Set<String> xpaths, Connection conn) throws SQLException {
+        xpaths.removeAll(stringToId.keySet()); // another thread may have added some in the meantime
         if (xpaths.size() == 0)
             return;
 
         PreparedStatement queryStmt = null;
         PreparedStatement insertStmt = null;
-        // Insert new xpaths.
-        insertStmt = conn.prepareStatement("INSERT INTO " + CLDR_XPATHS + " (xpath) " + " values ("
-            + " ?)");
-        for (String xpath : xpaths) {
-            insertStmt.setString(1, Utility.escape(xpath));
-            insertStmt.addBatch();
-            stat_dbAdd++;
-        }
-        insertStmt.executeBatch();
-        conn.commit();
-        insertStmt.close();
-
-        // PreparedStatement.getGeneratedKeys() only returns the ID of the
-        // last INSERT statement, so we have to improvise here by performing
-        // another SELECT to get the newly-inserted IDs.
-        queryStmt = conn.prepareStatement("SELECT id,xpath FROM " + CLDR_XPATHS + " ORDER BY id DESC");
-        queryStmt.setMaxRows(xpaths.size());
-        queryStmt.setFetchSize(xpaths.size());
-        ResultSet rs = queryStmt.executeQuery();
-        while (rs.next()) {
-            int id = rs.getInt(1);
-            String xpath = Utility.unescape(rs.getString(2));
-            setById(id, xpath);
+        ResultSet rs = null;
+        try {
+            // Insert new xpaths.
+            insertStmt = conn.prepareStatement("INSERT INTO " + CLDR_XPATHS + " (xpath) " + " values ("
+                + " ?)");
+            for (String xpath : xpaths) {
+                insertStmt.setString(1, Utility.escape(xpath));
+                insertStmt.addBatch();
+                stat_dbAdd++;
+            }
+            insertStmt.executeBatch();
+            conn.commit();
+
+            // PreparedStatement.getGeneratedKeys() only returns the ID of the
+            // last INSERT statement with some drivers, so read back all the rows
+            // added since the greatest id we knew of.
+            queryStmt = conn.prepareStatement("SELECT id,xpath FROM " + CLDR_XPATHS + " WHERE id > ?");
+            queryStmt.setInt(1, maxId);
+            queryStmt.setFetchSize(xpaths.size());
+            rs = queryStmt.executeQuery();
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                String xpath = Utility.unescape(rs.getString(2));
+                setById(id, xpath);
+            }
+        } finally {
+            DBUtils.close(rs, queryStmt, insertStmt);
         }
-        queryStmt.close();
     }
 
     /**
@@ -322,7 +322,7 @@ public class XPathTable {
         if (id == -1) {
             return null;
         }
-        String s = idToString_get(id);
+        String s = idToString.get(id);
         if (s != null) {
             return s;
         }
@@ -336,9 +336,14 @@ public class XPathTable {
      * @param id
      * @param xpath
      */
-    public final void setById(int id, String xpath) {
-        stringToId.put(idToString_put(id, xpath), id);
-        sidToString.put(getStringID(xpath), xpath);
+    public final synchronized void setById(int id, String xpath) {
+        // the reverse mappings first, so that an id found by xpath or stringid can always be looked up
+        idToString.put(id, xpath);
+        sidToId.put(getStringID(xpath), id);
+        stringToId.put(xpath, id);
+        if (id > maxId) {
+            maxId = id;
+        }
     }
 
     /**
@@ -707,22 +712,126 @@ public class XPathTable {
 
     public String getByStringID(String id) {
         if (id == null) return null;
-        Long l = Long.parseLong(id, 16);
-        String s = sidToString.get(l);
-        if (s != null)
-            return s;
-        // slow way
-        for (String x : stringToId.keySet()) {
-            if (getStringID(x) == l) {
-                sidToString.put(l, x);
-                return x;
-            }
+        long l = Long.parseLong(id, 16);
+        int xpid = sidToId.get(l);
+        if (xpid != NO_XPATH) {
+            return idToString.get(xpid);
         }
         if (SurveyMain.isUnofficial()) {
-            logger.warning("xpt: Couldn't find stringid " + id + " - sid has " + sidToString.size());
+            logger.warning("xpt: Couldn't find stringid " + id + " - table has " + stringToId.size());
         }
         // it may be
         return null;
     }
 
-}
\ No newline at end of file
+    /**
+     * Map from long (stringid) to int (xpid), without boxing. Reads don't lock; puts must be synchronized by the caller.
+     * Open addressing with linear probing; entries are never removed.
+     */
+    private static final class LongIntMap {
+        private static final long EMPTY = -1; // stringids are never negative
+
+        private static final class Table {
+            final AtomicLongArray keys;
+            final AtomicIntegerArray values;
+            int size = 0;
+
+            Table(int capacity) {
+                long[] emptyKeys = new long[capacity];
+                Arrays.fill(emptyKeys, EMPTY);
+                keys = new AtomicLongArray(emptyKeys);
+                values = new AtomicIntegerArray(capacity);
+            }
+        }
+
+        private volatile Table table;
+
+        LongIntMap(int expectedSize) {
+            table = new Table(Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) * 2);
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        /**
+         * @return the value, or NO_XPATH
+         */
+        int get(long key) {
+            Table t = table;
+            int mask = t.keys.length() - 1;
+            for (int i = slot(key, mask);; i = (i + 1) & mask) {
+                long k = t.keys.get(i); // the value is written before the key
+                if (k == key) {
+                    return t.values.get(i);
+                } else if (k == EMPTY) {
+                    return NO_XPATH;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            Table t = table;
+            if ((t.size + 1) * 2 > t.keys.length()) { // keep the load under 1/2
+                Table bigger = new Table(t.keys.length() * 2);
+                for (int i = 0; i < t.keys.length(); ++i) {
+                    long k = t.keys.get(i);
+                    if (k != EMPTY) {
+                        putInto(bigger, k, t.values.get(i));
+                    }
+                }
+                table = t = bigger;
+            }
+            putInto(t, key, value);
+        }
+
+        private static void putInto(Table t, long key, int value) {
+            int mask = t.keys.length() - 1;
+            for (int i = slot(key, mask);; i = (i + 1) & mask) {
+                long k = t.keys.get(i);
+                if (k == key) {
+                    t.values.set(i, value);
+                    return;
+                } else if (k == EMPTY) {
+                    t.values.set(i, value);
+                    t.keys.set(i, key); // publishes the value to readers
+                    t.size++;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Map from int (xpid) to String, as an array that grows as needed. Reads don't lock; puts must be synchronized by the caller.
+     */
+    private static final class IdToStringArray {
+        private volatile AtomicReferenceArray<String> array;
+
+        IdToStringArray(int initialSize) {
+            array = new AtomicReferenceArray<>(initialSize);
+        }
+
+        String get(int id) {
+            AtomicReferenceArray<String> a = array;
+            return id >= 0 && id < a.length() ? a.get(id) : null;
+        }
+
+        void put(int id, String value) {
+            AtomicReferenceArray<String> a = array;
+            if (id >= a.length()) {
+                AtomicReferenceArray<String> bigger = new AtomicReferenceArray<>(Math.max(id + 1, a.length() * 2));
+                for (int i = 0; i < a.length(); ++i) {
+                    bigger.set(i, a.get(i));
+                }
+                array = a = bigger;
+            }
+            a.set(id, value);
+        }
+
+        int length() {
+            return array.length();
+        }
+    }
+}
@@ -5,10 +5,20 @@ package org.unicode.cldr.unittest.web;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.XMLSource;
 import org.unicode.cldr.web.CookieSession;
 import org.unicode.cldr.web.DBUtils;
 import org.unicode.cldr.web.XPathTable;
@@ -64,6 +74,47 @@ public class TestXPathTable extends TestFmwk {
         logln("OK: Tested " + ii + " values");
     }
 
+    public void TestLoadXPaths() throws SQLException, InterruptedException, ExecutionException {
+        Connection conn = DBUtils.getInstance().getDBConnection();
+        XPathTable xpt = XPathTable.createTable(conn);
+        DBUtils.closeDBConnection(conn);
+        XMLSource source = new SimpleXMLSource("und");
+        for (int i = 0; i < TEST_COUNT; i++) {
+            source.putValueAtDPath("//test/load/" + i + "/[@hash=\"" + CookieSession.cheapEncode(i) + "\"]/item", "x");
+        }
+        xpt.loadXPaths(source); // one batch
+        Set<Integer> ids = new HashSet<>();
+        for (String xpath : source) {
+            int xpid = xpt.peekByXpath(xpath);
+            ids.add(xpid);
+            assertEquals("by id", xpath, xpt.getById(xpid));
+            assertEquals("by stringid", xpath, xpt.getByStringID(XPathTable.getStringIDString(xpath)));
+        }
+        assertEquals("distinct ids", TEST_COUNT, ids.size());
+
+        // Threads adding the same new paths all get the same ids.
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(pool.submit(() -> {
+                    List<Integer> result = new ArrayList<>();
+                    for (int i = 0; i < TEST_COUNT; i++) {
+                        result.add(xpt.getByXpath("//test/concurrent/" + i + "/[@hash=\"" + CookieSession.cheapEncode(i) + "\"]/item"));
+                    }
+                    return result;
+                }));
+            }
+            List<Integer> first = results.get(0).get();
+            for (Future<List<Integer>> result : results) {
+                assertEquals("same ids", first, result.get());
+            }
+            assertEquals("distinct ids", TEST_COUNT, new HashSet<>(first).size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     public void TestRemoveDraftAltProposed() {
         String inout[] = {
 
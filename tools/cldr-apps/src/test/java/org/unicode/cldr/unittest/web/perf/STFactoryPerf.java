@@ -0,0 +1,145 @@
+package org.unicode.cldr.unittest.web.perf;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.unicode.cldr.unittest.web.TestAll;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.CLDRPaths;
+import org.unicode.cldr.util.VoteResolver;
+import org.unicode.cldr.web.BallotBox;
+import org.unicode.cldr.web.CookieSession;
+import org.unicode.cldr.web.DBUtils;
+import org.unicode.cldr.web.STFactory;
+import org.unicode.cldr.web.SurveyMain;
+import org.unicode.cldr.web.UserRegistry;
+import org.unicode.cldr.web.UserRegistry.User;
+import org.unicode.cldr.web.XPathTable;
+
+/**
+ * Load test for the STFactory: many simulated vetters voting and reading across many locales at once.
+ * Uses the same test database as TestSTFactory.
+ *
+ * Example: java ... STFactoryPerf --threads 16 --iterations 200 --passes 2 VoteAndRead 40 100
+ * The two optional trailing arguments are the number of locales and the number of vetters.
+ */
+public class STFactoryPerf extends PerfTest {
+    private static final String[] PATHS = {
+        "//ldml/localeDisplayNames/keys/key[@type=\"collation\"]",
+        "//ldml/localeDisplayNames/keys/key[@type=\"numbers\"]",
+        "//ldml/localeDisplayNames/keys/key[@type=\"calendar\"]",
+        "//ldml/localeDisplayNames/keys/key[@type=\"currency\"]",
+    };
+
+    private int localeCount = 20;
+    private int vetterCount = 50;
+
+    private STFactory fac;
+    private final List<CLDRLocale> locales = new ArrayList<>();
+    private final List<User> vetters = new ArrayList<>();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        new STFactoryPerf().run(args);
+    }
+
+    @Override
+    protected void setup(String[] args) {
+        if (args.length > 0) {
+            localeCount = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            vetterCount = Integer.parseInt(args[1]);
+        }
+        try {
+            fac = makeFactory();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        for (CLDRLocale locale : SurveyMain.getLocales()) {
+            if (locales.size() == localeCount) {
+                break;
+            }
+            if (!STFactory.isReadOnlyLocale(locale) && !locale.equals(CLDRLocale.ROOT)) {
+                locales.add(locale);
+            }
+        }
+        for (int i = 0; i < vetterCount; ++i) {
+            String name = "perf_vetter" + i;
+            String email = name + "@surveytool.example.com";
+            User u = fac.sm.reg.get(email);
+            if (u == null) {
+                u = fac.sm.reg.createTestUser(name, "surveytool", "*", VoteResolver.Level.vetter, email);
+            }
+            vetters.add(u);
+        }
+        System.out.println("STFactoryPerf: " + locales.size() + " locales, " + vetters.size() + " vetters");
+    }
+
+    /**
+     * Same setup as TestSTFactory.
+     */
+    private static STFactory makeFactory() throws SQLException {
+        TestAll.setupTestDb();
+        SurveyMain sm = new SurveyMain();
+        CookieSession.sm = sm;
+        SurveyMain.fileBase = CLDRPaths.MAIN_DIRECTORY;
+        SurveyMain.fileBaseSeed = new File(CLDRPaths.BASE_DIRECTORY, "seed/main/").getAbsolutePath();
+        SurveyMain.fileBaseA = new File(CLDRPaths.BASE_DIRECTORY, "common/annotations/").getAbsolutePath();
+        SurveyMain.fileBaseASeed = new File(CLDRPaths.BASE_DIRECTORY, "seed/annotations/").getAbsolutePath();
+        Connection conn = DBUtils.getInstance().getDBConnection();
+        sm.reg = UserRegistry.createRegistry(sm);
+        sm.xpt = XPathTable.createTable(conn);
+        DBUtils.closeDBConnection(conn);
+        return sm.getSTFactory();
+    }
+
+    /**
+     * Each call fetches the resolved file of the next locale. The first pass measures concurrent loading.
+     */
+    PerfTest.Function testLoadLocales() {
+        return new PerfTest.Function() {
+            @Override
+            public void call(int id) {
+                CLDRLocale locale = locales.get(counter.getAndIncrement() % locales.size());
+                fac.make(locale, true).getStringValue(PATHS[0]);
+            }
+        };
+    }
+
+    /**
+     * Each call is one vote by one vetter in one locale, followed by reads of the votes of another locale,
+     * the way the vetting view of another user would read them.
+     */
+    PerfTest.Function testVoteAndRead() {
+        return new PerfTest.Function() {
+            @Override
+            public void call(int id) {
+                int n = counter.getAndIncrement();
+                User vetter = vetters.get((id * 31 + n) % vetters.size());
+                CLDRLocale locale = locales.get(n % locales.size());
+                String path = PATHS[n % PATHS.length];
+                BallotBox<User> box = fac.ballotBoxForLocale(locale);
+                try {
+                    box.voteForValue(vetter, path, (n % 3 == 0) ? null : "perf" + (n % 5));
+                } catch (BallotBox.InvalidXPathException | BallotBox.VoteNotAcceptedException e) {
+                    throw new RuntimeException(e);
+                }
+                BallotBox<User> other = fac.ballotBoxForLocale(locales.get((n + 1) % locales.size()));
+                for (String p : PATHS) {
+                    other.getValues(p);
+                    other.getResolver(p).getWinningValue();
+                }
+            }
+
+            @Override
+            public long getOperationsPerIteration() {
+                return 1 + PATHS.length;
+            }
+        };
+    }
+}
@@ -116,6 +116,47 @@ public abstract class CldrDataSupplier {
         return new XmlDataSource(type, ImmutableSet.copyOf(xmlFiles), draftStatus);
     }
 
+    /**
+     * Returns a supplier over a data file written by {@link #writeMappedDataFile}. The file is
+     * memory-mapped, and paths and values are decoded from it only as they are visited, so this
+     * supplier needs no XML parsing and very little heap, even when visiting every locale.
+     *
+     * <p>The supplier only has the locales, resolutions and data types that were written to the
+     * file, and {@link #withDraftStatusAtLeast(CldrDraftStatus)} can only raise the draft status
+     * above the one the file was written with. Note that raising it filters the values that were
+     * written, so for resolved data it is not the same as resolving with the higher status.
+     *
+     * @param dataFile the data file.
+     * @return a supplier for the data in the file.
+     * @throws IOException if the file cannot be read or is not a mapped data file.
+     */
+    public static CldrDataSupplier forMappedDataFile(Path dataFile) throws IOException {
+        return MappedDataSupplier.open(dataFile);
+    }
+
+    /**
+     * Writes a data file for {@link #forMappedDataFile(Path)} with data from another supplier
+     * (typically one from {@link #forCldrFilesIn(Path)}). This does all the XML parsing and
+     * resolution up front, so that later users of the data file don't have to.
+     *
+     * @param source the supplier to read data from.
+     * @param draftStatus the minimal draft status of the written data.
+     * @param localeIds the locales to write LDML data for.
+     * @param resolutions the resolutions to write for each locale.
+     * @param types the non-{@link CldrDataType#LDML LDML} data types to write.
+     * @param dataFile the file to write (replaced atomically if it exists).
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeMappedDataFile(
+        CldrDataSupplier source,
+        CldrDraftStatus draftStatus,
+        Set<String> localeIds,
+        Set<CldrResolution> resolutions,
+        Set<CldrDataType> types,
+        Path dataFile) throws IOException {
+        MappedDataSupplier.write(source, draftStatus, localeIds, resolutions, types, dataFile);
+    }
+
     private static Multimap<CldrDataType, Path> createCldrDirectoryMap(
         Path cldrRootDir, Set<String> rootDirs) {
 
@@ -272,7 +313,7 @@ public abstract class CldrDataSupplier {
             p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".xml");
     }
 
-    private static final CldrData NO_DATA = new CldrData() {
+    static final CldrData NO_DATA = new CldrData() {
         @Override public void accept(PathOrder order, ValueVisitor visitor) {}
 
         @Override public void accept(PathOrder order, PrefixVisitor visitor) {}
@@ -0,0 +1,356 @@
+package org.unicode.cldr.api;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.unicode.cldr.api.CldrData.PathOrder.DTD;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.unicode.cldr.api.CldrData.ValueVisitor;
+import org.unicode.cldr.util.XPathView;
+
+import com.google.common.base.Ascii;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * A supplier over a precompiled data file, which is memory-mapped when the supplier is created.
+ * Values are decoded from the mapped buffer only as they are visited, so visiting a whole locale
+ * needs no XML parsing and holds almost nothing on the heap beyond the values the visitor keeps.
+ *
+ * <p>The file is made by {@link CldrDataSupplier#writeMappedDataFile} from any other supplier. It
+ * holds one section per (locale, resolution) pair and per non-LDML data type. Each section is a
+ * table of record offsets followed by the records (full path and value, as UTF-8) in DTD order,
+ * which also satisfies the other path orders and allows binary search in {@link CldrData#get}.
+ *
+ * <p>The file format is:
+ * <pre>
+ *   header:    int MAGIC, int VERSION, byte draft status ordinal
+ *   sections:  int count, int[count] record offsets (from the section start),
+ *              records of (int length, UTF-8 full path, int length, UTF-8 value)
+ *   directory: int count, then for each section (UTF key, long offset, long length)
+ *   footer:    long directory offset
+ * </pre>
+ */
+final class MappedDataSupplier extends CldrDataSupplier {
+    private static final int MAGIC = 0x434c444d; // "CLDM"
+    private static final int VERSION = 1;
+
+    private final ImmutableMap<String, ByteBuffer> sections;
+    private final ImmutableSet<String> localeIds;
+    // The status the data was compiled with.
+    private final CldrDraftStatus compiledDraftStatus;
+    // The status requested by the user (never less than the compiled status).
+    private final CldrDraftStatus draftStatus;
+
+    private MappedDataSupplier(
+        ImmutableMap<String, ByteBuffer> sections,
+        ImmutableSet<String> localeIds,
+        CldrDraftStatus compiledDraftStatus,
+        CldrDraftStatus draftStatus) {
+        this.sections = sections;
+        this.localeIds = localeIds;
+        this.compiledDraftStatus = compiledDraftStatus;
+        this.draftStatus = draftStatus;
+    }
+
+    static MappedDataSupplier open(Path dataFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 9);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("not a mapped CLDR data file (or an old version): " + dataFile);
+            }
+            CldrDraftStatus compiledDraftStatus = CldrDraftStatus.values()[header.get()];
+            long directoryOffset =
+                channel.map(FileChannel.MapMode.READ_ONLY, size - Long.BYTES, Long.BYTES).getLong();
+            ByteBuffer directory = channel.map(
+                FileChannel.MapMode.READ_ONLY, directoryOffset, size - Long.BYTES - directoryOffset);
+
+            ImmutableMap.Builder<String, ByteBuffer> sections = ImmutableMap.builder();
+            ImmutableSet.Builder<String> localeIds = ImmutableSet.builder();
+            for (int count = directory.getInt(); count > 0; count--) {
+                byte[] keyBytes = new byte[directory.getShort() & 0xFFFF];
+                directory.get(keyBytes);
+                String key = new String(keyBytes, StandardCharsets.UTF_8);
+                long offset = directory.getLong();
+                long length = directory.getLong();
+                // Each section is mapped separately, so only sections (not the file) must be < 2GB.
+                sections.put(key, channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+                if (key.startsWith(LOCALE_KEY_PREFIX)) {
+                    localeIds.add(key.substring(LOCALE_KEY_PREFIX.length(), key.lastIndexOf('/')));
+                }
+            }
+            return new MappedDataSupplier(
+                sections.build(), localeIds.build(), compiledDraftStatus, compiledDraftStatus);
+        }
+    }
+
+    private static final String LOCALE_KEY_PREFIX = "LDML/";
+
+    private static String localeKey(String localeId, CldrResolution resolution) {
+        return LOCALE_KEY_PREFIX + localeId + "/" + resolution;
+    }
+
+    private static String typeKey(CldrDataType type) {
+        return type.name();
+    }
+
+    @Override
+    public CldrDataSupplier withDraftStatusAtLeast(CldrDraftStatus draftStatus) {
+        // The data can't supply values below the status it was compiled with.
+        CldrDraftStatus status =
+            draftStatus.compareTo(compiledDraftStatus) > 0 ? draftStatus : compiledDraftStatus;
+        return new MappedDataSupplier(sections, localeIds, compiledDraftStatus, status);
+    }
+
+    @Override
+    public CldrData getDataForLocale(String localeId, CldrResolution resolution) {
+        LocaleIds.checkCldrLocaleId(localeId);
+        if (!localeIds.contains(localeId)) {
+            return NO_DATA;
+        }
+        ByteBuffer section = sections.get(localeKey(localeId, resolution));
+        checkArgument(section != null,
+            "%s data for locale %s was not compiled into this file", resolution, localeId);
+        return new MappedData(section, draftStatus);
+    }
+
+    @Override
+    public Set<String> getAvailableLocaleIds() {
+        return localeIds;
+    }
+
+    @Override
+    public CldrData getDataForType(CldrDataType type) {
+        checkArgument(type != CldrDataType.LDML, "cannot get non-locale data for LDML");
+        ByteBuffer section = sections.get(typeKey(type));
+        return section != null ? new MappedData(section, draftStatus) : NO_DATA;
+    }
+
+    /**
+     * Data over one mapped section. Visiting it decodes the records one at a time. Thread-safe,
+     * since every visit works on its own view of the buffer.
+     */
+    private static final class MappedData implements CldrData {
+        private final ByteBuffer section;
+        private final int count;
+        private final CldrDraftStatus draftStatus;
+
+        MappedData(ByteBuffer section, CldrDraftStatus draftStatus) {
+            this.section = section.asReadOnlyBuffer();
+            this.count = section.getInt(0);
+            this.draftStatus = draftStatus;
+        }
+
+        @Override
+        public void accept(PathOrder order, ValueVisitor visitor) {
+            // Records are stored in DTD order, which is also a valid order for every other option.
+            Reader reader = new Reader();
+            for (int i = 0; i < count; i++) {
+                CldrValue value = reader.read(i);
+                if (hasAllowedDraftStatus(value.getPath())) {
+                    visitor.visit(value);
+                }
+            }
+        }
+
+        @Override
+        /* @Nullable */
+        public CldrValue get(CldrPath path) {
+            // Binary search, decoding only the probed records.
+            Reader reader = new Reader();
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                CldrValue value = reader.read(mid);
+                int cmp = value.getPath().compareTo(path);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return hasAllowedDraftStatus(value.getPath()) ? value : null;
+                }
+            }
+            return null;
+        }
+
+        private boolean hasAllowedDraftStatus(CldrPath path) {
+            return path.getDraftStatus().map(s -> s.compareTo(draftStatus) >= 0).orElse(true);
+        }
+
+        /** Decodes records, reusing the path elements shared with the previous record. */
+        private final class Reader {
+            private final ByteBuffer buffer = section.duplicate();
+            private byte[] bytes = new byte[256];
+            private final Map<AttributeKey, String> valueAttributes = new LinkedHashMap<>();
+            // See CldrFileDataSource for how the reversed stack is used.
+            private final List<CldrPath> previousElementStack = new ArrayList<>();
+            private final List<CldrPath> previousElements = Lists.reverse(previousElementStack);
+
+            CldrValue read(int index) {
+                buffer.position(section.getInt(Integer.BYTES * (index + 1)));
+                String fullPath = readString();
+                String value = readString();
+                valueAttributes.clear();
+                CldrPath path =
+                    CldrPaths.processXPath(fullPath, previousElements, valueAttributes::put);
+                previousElementStack.clear();
+                for (CldrPath p = path; p != null; p = p.getParent()) {
+                    previousElementStack.add(p);
+                }
+                return CldrValue.create(value, valueAttributes, path);
+            }
+
+            private String readString() {
+                int length = buffer.getInt();
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, 2 * bytes.length)];
+                }
+                buffer.get(bytes, 0, length);
+                return new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /** Writes the data file; see {@link CldrDataSupplier#writeMappedDataFile}. */
+    static void write(
+        CldrDataSupplier source,
+        CldrDraftStatus draftStatus,
+        Set<String> localeIds,
+        Set<CldrResolution> resolutions,
+        Set<CldrDataType> types,
+        Path dataFile) throws IOException {
+
+        checkNotNull(draftStatus);
+        CldrDataSupplier supplier = source.withDraftStatusAtLeast(draftStatus);
+        Path temp = Files.createTempFile(
+            dataFile.toAbsolutePath().getParent(), dataFile.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                DataOutputStream out = new DataOutputStream(file)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeByte(draftStatus.ordinal());
+                long offset = Integer.BYTES * 2 + 1;
+
+                Map<String, long[]> directory = new LinkedHashMap<>();
+                for (String localeId : localeIds) {
+                    for (CldrResolution resolution : resolutions) {
+                        String key = localeKey(localeId, resolution);
+                        byte[] section = encode(supplier.getDataForLocale(localeId, resolution));
+                        out.write(section);
+                        directory.put(key, new long[] {offset, section.length});
+                        offset += section.length;
+                    }
+                }
+                for (CldrDataType type : types) {
+                    checkArgument(type != CldrDataType.LDML, "LDML data is written per locale");
+                    byte[] section = encode(supplier.getDataForType(type));
+                    out.write(section);
+                    directory.put(typeKey(type), new long[] {offset, section.length});
+                    offset += section.length;
+                }
+
+                out.writeInt(directory.size());
+                for (Map.Entry<String, long[]> entry : directory.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue()[0]);
+                    out.writeLong(entry.getValue()[1]);
+                }
+                out.writeLong(offset);
+            }
+            Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static byte[] encode(CldrData data) throws IOException {
+        List<CldrValue> values = new ArrayList<>();
+        data.accept(DTD, values::add);
+        values.sort(Comparator.comparing(CldrValue::getPath));
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(records);
+        int[] offsets = new int[values.size()];
+        int tableSize = Integer.BYTES * (values.size() + 1);
+        XPathView view = new XPathView();
+        StringBuilder fullPath = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            offsets[i] = tableSize + recordOut.size();
+            CldrValue value = values.get(i);
+            writeString(recordOut, getFullPathWithDraftStatus(value, view, fullPath));
+            writeString(recordOut, value.getValue());
+        }
+        recordOut.flush();
+
+        ByteArrayOutputStream section = new ByteArrayOutputStream(tableSize + records.size());
+        DataOutputStream out = new DataOutputStream(section);
+        out.writeInt(values.size());
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        records.writeTo(out);
+        out.flush();
+        return section.toByteArray();
+    }
+
+    /**
+     * The full path of a value doesn't include the draft status, so add it back as a "draft"
+     * attribute on the top-most element that has one (the status is inherited from there).
+     */
+    private static String getFullPathWithDraftStatus(
+        CldrValue value, XPathView view, StringBuilder buffer) {
+        String fullPath = value.getFullPath();
+        CldrPath top = null;
+        for (CldrPath p = value.getPath(); p != null; p = p.getParent()) {
+            if (p.getDraftStatus().isPresent()) {
+                top = p;
+            }
+        }
+        if (top == null) {
+            return fullPath;
+        }
+        Optional<CldrDraftStatus> status = top.getDraftStatus();
+        int index = top.getLength() - 1;
+        view.set(fullPath);
+        buffer.setLength(0);
+        buffer.append('/');
+        for (int i = 0; i < view.size(); i++) {
+            view.appendElementWithAttributes(buffer, i);
+            if (i == index) {
+                buffer.append("[@draft=\"")
+                    .append(Ascii.toLowerCase(status.get().name()))
+                    .append("\"]");
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.LanguageTagParser;
@@ -294,23 +295,233 @@ public class Keyboard {
         }
     }
 
+    /**
+     * The transforms of one type. The from strings are compiled into a trie, so that finding the rules that
+     * continue a prefix, or typing through the transforms, walks the input once instead of scanning every rule.
+     */
     public static class Transforms {
         final Map<String, String> string2string;
 
+        // the rules, in data order
+        private final String[] froms;
+        private final String[] tos;
+        private final int maxFromLength;
+
+        // the trie: the edges out of state s are at [firstEdge[s], firstEdge[s+1]), sorted by char. State 0 is the root.
+        private final int[] firstEdge;
+        private final char[] edgeChars;
+        private final int[] edgeTargets;
+        private final String[] stateOutput; // the "to" if a "from" ends at the state, otherwise null
+        private final int[][] stateRules; // the rules whose "from" passes through the state, in data order
+
         public Transforms(Map<String, String> data) {
             this.string2string = data;
+            froms = data.keySet().toArray(new String[data.size()]);
+            tos = new String[froms.length];
+
+            List<TreeMap<Character, Integer>> children = new ArrayList<>();
+            List<List<Integer>> rules = new ArrayList<>();
+            children.add(new TreeMap<>());
+            rules.add(new ArrayList<>());
+            Map<Integer, String> outputs = new HashMap<>();
+            int maxLength = 0;
+            for (int i = 0; i < froms.length; ++i) {
+                String from = froms[i];
+                tos[i] = data.get(from);
+                maxLength = Math.max(maxLength, from.length());
+                int state = 0;
+                rules.get(state).add(i);
+                for (int j = 0; j < from.length(); ++j) {
+                    Integer next = children.get(state).get(from.charAt(j));
+                    if (next == null) {
+                        next = children.size();
+                        children.get(state).put(from.charAt(j), next);
+                        children.add(new TreeMap<>());
+                        rules.add(new ArrayList<>());
+                    }
+                    state = next;
+                    rules.get(state).add(i);
+                }
+                outputs.put(state, tos[i]);
+            }
+            maxFromLength = maxLength;
+
+            int stateCount = children.size();
+            firstEdge = new int[stateCount + 1];
+            edgeChars = new char[stateCount - 1]; // every state but the root has exactly one edge into it
+            edgeTargets = new int[stateCount - 1];
+            stateOutput = new String[stateCount];
+            stateRules = new int[stateCount][];
+            int edge = 0;
+            for (int state = 0; state < stateCount; ++state) {
+                firstEdge[state] = edge;
+                for (Entry<Character, Integer> entry : children.get(state).entrySet()) {
+                    edgeChars[edge] = entry.getKey();
+                    edgeTargets[edge++] = entry.getValue();
+                }
+                stateOutput[state] = outputs.get(state);
+                stateRules[state] = rules.get(state).stream().mapToInt(Integer::intValue).toArray();
+            }
+            firstEdge[stateCount] = edge;
         }
 
+        /**
+         * Return the rules, as a map from each from string to its result.
+         */
+        public Map<String, String> getRules() {
+            return Collections.unmodifiableMap(string2string);
+        }
+
+        /**
+         * Return the rules whose from string starts with the prefix, as a map from the rest of the from string to the
+         * result, in data order.
+         */
         public Map<String, String> getMatch(String prefix) {
             Map<String, String> results = new LinkedHashMap<>();
-            for (Entry<String, String> entry : string2string.entrySet()) {
-                String key = entry.getKey();
-                if (key.startsWith(prefix)) {
-                    results.put(key.substring(prefix.length()), entry.getValue());
+            int state = 0;
+            for (int i = 0; i < prefix.length() && state >= 0; ++i) {
+                state = getNextState(state, prefix.charAt(i));
+            }
+            if (state >= 0) {
+                for (int rule : stateRules[state]) {
+                    results.put(froms[rule].substring(prefix.length()), tos[rule]);
                 }
             }
             return results;
         }
+
+        /**
+         * Start typing through these transforms.
+         */
+        public Typer newTyper() {
+            return new Typer(this);
+        }
+
+        /**
+         * @return the state reached from the state by the char, or -1 if there is none.
+         */
+        private int getNextState(int state, char ch) {
+            int low = firstEdge[state];
+            int high = firstEdge[state + 1] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = edgeChars[mid];
+                if (midChar < ch) {
+                    low = mid + 1;
+                } else if (midChar > ch) {
+                    high = mid - 1;
+                } else {
+                    return edgeTargets[mid];
+                }
+            }
+            return -1;
+        }
+
+        private boolean hasNextStates(int state) {
+            return firstEdge[state + 1] > firstEdge[state];
+        }
+    }
+
+    /**
+     * Simulates typing with one set of transforms, a keystroke at a time. Characters that could start (or continue) a
+     * transform are held as pending until either a from string matches, and is replaced by its result, or no longer
+     * can, and they are output as typed. Matching is leftmost-longest. Except for growing the text, typing doesn't
+     * allocate. Not thread-safe; make one per thread.
+     */
+    public static class Typer {
+        private final Transforms transforms;
+        private final StringBuilder text = new StringBuilder();
+        private final char[] pending;
+        private int pendingLength;
+
+        private Typer(Transforms transforms) {
+            this.transforms = transforms;
+            // a full from string is never left pending, so there is never more than this
+            pending = new char[transforms.maxFromLength + 1];
+        }
+
+        /**
+         * Type the output of a key.
+         */
+        public Typer type(CharSequence keyOutput) {
+            for (int i = 0; i < keyOutput.length(); ++i) {
+                pending[pendingLength++] = keyOutput.charAt(i);
+                resolvePending(false);
+            }
+            return this;
+        }
+
+        /**
+         * Type the output of a key with transform="no": any pending characters are output as they are, then the
+         * key's output.
+         */
+        public Typer typeWithoutTransform(CharSequence keyOutput) {
+            flush();
+            text.append(keyOutput);
+            return this;
+        }
+
+        /**
+         * Resolve the pending characters without waiting for more keystrokes, as when the cursor is moved.
+         */
+        public Typer flush() {
+            resolvePending(true);
+            return this;
+        }
+
+        public Typer reset() {
+            text.setLength(0);
+            pendingLength = 0;
+            return this;
+        }
+
+        /**
+         * @return the text typed so far, not including any pending characters. This is a live view, not a copy.
+         */
+        public CharSequence getText() {
+            return text;
+        }
+
+        public int getPendingLength() {
+            return pendingLength;
+        }
+
+        /**
+         * @return the text typed so far followed by any pending characters, as they would be displayed.
+         */
+        @Override
+        public String toString() {
+            return text.toString() + new String(pending, 0, pendingLength);
+        }
+
+        private void resolvePending(boolean flush) {
+            while (pendingLength > 0) {
+                int state = 0;
+                int matchLength = 0;
+                String match = null;
+                for (int i = 0; i < pendingLength; ++i) {
+                    state = transforms.getNextState(state, pending[i]);
+                    if (state < 0) {
+                        break;
+                    }
+                    if (transforms.stateOutput[state] != null) {
+                        matchLength = i + 1;
+                        match = transforms.stateOutput[state];
+                    }
+                }
+                if (state >= 0 && !flush && transforms.hasNextStates(state)) {
+                    return; // the next keystroke may make a longer match
+                }
+                if (match != null) {
+                    text.append(match);
+                } else {
+                    text.append(pending[0]);
+                    matchLength = 1;
+                }
+                pendingLength -= matchLength;
+                System.arraycopy(pending, matchLength, pending, 0, pendingLength);
+            }
+        }
     }
 
     private final String locale;
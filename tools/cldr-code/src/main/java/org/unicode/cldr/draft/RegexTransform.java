@@ -1,8 +1,10 @@
 package org.unicode.cldr.draft;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 
 /**
@@ -11,47 +13,84 @@ import java.util.regex.Matcher;
  * @author markdavis
  */
 public class RegexTransform implements com.ibm.icu.text.StringTransform {
-    private static final char BUCKETSIZE = 257;
     private final List<Rule> rules;
-    private final List<Rule>[] buckets = new List[BUCKETSIZE];
+    private final int[] allRules;
+
+    /**
+     * For each code point, the rules (in order) that might match text starting with it. Filled in as code points are
+     * first seen, so the cost is in the number of distinct code points transformed rather than the size of Unicode.
+     * The BMP code points are in pages of 256, indexed by the high byte, and a page is only made when one of its code
+     * points is first seen: most transforms only see a few scripts, so only a few pages.
+     */
+    private final Candidates[][] bmpCandidates = new Candidates[0x100][];
+    private final Map<Integer, Candidates> supplementaryCandidates = new ConcurrentHashMap<>();
+
+    // the final field makes the array safe to publish through the racy bmpCandidates
+    private static final class Candidates {
+        final int[] rules;
+
+        Candidates(int[] rules) {
+            this.rules = rules;
+        }
+    }
 
     public RegexTransform(List<Rule> rules2) {
         rules = new ArrayList<>(rules2);
-
-        // we now fill the buckets with rules, in order, that might match that bucket.
-        for (int i = 0; i < BUCKETSIZE; ++i) {
-            buckets[i] = new ArrayList<>();
+        allRules = new int[rules.size()];
+        for (int i = 0; i < allRules.length; ++i) {
+            allRules[i] = i;
         }
-        List<Matcher> matchers = new ArrayList<>();
-        for (Rule rule : rules) {
-            matchers.add(rule.getPostmatcher(""));
+    }
+
+    int size() {
+        return rules.size();
+    }
+
+    Rule getRule(int index) {
+        return rules.get(index);
+    }
+
+    /**
+     * Return the indexes of the rules, in order, that could match the text at the offset. Only those rules need to be
+     * tried.
+     */
+    int[] getCandidates(CharSequence text, int offset) {
+        if (offset >= text.length()) {
+            return allRules;
         }
-        for (char i = 0; i < 0xD800; ++i) {
-            String s = String.valueOf(i);
-            int masked = i % BUCKETSIZE;
-            for (int j = 0; j < matchers.size(); ++j) {
-                Matcher matcher = matchers.get(j);
-                if (matcher.reset(s).matches() || matcher.hitEnd()) {
-                    buckets[masked].add(rules.get(j));
-                }
+        int cp = Character.codePointAt(text, offset);
+        Candidates result;
+        if (cp < 0x10000) {
+            // a race just computes the same thing twice, or makes a page twice and loses the other's entries
+            Candidates[] page = bmpCandidates[cp >> 8];
+            if (page == null) {
+                bmpCandidates[cp >> 8] = page = new Candidates[0x100];
             }
+            result = page[cp & 0xFF];
+            if (result == null) {
+                page[cp & 0xFF] = result = computeCandidates(cp);
+            }
+        } else {
+            result = supplementaryCandidates.computeIfAbsent(cp, this::computeCandidates);
         }
+        return result.rules;
     }
 
     /**
-     * right now, this doesn't do anything; later we can optimize by picking just those rules that could match
-     *
-     * @param toProcess
-     * @return
+     * A rule can match text starting with the code point only if it either matches the code point alone, or needs to
+     * look further.
      */
-    Iterator<Rule> iterator(CharSequence toProcess) {
-        if (toProcess.length() > 0) {
-            char c = toProcess.charAt(0);
-            if (c < 0xD800) {
-                return buckets[c % BUCKETSIZE].iterator();
+    private Candidates computeCandidates(int cp) {
+        String s = new StringBuilder().appendCodePoint(cp).toString();
+        int[] result = new int[rules.size()];
+        int count = 0;
+        for (int i = 0; i < rules.size(); ++i) {
+            Matcher matcher = rules.get(i).getPostmatcher(s);
+            if (matcher.lookingAt() || matcher.hitEnd()) {
+                result[count++] = i;
             }
         }
-        return rules.iterator();
+        return new Candidates(count == result.length ? result : Arrays.copyOf(result, count));
     }
 
     @Override
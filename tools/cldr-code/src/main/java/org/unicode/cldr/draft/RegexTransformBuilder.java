@@ -7,6 +7,8 @@ import java.util.regex.Pattern;
 
 import org.unicode.cldr.draft.PatternFixer.Target;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.text.Normalizer;
 import com.ibm.icu.text.StringTransform;
@@ -17,8 +19,19 @@ public class RegexTransformBuilder {
     static final boolean DEBUG = false;
     private static final boolean SKIP_BAD = true;
 
-    // initially just very rough rule parser, for proof-of-concept
+    // the transforms are immutable, and each RegexTransform fills in its dispatch table as it is used, so share them;
+    // only the most recently used are kept, since the rules can come from anywhere
+    private static final Cache<String, StringTransform> CACHE = CacheBuilder.newBuilder().maximumSize(100).build();
+
+    /**
+     * Create a transform from the rules, or return the one already created from the same rules.
+     */
     public static StringTransform createFromRules(String string) {
+        return CACHE.asMap().computeIfAbsent(string, RegexTransformBuilder::build);
+    }
+
+    // initially just very rough rule parser, for proof-of-concept
+    private static StringTransform build(String string) {
         List<StringTransform> compound = new ArrayList<>();
 
         List<Rule> rules = new ArrayList<>();
@@ -1,6 +1,5 @@
 package org.unicode.cldr.draft;
 
-import java.util.Iterator;
 import java.util.regex.Matcher;
 
 public class RegexTransformState {
@@ -13,16 +12,24 @@ public class RegexTransformState {
     private static final boolean DEBUG2 = false;
 
     StringBuilder processedAlready = new StringBuilder();
+    // only the part from the cursor on is still to be processed; the matchers look at it through a region
     StringBuilder toBeProcessed;
+    int cursor;
     RegexTransform regexTransform;
 
+    // the matchers for each rule, made on first use and reused, since they are always over the same two builders
+    private final Matcher[] prematchers;
+    private final Matcher[] postmatchers;
+
     public RegexTransformState(RegexTransform regexTransform, CharSequence text) {
         this.regexTransform = regexTransform;
         toBeProcessed = new StringBuilder(text);
+        prematchers = new Matcher[regexTransform.size()];
+        postmatchers = new Matcher[regexTransform.size()];
 
         main: while (true) {
             if (DEBUG) {
-                System.out.println("T:\t" + processedAlready + "|" + toBeProcessed);
+                System.out.println("T:\t" + processedAlready + "|" + toBeProcessed.substring(cursor));
             }
             Status s = match();
             switch (s) {
@@ -34,21 +41,21 @@ public class RegexTransformState {
                 // processedAlready.append(toBeProcessed);
                 // break main;
             case NOMATCH:
-                if (toBeProcessed.length() == 0) {
+                if (cursor >= toBeProcessed.length()) {
                     break main;
                 }
                 // transfer one code point
-                // TODO fix -- right now it is char
-                processedAlready.append(toBeProcessed.subSequence(0, 1));
-                toBeProcessed.delete(0, 1);
+                int end = cursor + Character.charCount(Character.codePointAt(toBeProcessed, cursor));
+                processedAlready.append(toBeProcessed, cursor, end);
+                cursor = end;
                 break;
             }
         }
     }
 
     public Status match() {
-        for (Iterator<Rule> it = regexTransform.iterator(toBeProcessed); it.hasNext();) {
-            Status status = match(it.next());
+        for (int ruleIndex : regexTransform.getCandidates(toBeProcessed, cursor)) {
+            Status status = match(ruleIndex);
             if (status != Status.NOMATCH) { // keep going as long as we get NOMATCH
                 return status;
             }
@@ -57,26 +64,34 @@ public class RegexTransformState {
     }
 
     /**
-     * return true if the rule matches at offset in text, without touching text before start or after finish
+     * return MATCH if the rule matches at the cursor, without touching text before start or after finish, and do the
+     * replacement.
      *
-     * @param text
-     * @param offset
-     * @param start
-     * @param finish
+     * @param ruleIndex
      */
-    public Status match(Rule rule) {
-        // fix to use real API
+    private Status match(int ruleIndex) {
+        Rule rule = regexTransform.getRule(ruleIndex);
         if (DEBUG2) {
             System.out.println("R:\t" + rule);
         }
-        Matcher prematcher = rule.getPrematcher(processedAlready);
+        Matcher prematcher = prematchers[ruleIndex];
+        if (prematcher == null) {
+            prematcher = prematchers[ruleIndex] = rule.getPrematcher(processedAlready);
+        } else {
+            prematcher.reset(); // pick up the new contents of processedAlready
+        }
         if (prematcher != null && !rule.prematch(prematcher, processedAlready)) {
             if (DEBUG2) {
                 System.out.println("=>" + Status.NOMATCH);
             }
             return Status.NOMATCH;
         }
-        final Matcher postmatcher = rule.getPostmatcher(toBeProcessed);
+        Matcher postmatcher = postmatchers[ruleIndex];
+        if (postmatcher == null) {
+            postmatcher = postmatchers[ruleIndex] = rule.getPostmatcher(toBeProcessed);
+        }
+        // with the default opaque, anchoring bounds, the region looks to the pattern just like the remaining text
+        postmatcher.region(cursor, toBeProcessed.length());
         if (!postmatcher.lookingAt()) {
             if (postmatcher.hitEnd()) {
                 if (DEBUG2) {
@@ -96,18 +111,24 @@ public class RegexTransformState {
         int newCursor = rule.append(processedAlready, prematcher, postmatcher);
         // we are going to adjust the contents of processedAlready and toBeProcessed
         // based on the new cursor, and what we are going to "eat" from the toBeProcessed.
-        // first do it the slow way; optimize later
-        toBeProcessed.delete(0, postmatcher.end());
+        cursor = postmatcher.end();
         final int delta = newCursor - processedAlready.length();
         if (delta == 0) {
             // do nothing, all ok
         } else if (delta < 0) {
-            // move stuff to future
-            toBeProcessed.insert(0, processedAlready.subSequence(newCursor, processedAlready.length()));
+            // move stuff to future, reusing the space already eaten if there is enough
+            CharSequence moved = processedAlready.subSequence(newCursor, processedAlready.length());
+            if (cursor >= moved.length()) {
+                cursor -= moved.length();
+                toBeProcessed.replace(cursor, cursor + moved.length(), moved.toString());
+            } else {
+                toBeProcessed.insert(cursor, moved);
+            }
             processedAlready.setLength(newCursor);
-        } else { // greater
-            processedAlready.append(toBeProcessed.subSequence(0, delta));
-            processedAlready.delete(0, delta);
+        } else { // greater: skip over text after the match, but no further than the end
+            int end = Math.min(cursor + delta, toBeProcessed.length());
+            processedAlready.append(toBeProcessed, cursor, end);
+            cursor = end;
         }
         return Status.MATCH;
     }
@@ -99,10 +99,56 @@ public class Rule {
         for (String s : results2) {
             if (s.startsWith("$")) {
                 results.add(new NumberedItem(Integer.parseInt(s.substring(1)), true));
-            } else if (s.length() > 0) {
+            } else {
+                addText(s);
+            }
+        }
+    }
+
+    /**
+     * Add literal text of the replacement, which may have a cursor: "x|y" puts the cursor after the x, "|@@x" two
+     * before the start of the replacement, and "x@@|" two after its end, as in ICU rules.
+     */
+    private void addText(String s) {
+        int cursorPos = s.indexOf('|');
+        if (cursorPos < 0) {
+            if (s.length() > 0) {
                 results.add(new StringItem(s));
             }
+            return;
+        }
+        String before = s.substring(0, cursorPos);
+        String after = s.substring(cursorPos + 1);
+        int atsBefore = before.length() - trimAts(before, false).length();
+        int atsAfter = after.length() - trimAts(after, true).length();
+        if (atsBefore > 0) { // x@@|
+            addText(trimAts(before, false));
+            outOfBoundsCursor = atsBefore;
+            addText(after);
+        } else if (atsAfter > 0) { // |@@x
+            addText(before);
+            outOfBoundsCursor = -atsAfter;
+            addText(trimAts(after, true));
+        } else {
+            addText(before);
+            results.add(CursorItem.CURSOR);
+            addText(after);
+        }
+    }
+
+    private static String trimAts(String s, boolean leading) {
+        int start = 0;
+        int end = s.length();
+        if (leading) {
+            while (start < end && s.charAt(start) == '@') {
+                ++start;
+            }
+        } else {
+            while (end > start && s.charAt(end - 1) == '@') {
+                --end;
+            }
         }
+        return s.substring(start, end);
     }
 
     /**
@@ -125,7 +171,7 @@ public class Rule {
             }
         }
         return cursor >= 0 ? cursor
-            : outOfBoundsCursor < 0 ? startPosition + outOfBoundsCursor
+            : outOfBoundsCursor < 0 ? Math.max(0, startPosition + outOfBoundsCursor)
                 : result.length() + outOfBoundsCursor;
     }
 
@@ -1,5 +1,7 @@
 package org.unicode.cldr.draft;
 
+import java.util.Collections;
+
 import org.unicode.cldr.util.Timer;
 
 import com.ibm.icu.dev.test.TestFmwk;
@@ -91,6 +93,44 @@ public class TransformTest extends TestFmwk {
         checkAgainstCurrent("Latin-Greek", "abk", "Delpho", "ango", "ago");
     }
 
+    public void TestSupplementary() {
+        StringTransform transform = RegexTransformBuilder.createFromRules("\uD835\uDC9C > A; b > B");
+        assertEquals("dispatch on supplementary characters", "AxB", transform.transform("\uD835\uDC9Cxb"));
+    }
+
+    /**
+     * Rules that put the cursor inside the replacement, or before or after it, so that part of the replacement, or of
+     * the text around it, is transformed again or skipped.
+     */
+    public void TestCursor() {
+        String[][] tests = {
+            { "a > x|y; y > Y;", "aay", "ab" }, // cursor inside the replacement
+            { "b > |z; z > Z;", "bb", "abz" }, // cursor at the start of the replacement
+            { "a } bc > x@@|; b > B; c > C;", "abc", "abcbc", "bc" }, // cursor past the end, skipping bc
+            { "q { a > |@y; y > Y; qy > Z;", "qa", "qaqa", "a" }, // cursor before the start, back into the context
+        };
+        for (String[] test : tests) {
+            StringTransform transform = RegexTransformBuilder.createFromRules(test[0]);
+            Transliterator oldTransform = Transliterator.createFromRules("foo", test[0], Transliterator.FORWARD);
+            for (int i = 1; i < test.length; ++i) {
+                assertEquals(test[0] + "\t" + test[i], oldTransform.transform(test[i]), transform.transform(test[i]));
+            }
+        }
+    }
+
+    public void TestCache() {
+        String rules = "ab > AB; BA > CD";
+        assertTrue("same rules, same transform",
+            RegexTransformBuilder.createFromRules(rules) == RegexTransformBuilder.createFromRules(rules));
+    }
+
+    public void TestLargeText() {
+        Transliterator oldGreek = Transliterator.getInstance("Latin-Greek");
+        StringTransform newGreek = RegexTransformBuilder.createFromRules(oldGreek.toRules(false));
+        String text = String.join(" ", Collections.nCopies(1000, "abk Delpho ango ago"));
+        check(10, text, newGreek, oldGreek);
+    }
+
     public void checkAgainstCurrent(String translitId, String... tests) {
         Transliterator oldGreek = Transliterator.getInstance(translitId);
         String rules = oldGreek.toRules(false);
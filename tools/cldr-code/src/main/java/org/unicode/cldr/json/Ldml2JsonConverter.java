@@ -17,6 +17,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -62,6 +63,7 @@ import com.ibm.icu.number.LocalizedNumberFormatter;
 import com.ibm.icu.number.NumberFormatter;
 import com.ibm.icu.number.Precision;
 import com.ibm.icu.util.NoUnit;
+import com.ibm.icu.util.Output;
 
 /**
  * Utility methods to extract data from CLDR repository and export it in JSON
@@ -129,7 +131,12 @@ public class Ldml2JsonConverter {
     }
 
     private AvailableLocales avl = new AvailableLocales();
-    private Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create(); // package-private for testing
+
+    /**
+     * For testing: called with each section file that is written, and the tree it was written from.
+     */
+    BiConsumer<File, JsonObject> sectionWritten = null;
     private static final Options options = new Options(
         "Usage: LDML2JsonConverter [OPTIONS] [FILES]\n" +
             "This program converts CLDR data to the JSON format.\n" +
@@ -611,125 +618,43 @@ public class Ldml2JsonConverter {
                     packages.add(CLDR_PKG_PREFIX + js.packageName + FULL_TIER_SUFFIX);
                 }
 
-                for (String outputDir : outputDirs) {
-                    List<CldrItem> theItems = sectionItems.get(js);
-                    if (theItems == null || theItems.size() == 0) {
+                List<CldrItem> theItems = sectionItems.get(js);
+                if (theItems == null || theItems.size() == 0) {
+                    for (String outputDir : outputDirs) {
                         logger.fine(() -> ">" + progressPrefix(readCount, totalCount) +
                             outputDir + " - no items to write in " + js.section); // mostly noise
-                        continue;
                     }
-                    logger.fine(() -> ("?" + progressPrefix(readCount, totalCount, filename, js.section) +
-                         " - " + theItems.size() + " item(s)" + "\r"));
+                    continue;
+                }
+                logger.fine(() -> ("?" + progressPrefix(readCount, totalCount, filename, js.section) +
+                     " - " + theItems.size() + " item(s)" + "\r"));
+                // The tree is the same for every output dir (modern and full), so build it only once.
+                Output<Integer> valueCount = new Output<>();
+                JsonObject out = buildSectionTree(js, filename, theItems, valueCount);
+                sectionItems.remove(js); // the items aren't needed any more, and this section's tree can be large
+
+                for (String outputDir : outputDirs) {
                     // Create the output dir if it doesn't exist
                     File dir = new File(outputDir.toString());
                     if (!dir.exists()) {
                         dir.mkdirs();
                     }
-                    JsonObject out = new JsonObject(); // root object for writing
-
-                    ArrayList<CldrItem> sortingItems = new ArrayList<>();
-                    ArrayList<CldrItem> arrayItems = new ArrayList<>();
-
-                    ArrayList<CldrNode> nodesForLastItem = new ArrayList<>();
-                    String lastLeadingArrayItemPath = null;
-                    String leadingArrayItemPath = "";
-                    int valueCount = 0;
-                    String previousIdentityPath = null;
-                    for (CldrItem item : theItems) {
-                        if (item.getPath().isEmpty()) {
-                            throw new IllegalArgumentException("empty xpath in " + filename + " section " + js.packageName + "/" + js.section);
-                        }
-                        if (type == RunType.rbnf) {
-                            item.adjustRbnfPath();
-                        }
-
-                        // items in the identity section of a file should only ever contain the lowest level, even if using
-                        // resolving source, so if we have duplicates ( caused by attributes used as a value ) then suppress
-                        // them here.
-                        if (item.getPath().contains("/identity/")) {
-                            String[] parts = item.getPath().split("\\[");
-                            if (parts[0].equals(previousIdentityPath)) {
-                                continue;
-                            } else {
-                                XPathParts xpp = XPathParts.getFrozenInstance(item.getPath());
-                                String territory = xpp.findAttributeValue("territory", "type");
-                                LocaleIDParser lp = new LocaleIDParser().set(filename);
-                                if (territory != null && territory.length() > 0 && !territory.equals(lp.getRegion())) {
-                                    continue;
-                                }
-                                previousIdentityPath = parts[0];
-                            }
-                        }
 
-                        // some items need to be split to multiple item before processing. None
-                        // of those items need to be sorted.
-                        // Applies to SPLITTABLE_ATTRS attributes.
-                        CldrItem[] items = item.split();
-                        if (items == null) {
-                            // Nothing to split. Make it a 1-element array.
-                            items = new CldrItem[1];
-                            items[0] = item;
-                        }
-                        valueCount += items.length;
-
-                        // Hard code this part.
-                        if (item.getUntransformedPath().contains("unitPreference")) {
-                            // Need to do more transforms on this one, so just output version/etc here.
-                            continue;
-                        }
-
-                        for (CldrItem newItem : items) {
-                            // alias will be dropped in conversion, don't count it.
-                            if (newItem.isAliasItem()) {
-                                valueCount--;
-                            }
-
-                            // Items like zone items need to be sorted first before write them out.
-                            if (newItem.needsSort()) {
-                                resolveArrayItems(out, nodesForLastItem, arrayItems);
-                                sortingItems.add(newItem);
-                            } else {
-                                Matcher matcher = LdmlConvertRules.ARRAY_ITEM_PATTERN.matcher(
-                                    newItem.getPath());
-                                if (matcher.matches()) {
-                                    resolveSortingItems(out, nodesForLastItem, sortingItems);
-                                    leadingArrayItemPath = matcher.group(1);
-                                    if (lastLeadingArrayItemPath != null &&
-                                        !lastLeadingArrayItemPath.equals(leadingArrayItemPath)) {
-                                        resolveArrayItems(out, nodesForLastItem, arrayItems);
-                                    }
-                                    lastLeadingArrayItemPath = leadingArrayItemPath;
-                                    arrayItems.add(newItem);
-                                } else {
-                                    // output a single item
-                                    resolveSortingItems(out, nodesForLastItem, sortingItems);
-                                    resolveArrayItems(out, nodesForLastItem, arrayItems);
-                                    outputCldrItem(out, nodesForLastItem, newItem);
-                                    lastLeadingArrayItemPath = "";
-                                }
-                            }
-                        }
-                    }
-
-                    resolveSortingItems(out, nodesForLastItem, sortingItems);
-                    resolveArrayItems(out, nodesForLastItem, arrayItems);
-                    if (js.section.contains("unitPreferenceData")) {
-                        outputUnitPreferenceData(js, theItems, out, nodesForLastItem);
-                    }
-
-                    // closeNodes(out, nodesForLastItem.size() - 2, 0);
-
-                    // write JSON
+                    // write JSON, streaming the tree to the file rather than making a string of it first
                     try (PrintWriter outf = FileUtilities.openUTF8Writer(outputDir, outFilename)) {
-                        outf.println(gson.toJson(out));
+                        gson.toJson(out, outf);
+                        outf.println();
+                    }
+                    if (sectionWritten != null) {
+                        sectionWritten.accept(new File(outputDir, outFilename), out);
                     }
 
                     String outPath = new File(outputDir.substring(this.outputDir.length()), outFilename).getPath();
-                    outputProgress.add(Pair.of(js.section+' '+outPath, valueCount));
+                    outputProgress.add(Pair.of(js.section+' '+outPath, valueCount.value));
                     logger.fine(">" + progressPrefix(readCount, totalCount, filename, js.section) + String.format("…%s (%d values)",
-                        outPath, valueCount));
+                        outPath, valueCount.value));
 
-                    totalItemsInFile += valueCount;
+                    totalItemsInFile += valueCount.value;
                 }
             }
 
@@ -752,6 +677,111 @@ public class Ldml2JsonConverter {
         return totalItemsInFile;
     }
 
+    /**
+     * Build the JSON tree of one section of a file from its items.
+     *
+     * @param valueCount
+     *            set to the number of values in the tree
+     * @return the root object of the tree
+     */
+    private JsonObject buildSectionTree(JSONSection js, String filename, List<CldrItem> theItems, Output<Integer> valueCount)
+        throws IOException, ParseException {
+        JsonObject out = new JsonObject(); // root object for writing
+
+        ArrayList<CldrItem> sortingItems = new ArrayList<>();
+        ArrayList<CldrItem> arrayItems = new ArrayList<>();
+
+        ArrayList<CldrNode> nodesForLastItem = new ArrayList<>();
+        String lastLeadingArrayItemPath = null;
+        String leadingArrayItemPath = "";
+        int count = 0;
+        String previousIdentityPath = null;
+        for (CldrItem item : theItems) {
+            if (item.getPath().isEmpty()) {
+                throw new IllegalArgumentException("empty xpath in " + filename + " section " + js.packageName + "/" + js.section);
+            }
+            if (type == RunType.rbnf) {
+                item.adjustRbnfPath();
+            }
+
+            // items in the identity section of a file should only ever contain the lowest level, even if using
+            // resolving source, so if we have duplicates ( caused by attributes used as a value ) then suppress
+            // them here.
+            if (item.getPath().contains("/identity/")) {
+                String[] parts = item.getPath().split("\\[");
+                if (parts[0].equals(previousIdentityPath)) {
+                    continue;
+                } else {
+                    XPathParts xpp = XPathParts.getFrozenInstance(item.getPath());
+                    String territory = xpp.findAttributeValue("territory", "type");
+                    LocaleIDParser lp = new LocaleIDParser().set(filename);
+                    if (territory != null && territory.length() > 0 && !territory.equals(lp.getRegion())) {
+                        continue;
+                    }
+                    previousIdentityPath = parts[0];
+                }
+            }
+
+            // some items need to be split to multiple item before processing. None
+            // of those items need to be sorted.
+            // Applies to SPLITTABLE_ATTRS attributes.
+            CldrItem[] items = item.split();
+            if (items == null) {
+                // Nothing to split. Make it a 1-element array.
+                items = new CldrItem[1];
+                items[0] = item;
+            }
+            count += items.length;
+
+            // Hard code this part.
+            if (item.getUntransformedPath().contains("unitPreference")) {
+                // Need to do more transforms on this one, so just output version/etc here.
+                continue;
+            }
+
+            for (CldrItem newItem : items) {
+                // alias will be dropped in conversion, don't count it.
+                if (newItem.isAliasItem()) {
+                    count--;
+                }
+
+                // Items like zone items need to be sorted first before write them out.
+                if (newItem.needsSort()) {
+                    resolveArrayItems(out, nodesForLastItem, arrayItems);
+                    sortingItems.add(newItem);
+                } else {
+                    Matcher matcher = LdmlConvertRules.ARRAY_ITEM_PATTERN.matcher(
+                        newItem.getPath());
+                    if (matcher.matches()) {
+                        resolveSortingItems(out, nodesForLastItem, sortingItems);
+                        leadingArrayItemPath = matcher.group(1);
+                        if (lastLeadingArrayItemPath != null &&
+                            !lastLeadingArrayItemPath.equals(leadingArrayItemPath)) {
+                            resolveArrayItems(out, nodesForLastItem, arrayItems);
+                        }
+                        lastLeadingArrayItemPath = leadingArrayItemPath;
+                        arrayItems.add(newItem);
+                    } else {
+                        // output a single item
+                        resolveSortingItems(out, nodesForLastItem, sortingItems);
+                        resolveArrayItems(out, nodesForLastItem, arrayItems);
+                        outputCldrItem(out, nodesForLastItem, newItem);
+                        lastLeadingArrayItemPath = "";
+                    }
+                }
+            }
+        }
+
+        resolveSortingItems(out, nodesForLastItem, sortingItems);
+        resolveArrayItems(out, nodesForLastItem, arrayItems);
+        if (js.section.contains("unitPreferenceData")) {
+            outputUnitPreferenceData(js, theItems, out, nodesForLastItem);
+        }
+
+        valueCount.value = count;
+        return out;
+    }
+
     private boolean localeIsModernTier(String filename) {
         boolean isModernTier;
         {
@@ -54,10 +54,14 @@ public class BestMinimalPairSamples {
     final private PluralRules pluralInfo;
     final private PluralRules ordinalInfo;
     final private ICUServiceBuilder icuServiceBuilder;
-    private CaseAndGenderSamples caseAndGenderSamples = null; // lazy evaluated
-    private Multimap<String, String> genderToUnits;
-    private Multimap<Integer, String> uniqueCaseAndCountToUnits;
-    private Multimap<String, String> distinctNominativeCaseToUnit;
+    /*
+     * Lazy evaluated. ExampleGenerator can be shared between threads, so this is only set once loadCaches is done,
+     * and the statistics are only set (while holding the lock) by loadCaches.
+     */
+    private volatile CaseAndGenderSamples caseAndGenderSamples = null;
+    private Multimap<String, String> genderToUnits = ImmutableMultimap.of();
+    private Multimap<Integer, String> uniqueCaseAndCountToUnits = ImmutableMultimap.of();
+    private Multimap<String, String> distinctNominativeCaseToUnit = ImmutableMultimap.of();
     private final boolean gatherStats;
 
     public BestMinimalPairSamples(CLDRFile cldrFile, ICUServiceBuilder icuServiceBuilder, boolean gatherStats) {
@@ -66,8 +70,6 @@ public class BestMinimalPairSamples {
         pluralInfo = supplementalDataInfo.getPlurals(PluralType.cardinal, cldrFile.getLocaleID()).getPluralRules();
         ordinalInfo = supplementalDataInfo.getPlurals(PluralType.ordinal, cldrFile.getLocaleID()).getPluralRules();
         this.icuServiceBuilder = icuServiceBuilder;
-        genderToUnits = TreeMultimap.create();
-        uniqueCaseAndCountToUnits = TreeMultimap.create();
         this.gatherStats = gatherStats;
     }
 
@@ -102,28 +104,35 @@ public class BestMinimalPairSamples {
      * Returns a "good" value for a unit. Favors metric units, and simple units
      * @param shortUnitId
      */
-    public synchronized String getBestUnitWithGender(String gender, Output<String> shortUnitId) {
+    public String getBestUnitWithGender(String gender, Output<String> shortUnitId) {
         if (gender == null || grammarInfo == null) {
             return null;
         }
-        if (caseAndGenderSamples == null) {
-            caseAndGenderSamples = loadCaches();
-        }
-        return caseAndGenderSamples.getGender(gender, shortUnitId);
+        return getCaseAndGenderSamples().getGender(gender, shortUnitId);
     }
 
     /**
      * Returns a "good" value for a unit. Favors metric units, and simple units
      * @param shortUnitId
      */
-    public synchronized String getBestUnitWithCase(String unitCase, Output<String> shortUnitId) {
+    public String getBestUnitWithCase(String unitCase, Output<String> shortUnitId) {
         if (unitCase == null || grammarInfo == null) {
             return null;
         }
-        if (caseAndGenderSamples == null) {
-            caseAndGenderSamples = loadCaches();
+        return getCaseAndGenderSamples().getCase(unitCase, shortUnitId);
+    }
+
+    private CaseAndGenderSamples getCaseAndGenderSamples() {
+        CaseAndGenderSamples result = caseAndGenderSamples;
+        if (result == null) {
+            synchronized (this) {
+                result = caseAndGenderSamples;
+                if (result == null) {
+                    caseAndGenderSamples = result = loadCaches();
+                }
+            }
         }
-        return caseAndGenderSamples.getCase(unitCase, shortUnitId);
+        return result;
     }
 
     static final Set<String> SKIP_CASE = ImmutableSet.of(
@@ -132,11 +141,13 @@ public class BestMinimalPairSamples {
         "length-100-kilometer",
         "pressure-ofhg");
 
-    public CaseAndGenderSamples loadCaches() {
+    public synchronized CaseAndGenderSamples loadCaches() {
         Collection<String> unitCases = grammarInfo.get(GrammaticalTarget.nominal, GrammaticalFeature.grammaticalCase, GrammaticalScope.units);
         Map<String,String> genderResults = Maps.newHashMap();
         Multimap<String, Pair<String,String>> unitPatternToCaseAndCounts = TreeMultimap.create();
-        distinctNominativeCaseToUnit = TreeMultimap.create();
+        Multimap<String, String> genderToUnits = TreeMultimap.create();
+        Multimap<Integer, String> uniqueCaseAndCountToUnits = TreeMultimap.create();
+        Multimap<String, String> distinctNominativeCaseToUnit = TreeMultimap.create();
 
         int bestCaseFormCount = 0;
         String bestCaseUnitId = null;
@@ -233,9 +244,9 @@ public class BestMinimalPairSamples {
         Map<String, Pair<String, String>> genderCache = ImmutableMap.copyOf(result2);
         CaseAndGenderSamples result = new CaseAndGenderSamples(caseCache, ExampleGenerator.UNIT_CONVERTER.getShortId(bestCaseUnitId), genderCache);
 
-        genderToUnits = ImmutableMultimap.copyOf(genderToUnits);
-        uniqueCaseAndCountToUnits = ImmutableMultimap.copyOf(uniqueCaseAndCountToUnits);
-        distinctNominativeCaseToUnit = ImmutableMultimap.copyOf(distinctNominativeCaseToUnit);
+        this.genderToUnits = ImmutableMultimap.copyOf(genderToUnits);
+        this.uniqueCaseAndCountToUnits = ImmutableMultimap.copyOf(uniqueCaseAndCountToUnits);
+        this.distinctNominativeCaseToUnit = ImmutableMultimap.copyOf(distinctNominativeCaseToUnit);
         return result;
     }
 
@@ -393,14 +404,14 @@ public class BestMinimalPairSamples {
         return result == null ? "X" : result;
     }
 
-    public Multimap<String, String> getGenderToUnits() {
+    public synchronized Multimap<String, String> getGenderToUnits() {
         return genderToUnits;
     }
 
-    public Multimap<Integer, String> getUniqueCaseAndCountToUnits() {
+    public synchronized Multimap<Integer, String> getUniqueCaseAndCountToUnits() {
         return uniqueCaseAndCountToUnits;
     }
-    public Multimap<String, String> getDistinctNominativeCaseToUnit() {
+    public synchronized Multimap<String, String> getDistinctNominativeCaseToUnit() {
         return distinctNominativeCaseToUnit;
     }
 }
\ No newline at end of file
@@ -76,6 +76,13 @@ public class CheckAttributeValues extends FactoryCheckCLDR {
         }
     }
 
+    @Override
+    public void mergeFinishState(CheckCLDR other) {
+        for (Entry<String, Set<String>> entry : ((CheckAttributeValues) other).missingTests.keyValuesSet()) {
+            missingTests.putAll(entry.getKey(), entry.getValue());
+        }
+    }
+
     @Override
     public CheckCLDR handleCheck(String path, String fullPath, String value, Options options,
         List<CheckStatus> result) {
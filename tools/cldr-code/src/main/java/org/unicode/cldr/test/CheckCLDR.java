@@ -12,12 +12,14 @@ import java.io.IOException;
 import java.text.ParsePosition;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -567,6 +569,16 @@ abstract public class CheckCLDR {
         this.skipTest = skipTest;
     }
 
+    /**
+     * Whether a change to the value of the path could make results already returned by this check out of date
+     * through state that the check built up lazily, from data it didn't read through the file being checked (such as
+     * the parent files). A cache of results that only tracks the paths read from that file must start over when this
+     * returns true.
+     */
+    public boolean hasLazyStateDependingOn(String path) {
+        return false;
+    }
+
     /**
      * Here is where the list of all checks is found.
      *
@@ -1198,6 +1210,13 @@ abstract public class CheckCLDR {
     public void handleFinish() {
     }
 
+    /**
+     * Only for use in ConsoleCheck, for debugging: add what handleFinish would report for another instance of the
+     * same check (used for other locales or paths) to this one, so that handleFinish only needs to be called once.
+     */
+    public void mergeFinishState(CheckCLDR other) {
+    }
+
     /**
      * Internal class used to bundle up a number of Checks.
      *
@@ -1208,6 +1227,7 @@ abstract public class CheckCLDR {
         private Matcher filter;
         private List<CheckCLDR> checkList = new ArrayList<>();
         private List<CheckCLDR> filteredCheckList = new ArrayList<>();
+        private Map<String, Long> checkNanos = null;
 
         public CompoundCheckCLDR add(CheckCLDR item) {
             checkList.add(item);
@@ -1239,6 +1259,7 @@ abstract public class CheckCLDR {
                         continue;
                     }
                 }
+                long start = checkNanos == null ? 0 : System.nanoTime();
                 try {
                     if (!item.isSkipTest()) {
                         item.handleCheck(path, fullPath, value, options, result);
@@ -1246,11 +1267,42 @@ abstract public class CheckCLDR {
                 } catch (Exception e) {
                     addError(result, item, e);
                     return this;
+                } finally {
+                    if (checkNanos != null) {
+                        checkNanos.merge(item.getClass().getSimpleName(), System.nanoTime() - start, Long::sum);
+                    }
                 }
             }
             return this;
         }
 
+        /**
+         * Turn on (or off) timing of handleCheck for each of the checks. A CompoundCheckCLDR is used by one thread
+         * at a time, so the times are kept in a plain map.
+         */
+        public CompoundCheckCLDR setRecordCheckTimes(boolean recordCheckTimes) {
+            checkNanos = recordCheckTimes ? new TreeMap<>() : null;
+            return this;
+        }
+
+        /**
+         * Get the nanoseconds spent in handleCheck so far, by the simple class name of each check,
+         * or an empty map if setRecordCheckTimes wasn't turned on.
+         */
+        public Map<String, Long> getCheckTimes() {
+            return checkNanos == null ? Collections.emptyMap() : Collections.unmodifiableMap(checkNanos);
+        }
+
+        @Override
+        public boolean hasLazyStateDependingOn(String path) {
+            for (CheckCLDR item : filteredCheckList) {
+                if (item.hasLazyStateDependingOn(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @Override
         public void handleFinish() {
             for (Iterator<CheckCLDR> it = filteredCheckList.iterator(); it.hasNext();) {
@@ -1259,6 +1311,22 @@ abstract public class CheckCLDR {
             }
         }
 
+        /**
+         * The other CompoundCheckCLDR must have been made by getCheckAll with the same filter, so that its checks
+         * are in the same order.
+         */
+        @Override
+        public void mergeFinishState(CheckCLDR other) {
+            List<CheckCLDR> otherCheckList = ((CompoundCheckCLDR) other).filteredCheckList;
+            if (otherCheckList.size() != filteredCheckList.size()) {
+                throw new IllegalArgumentException("Different checks: " + getFilteredTests() + ", "
+                    + ((CompoundCheckCLDR) other).getFilteredTests());
+            }
+            for (int i = 0; i < filteredCheckList.size(); ++i) {
+                filteredCheckList.get(i).mergeFinishState(otherCheckList.get(i));
+            }
+        }
+
         @Override
         protected CheckCLDR handleGetExamples(String path, String fullPath, String value, Options options,
             List<CheckStatus> result) {
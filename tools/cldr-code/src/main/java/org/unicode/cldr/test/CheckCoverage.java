@@ -38,7 +38,7 @@ import org.unicode.cldr.util.XMLSource;
 public class CheckCoverage extends FactoryCheckCLDR {
     static final boolean DEBUG = false;
     static final boolean DEBUG_SET = false;
-    private static CoverageLevel2 coverageLevel;
+    private CoverageLevel2 coverageLevel;
     private Level requiredLevel;
 
     SupplementalDataInfo supplementalData;
@@ -7,7 +7,6 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -17,6 +16,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -70,7 +70,7 @@ public class CheckDates extends FactoryCheckCLDR {
     // Ordered list of this CLDRFile and parent CLDRFiles up to root
     List<CLDRFile> parentCLDRFiles = new ArrayList<>();
     // Map from calendar type (i.e. "gregorian", "generic", "chinese") to DateTimePatternGenerator instance for that type
-    Map<String, DateTimePatternGenerator> dtpgForType = new HashMap<>();
+    Map<String, DateTimePatternGenerator> dtpgForType = new ConcurrentHashMap<>();
 
     // Use the width of the character "0" as the basic unit for checking widths
     // It's not perfect, but I'm not sure that anything can be. This helps us
@@ -1165,6 +1165,16 @@ public class CheckDates extends FactoryCheckCLDR {
             .setCause(this).setMainType(CheckStatus.demoType));
     }
 
+    /**
+     * The DateTimePatternGenerators are built from the availableFormats of this file and its parents, the first time
+     * a calendar type needs one.
+     */
+    @Override
+    public boolean hasLazyStateDependingOn(String path) {
+        return !dtpgForType.isEmpty() && path.startsWith("//ldml/dates/calendars/")
+            && path.contains("/availableFormats/");
+    }
+
     private DateTimePatternGenerator getDTPGForCalendarType(String calendarType) {
         DateTimePatternGenerator dtpg = dtpgForType.get(calendarType);
         if (dtpg == null) {
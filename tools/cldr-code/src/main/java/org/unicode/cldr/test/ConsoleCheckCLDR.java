@@ -3,22 +3,32 @@ package org.unicode.cldr.test;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.unicode.cldr.draft.FileUtilities;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
@@ -62,6 +72,7 @@ import org.unicode.cldr.util.VoteResolver.CandidateInfo;
 import org.unicode.cldr.util.VoteResolver.UnknownVoterException;
 import org.unicode.cldr.util.XMLSource;
 
+import com.google.common.base.Throwables;
 import com.ibm.icu.dev.tool.UOption;
 import com.ibm.icu.dev.util.ElapsedTimer;
 import com.ibm.icu.impl.Relation;
@@ -114,7 +125,9 @@ public class ConsoleCheckCLDR {
         VOTE_RESOLVE = 17,
         ID_VIEW = 18,
         SUBTYPE_FILTER = 19,
-        BAILEY = 21
+        BAILEY = 21,
+        THREADS = 23,
+        CHECK_TIMES = 24
         ;
 
     static final String SOURCE_DIRS = CLDRPaths.MAIN_DIRECTORY + "," + CLDRPaths.ANNOTATIONS_DIRECTORY + "," + CLDRPaths.SEED_DIRECTORY;
@@ -155,7 +168,10 @@ public class ConsoleCheckCLDR {
             "Partially qualified directories. Standard subdirectories added if not specified (/main, /annotations, /subdivisions). (Conflicts with -s.)")
             .setMatch(".*").setFlag('S').setDefault("common,seed,exemplars")), //, 'S', <changed>),
         bailey(new Params().setHelp("check bailey values (" + CldrUtility.INHERITANCE_MARKER + ")")), //, 'b', UOption.NO_ARG)
-        exemplarError(new Params().setFlag('E').setHelp("include to force strict Exemplar check"));
+        exemplarError(new Params().setFlag('E').setHelp("include to force strict Exemplar check")),
+        threads(new Params().setHelp("Number of threads to check with, eg -j4. The output is the same as with one thread.")
+            .setFlag('j').setDefault("1").setMatch("\\d+")),
+        checkTimes(new Params().setHelp("Show the time spent in each check, over all the locales").setFlag('T'));
 
         // BOILERPLATE TO COPY
         final Option option;
@@ -199,7 +215,9 @@ public class ConsoleCheckCLDR {
         UOption.create("subtype_filter", 'y', UOption.REQUIRES_ARG),
         UOption.create("source_all", 'S', UOption.OPTIONAL_ARG).setDefault("common,seed,exemplars"),
         UOption.create("bailey", 'b', UOption.NO_ARG),
-        UOption.create("exemplarError", 'E', UOption.NO_ARG)
+        UOption.create("exemplarError", 'E', UOption.NO_ARG),
+        UOption.create("threads", 'j', UOption.REQUIRES_ARG).setDefault("1"),
+        UOption.create("checkTimes", 'T', UOption.NO_ARG)
     };
 
     private static final Comparator<String> baseFirstCollator = new Comparator<String>() {
@@ -354,6 +372,12 @@ public class ConsoleCheckCLDR {
 
         String user = options[USER].value;
 
+        int threadCount = Integer.parseInt(options[THREADS].value);
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("-j" + threadCount + "\t is invalid: must be at least 1");
+        }
+        boolean showCheckTimes = options[CHECK_TIMES].doesOccur;
+
         System.out.println("Source directories:\n");
         for (File f : sourceDirectories) {
             System.out.println("    " + f.getPath() + "\t("
@@ -380,10 +404,7 @@ public class ConsoleCheckCLDR {
         Set<String> locales = new TreeSet<>(baseFirstCollator);
         locales.addAll(cldrFactory.getAvailable());
 
-        List<CheckStatus> result = new ArrayList<>();
-        Set<PathHeader> paths = new TreeSet<>(); // CLDRFile.ldmlComparator);
         Map<String, String> m = new TreeMap<>();
-        Map<String, String> options = new HashMap<>();
         FlexibleDateFromCLDR fset = new FlexibleDateFromCLDR();
         Set<String> englishPaths = null;
 
@@ -397,22 +418,24 @@ public class ConsoleCheckCLDR {
         String lastBaseLanguage = "";
         PathHeader.Factory pathHeaderFactory = PathHeader.getFactory(english);
 
+        // first decide which locales to check, and with which options
         final List<String> specialPurposeLocales = new ArrayList<>(Arrays.asList("en_US_POSIX", "en_ZZ"));
+        List<LocaleCheck> localeChecks = new ArrayList<>();
         for (String localeID : locales) {
             if (CLDRFile.isSupplementalName(localeID)) continue;
             if (supplementalDataInfo.getDefaultContentLocales().contains(localeID)) {
-                System.out.println("# Skipping default content locale: " + localeID);
+                localeChecks.add(new LocaleCheck("# Skipping default content locale: " + localeID));
                 continue;
             }
 
             // We don't really need to check the POSIX locale, as it is a special purpose locale
             if (specialPurposeLocales.contains(localeID)) {
-                System.out.println("# Skipping special purpose locale: " + localeID);
+                localeChecks.add(new LocaleCheck("# Skipping special purpose locale: " + localeID));
                 continue;
             }
 
             boolean isLanguageLocale = localeID.equals(localeIDParser.set(localeID).getLanguageScript());
-            options.clear();
+            Map<String, String> options = new HashMap<>();
 
             if (MyOptions.exemplarError.option.doesOccur()) {
                 options.put(Options.Option.exemplarErrors.toString(), "true");
@@ -437,28 +460,33 @@ public class ConsoleCheckCLDR {
             if (organization != null) options.put(Options.Option.CoverageLevel_localeType.getKey(), organization.toString());
             options.put(Options.Option.phase.getKey(), phase.toString());
 
-            if (SHOW_LOCALE) System.out.println();
+            localeChecks.add(new LocaleCheck(localeID, isLanguageLocale, level, options));
+        }
 
-            CLDRFile file;
-            CLDRFile englishFile = english;
-            CLDRFile parent = null;
+        // then check them, in parallel if asked for, and show the results in the order above
+        LocaleChecker localeChecker = new LocaleChecker(checkCldr, threadCount, cldrFactory, checkFilter, english,
+            pathHeaderFactory, pathFilterString, coverageLevel, user, showAll, baileyTest, showCheckTimes);
+        for (LocaleCheck localeCheck : localeChecker.check(localeChecks)) {
+            if (localeCheck.skipMessage != null) {
+                System.out.println(localeCheck.skipMessage);
+                continue;
+            }
+            final String localeID = localeCheck.localeID;
+            final Level level = localeCheck.level;
 
-            ElapsedTimer timer = new ElapsedTimer();
-            try {
-                file = cldrFactory.make(localeID, true);
-                if (ErrorFile.voteFactory != null) {
-                    ErrorFile.voteFile = ErrorFile.voteFactory.make(localeID, true);
-                }
-                final String parentID = LocaleIDParser.getParent(localeID);
-                if (parentID != null) {
-                    parent = cldrFactory.make(parentID, true);
-                }
-            } catch (RuntimeException e) {
+            if (SHOW_LOCALE) System.out.println();
+
+            if (localeCheck.fatalError != null) {
                 fatalErrors.add(localeID);
                 System.out.println("FATAL ERROR: " + localeID);
-                e.printStackTrace(System.out);
+                localeCheck.fatalError.printStackTrace(System.out);
                 continue;
             }
+            CLDRFile file = localeCheck.file;
+            CLDRFile englishFile = english;
+            if (ErrorFile.voteFactory != null) {
+                ErrorFile.voteFile = ErrorFile.voteFactory.make(localeID, true);
+            }
 
             // generate HTML if asked for
             if (ErrorFile.generated_html_directory != null) {
@@ -470,17 +498,9 @@ public class ConsoleCheckCLDR {
                 }
             }
 
-            if (user != null) {
-                file = new CLDRFile.TestUser(file, user, isLanguageLocale);
-                if (parent != null) {
-                    parent = new CLDRFile.TestUser(parent, user, isLanguageLocale);
-                }
-            }
-            checkCldr.setCldrFileToCheck(file, new Options(options), result);
-
             subtotalCount.clear();
 
-            for (Iterator<CheckStatus> it3 = result.iterator(); it3.hasNext();) {
+            for (Iterator<CheckStatus> it3 = localeCheck.possibleErrors.iterator(); it3.hasNext();) {
                 CheckStatus status = it3.next();
                 String statusString = status.toString(); // com.ibm.icu.impl.Utility.escape(
                 CheckStatus.Type statusType = status.getType();
@@ -500,21 +520,6 @@ public class ConsoleCheckCLDR {
                 }
                 showValue(file, null, localeID, null, null, null, null, statusString, status.getSubtype());
             }
-            paths.clear();
-
-            CoverageInfo covInfo = cldrConf.getCoverageInfo();
-            for (String path : file.fullIterable()) {
-                if (pathFilter != null && !pathFilter.reset(path).find()) {
-                    continue;
-                }
-                if (coverageLevel != null) {
-                    Level currentLevel = covInfo.getCoverageLevel(path, localeID);
-                    if (currentLevel.compareTo(coverageLevel) > 0) {
-                        continue;
-                    }
-                }
-                paths.add(pathHeaderFactory.fromPath(path));
-            }
 
             // also add the English paths
             // initialize the first time in.
@@ -538,113 +543,82 @@ public class ConsoleCheckCLDR {
             ExampleGenerator exampleGenerator = SHOW_EXAMPLES ? new ExampleGenerator(file, englishFile,
                 CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY) : null;
 
-            int pathCount = 0;
-            Status otherPath = new Status();
-
-            for (PathHeader pathHeader : paths) {
-                pathCount++;
-                String path = pathHeader.getOriginalPath();
-                String prettyPath = pathHeader.toString().replace('\t', '|').replace(' ', '_');
-                if (!showAll && !file.isWinningPath(path)) {
-                    continue;
-                }
-                if (!isLanguageLocale && !baileyTest) {
-                    final String sourceLocaleID = file.getSourceLocaleID(path, otherPath);
-                    if (!localeID.equals(sourceLocaleID)) {
-                        continue;
-                    }
-                    // also skip aliases
-                    if (!path.equals(otherPath.pathWhereFound)) {
-                        continue;
-                    }
-                }
-                if (path.contains("@alt") && path.contains("proposed")) {
-                    continue;
-                }
-                String value = file.getStringValue(path);
-                if (baileyTest) {
-                    value = CldrUtility.INHERITANCE_MARKER;
-                }
-                String fullPath = file.getFullXPath(path);
+            for (PathCheck pathCheck : localeCheck.pathChecks) {
+                String path = pathCheck.path;
+                String prettyPath = pathCheck.pathHeader.toString().replace('\t', '|').replace(' ', '_');
+                String value = pathCheck.value;
+                String fullPath = pathCheck.fullPath;
 
                 String example = "";
                 if (SHOW_EXAMPLES) {
                     example = ExampleGenerator.simplify(exampleGenerator.getExampleHtml(path, value));
-                    showExamples(checkCldr, prettyPath, localeID, path, value, fullPath, example);
+                    showExamples(file, prettyPath, localeID, path, value, fullPath, example);
                 }
                 if (checkFlexibleDates) {
                     fset.checkFlexibles(path, value, fullPath);
                 }
-                int limit = 1;
-                for (int jj = 0; jj < limit; ++jj) {
-                    if (jj == 0) {
-                        checkCldr.check(path, fullPath, value, new Options(options), result);
-                    } else {
-                        checkCldr.getExamples(path, fullPath, value, new Options(options), result);
+                List<CheckStatus> result = pathCheck.result;
+                boolean showedOne = false;
+                for (Iterator<CheckStatus> it3 = result.iterator(); it3.hasNext();) {
+                    CheckStatus status = it3.next();
+                    String statusString = status.toString(); // com.ibm.icu.impl.Utility.escape(
+                    CheckStatus.Type statusType = status.getType();
+                    Object[] parameters = status.getParameters();
+
+                    if (parameters != null) {
+                        if (parameters.length >= 1 && status.getCause().getClass() == CheckForExemplars.class) {
+                            try {
+                                UnicodeSet set = new UnicodeSet(parameters[0].toString());
+                                if (status.getMessage().contains("currency")) {
+                                    missingCurrencyExemplars.addAll(set);
+                                } else {
+                                    missingExemplars.addAll(set);
+                                }
+                            } catch (RuntimeException e) {
+                            } // skip if not parseable as set
+                        }
                     }
 
-                    boolean showedOne = false;
-                    for (Iterator<CheckStatus> it3 = result.iterator(); it3.hasNext();) {
-                        CheckStatus status = it3.next();
-                        String statusString = status.toString(); // com.ibm.icu.impl.Utility.escape(
-                        CheckStatus.Type statusType = status.getType();
-                        Object[] parameters = status.getParameters();
-
-                        if (parameters != null) {
-                            if (parameters.length >= 1 && status.getCause().getClass() == CheckForExemplars.class) {
-                                try {
-                                    UnicodeSet set = new UnicodeSet(parameters[0].toString());
-                                    if (status.getMessage().contains("currency")) {
-                                        missingCurrencyExemplars.addAll(set);
-                                    } else {
-                                        missingExemplars.addAll(set);
-                                    }
-                                } catch (RuntimeException e) {
-                                } // skip if not parseable as set
-                            }
-                        }
+                    if (errorsOnly && !statusType.equals(CheckStatus.errorType)) {
+                        continue;
+                    }
 
-                        if (errorsOnly && !statusType.equals(CheckStatus.errorType)) {
+                    if (subtypeFilter != null) {
+                        if (!subtypeFilter.contains(status.getSubtype())) {
                             continue;
                         }
+                    }
+                    if (checkOnSubmit) {
+                        if (!status.isCheckOnSubmit() || !statusType.equals(CheckStatus.errorType)) continue;
+                    }
 
-                        if (subtypeFilter != null) {
-                            if (!subtypeFilter.contains(status.getSubtype())) {
-                                continue;
-                            }
-                        }
-                        if (checkOnSubmit) {
-                            if (!status.isCheckOnSubmit() || !statusType.equals(CheckStatus.errorType)) continue;
-                        }
-
-                        if (statusType.equals(CheckStatus.demoType)) {
-                            SimpleDemo d = status.getDemo();
-                            if (d != null && d instanceof FormatDemo) {
-                                FormatDemo fd = (FormatDemo) d;
-                                m.clear();
-                                if (d.processPost(m)) System.out.println("\tDemo:\t" + fd.getPlainText(m));
-                            }
-                            continue;
+                    if (statusType.equals(CheckStatus.demoType)) {
+                        SimpleDemo d = status.getDemo();
+                        if (d != null && d instanceof FormatDemo) {
+                            FormatDemo fd = (FormatDemo) d;
+                            m.clear();
+                            if (d.processPost(m)) System.out.println("\tDemo:\t" + fd.getPlainText(m));
                         }
+                        continue;
+                    }
 
-                        if (parameters != null) {
-                            for (int i = 0; i < parameters.length; ++i) {
-                                if (showStackTrace && parameters[i] instanceof Throwable) {
-                                    ((Throwable) parameters[i]).printStackTrace();
-                                }
+                    if (parameters != null) {
+                        for (int i = 0; i < parameters.length; ++i) {
+                            if (showStackTrace && parameters[i] instanceof Throwable) {
+                                ((Throwable) parameters[i]).printStackTrace();
                             }
                         }
+                    }
 
-                        showValue(file, prettyPath, localeID, example, path, value, fullPath, statusString,
-                            status.getSubtype());
+                    showValue(file, prettyPath, localeID, example, path, value, fullPath, statusString,
+                        status.getSubtype());
+                    showedOne = true;
+                }
+                if (!showedOne && phase != Phase.FINAL_TESTING) {
+                    if (!showedOne && showAll) {
+                        showValue(file, prettyPath, localeID, example, path, value, fullPath, "ok", Subtype.none);
                         showedOne = true;
                     }
-                    if (!showedOne && phase != Phase.FINAL_TESTING) {
-                        if (!showedOne && showAll) {
-                            showValue(file, prettyPath, localeID, example, path, value, fullPath, "ok", Subtype.none);
-                            showedOne = true;
-                        }
-                    }
                 }
             }
 
@@ -652,7 +626,7 @@ public class ConsoleCheckCLDR {
                 LocaleVotingData.resolveErrors(localeID);
             }
 
-            showSummary(localeID, level, "Items (including inherited):\t" + pathCount);
+            showSummary(localeID, level, "Items (including inherited):\t" + localeCheck.pathCount);
             if (missingExemplars.size() != 0) {
                 missingExemplars.removeAll(new UnicodeSet("[[:Uppercase:]-[İ]]")); // remove uppercase #4670
                 if (missingExemplars.size() != 0) {
@@ -701,12 +675,13 @@ public class ConsoleCheckCLDR {
                      * so what's this supposed to accomplish?
                      */
                     String example = ExampleGenerator.simplify(exampleGenerator.getExampleHtml(path, null /* value */));
-                    showExamples(checkCldr, prettyPath, localeID, path, null, fullPath, example);
+                    showExamples(file, prettyPath, localeID, path, null, fullPath, example);
                 }
             }
-            System.out.println("# Elapsed time: " + timer);
+            System.out.println("# Elapsed time: " + localeCheck.elapsed);
             System.out.flush();
         }
+        localeChecker.shutdown();
 
         if (ErrorFile.errorFileWriter != null) {
             ErrorFile.closeErrorFile();
@@ -720,6 +695,12 @@ public class ConsoleCheckCLDR {
         for (ErrorType type : totalCount.keySet()) {
             System.out.println("# Total " + type + ":\t" + totalCount.getCount(type));
         }
+        if (showCheckTimes) {
+            System.out.println();
+            for (Entry<String, Long> entry : localeChecker.getCheckTimes().entrySet()) {
+                System.out.println("# Check time " + entry.getKey() + ":\t" + entry.getValue() / 1_000_000 + " ms");
+            }
+        }
 
         System.out.println();
         System.out.println("# Total elapsed time: " + totalTimer);
@@ -740,9 +721,318 @@ public class ConsoleCheckCLDR {
                 System.out.println(s + "=" + LogicalGrouping.typeCount.get(s));
             }
         }
-        checkCldr.handleFinish();
+        localeChecker.handleFinish();
     } // end of main()
 
+    /**
+     * One locale to check: the options that main() picks for it, and then the results of checking it. The results
+     * are filled in by LocaleChecker, possibly on another thread, before main() gets the LocaleCheck back.
+     */
+    static class LocaleCheck {
+        final String skipMessage;
+        final String localeID;
+        final boolean isLanguageLocale;
+        final Level level;
+        final Map<String, String> options;
+
+        CLDRFile file;
+        RuntimeException fatalError;
+        final List<CheckStatus> possibleErrors = new ArrayList<>();
+        int pathCount;
+        List<PathCheck> pathChecks = Collections.emptyList();
+        String elapsed;
+
+        /**
+         * A locale that is skipped, with the message to show in its place.
+         */
+        LocaleCheck(String skipMessage) {
+            this.skipMessage = skipMessage;
+            this.localeID = null;
+            this.isLanguageLocale = false;
+            this.level = null;
+            this.options = null;
+        }
+
+        LocaleCheck(String localeID, boolean isLanguageLocale, Level level, Map<String, String> options) {
+            this.skipMessage = null;
+            this.localeID = localeID;
+            this.isLanguageLocale = isLanguageLocale;
+            this.level = level;
+            this.options = options;
+        }
+    }
+
+    /**
+     * One path to check, with its results.
+     */
+    static class PathCheck {
+        final PathHeader pathHeader;
+        final String path;
+        final String value;
+        final String fullPath;
+        final List<CheckStatus> result = new ArrayList<>();
+
+        PathCheck(PathHeader pathHeader, String path, String value, String fullPath) {
+            this.pathHeader = pathHeader;
+            this.path = path;
+            this.value = value;
+            this.fullPath = fullPath;
+        }
+    }
+
+    /**
+     * Checks the locales for main(). With one thread, each locale is checked on the calling thread when main() asks
+     * for it. With more, a few locales ahead are checked at the same time, and the paths of a large locale are split
+     * into runs that are checked on different threads. Each thread has its own CompoundCheckCLDR, since the checks
+     * keep state for the file they check. The checks don't depend on the order in which the paths are checked, and
+     * main() gets the locales and paths back in the original order, so the output is the same for any number of threads.
+     */
+    static class LocaleChecker {
+        private static final int PATHS_PER_RUN = 1000;
+
+        private final int threadCount;
+        private final ForkJoinPool pool;
+        private final Factory cldrFactory;
+        private final String checkFilter;
+        private final CLDRFile english;
+        private final PathHeader.Factory pathHeaderFactory;
+        private final Pattern pathFilter;
+        private final Level coverageLevel;
+        private final String user;
+        private final boolean showAll;
+        private final boolean baileyTest;
+        private final boolean recordCheckTimes;
+        private final CompoundCheckCLDR firstChecker;
+
+        private final Queue<CompoundCheckCLDR> unusedCheckers = new ConcurrentLinkedQueue<>();
+        private final List<CompoundCheckCLDR> checkers = Collections.synchronizedList(new ArrayList<>());
+        private final ThreadLocal<CheckerState> checkerState = ThreadLocal.withInitial(this::newCheckerState);
+
+        /**
+         * The CompoundCheckCLDR of one thread, and the locale that it was last set up for.
+         */
+        private static class CheckerState {
+            final CompoundCheckCLDR checkCldr;
+            LocaleCheck current;
+
+            CheckerState(CompoundCheckCLDR checkCldr) {
+                this.checkCldr = checkCldr;
+            }
+        }
+
+        LocaleChecker(CompoundCheckCLDR checkCldr, int threadCount, Factory cldrFactory, String checkFilter,
+            CLDRFile english, PathHeader.Factory pathHeaderFactory, String pathFilterString, Level coverageLevel,
+            String user, boolean showAll, boolean baileyTest, boolean recordCheckTimes) {
+            this.threadCount = threadCount;
+            this.pool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
+            this.cldrFactory = cldrFactory;
+            this.checkFilter = checkFilter;
+            this.english = english;
+            this.pathHeaderFactory = pathHeaderFactory;
+            this.pathFilter = pathFilterString.equals(".*") ? null : PatternCache.get(pathFilterString);
+            this.coverageLevel = coverageLevel;
+            this.user = user;
+            this.showAll = showAll;
+            this.baileyTest = baileyTest;
+            this.recordCheckTimes = recordCheckTimes;
+            this.firstChecker = checkCldr;
+            // make the checkers up front, so that the threads don't all set up the checks at the same time
+            unusedCheckers.add(checkCldr);
+            for (int i = 1; i < threadCount; ++i) {
+                unusedCheckers.add(newChecker());
+            }
+        }
+
+        private CompoundCheckCLDR newChecker() {
+            CompoundCheckCLDR checkCldr = CheckCLDR.getCheckAll(cldrFactory, checkFilter);
+            checkCldr.setEnglishFile(english);
+            return checkCldr;
+        }
+
+        private CheckerState newCheckerState() {
+            CompoundCheckCLDR checkCldr = unusedCheckers.poll();
+            if (checkCldr == null) {
+                synchronized (this) {
+                    checkCldr = newChecker();
+                }
+            }
+            checkCldr.setRecordCheckTimes(recordCheckTimes);
+            checkers.add(checkCldr);
+            return new CheckerState(checkCldr);
+        }
+
+        /**
+         * Check the locales, returning them in the same order. Skipped locales are returned as they are.
+         */
+        Iterable<LocaleCheck> check(List<LocaleCheck> localeChecks) {
+            return () -> new Iterator<LocaleCheck>() {
+                private final Iterator<LocaleCheck> toSubmit = localeChecks.iterator();
+                private final Deque<Future<LocaleCheck>> submitted = new ArrayDeque<>();
+
+                @Override
+                public boolean hasNext() {
+                    return !submitted.isEmpty() || toSubmit.hasNext();
+                }
+
+                @Override
+                public LocaleCheck next() {
+                    if (pool == null) {
+                        return checkLocale(toSubmit.next());
+                    }
+                    // keep a couple of locales per thread going, but not all of them: the results take memory
+                    while (submitted.size() < 2 * threadCount && toSubmit.hasNext()) {
+                        LocaleCheck localeCheck = toSubmit.next();
+                        submitted.add(pool.submit(() -> checkLocale(localeCheck)));
+                    }
+                    try {
+                        return submitted.remove().get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    } catch (ExecutionException e) {
+                        Throwables.throwIfUnchecked(e.getCause());
+                        throw new IllegalStateException(e.getCause());
+                    }
+                }
+            };
+        }
+
+        private LocaleCheck checkLocale(LocaleCheck localeCheck) {
+            if (localeCheck.skipMessage != null) {
+                return localeCheck;
+            }
+            final String localeID = localeCheck.localeID;
+            ElapsedTimer timer = new ElapsedTimer();
+            CLDRFile file;
+            try {
+                file = cldrFactory.make(localeID, true);
+                final String parentID = LocaleIDParser.getParent(localeID);
+                if (parentID != null) {
+                    cldrFactory.make(parentID, true); // a bad parent is fatal too
+                }
+            } catch (RuntimeException e) {
+                localeCheck.fatalError = e;
+                return localeCheck;
+            }
+            if (user != null) {
+                file = new CLDRFile.TestUser(file, user, localeCheck.isLanguageLocale);
+            }
+            localeCheck.file = file;
+            CheckerState state = checkerState.get();
+            state.checkCldr.setCldrFileToCheck(file, new Options(localeCheck.options), localeCheck.possibleErrors);
+            state.current = localeCheck;
+
+            Set<PathHeader> paths = new TreeSet<>(); // CLDRFile.ldmlComparator);
+            Matcher pathMatcher = pathFilter == null ? null : pathFilter.matcher("");
+            CoverageInfo covInfo = CLDR_CONFIG.getCoverageInfo();
+            for (String path : file.fullIterable()) {
+                if (pathMatcher != null && !pathMatcher.reset(path).find()) {
+                    continue;
+                }
+                if (coverageLevel != null) {
+                    Level currentLevel = covInfo.getCoverageLevel(path, localeID);
+                    if (currentLevel.compareTo(coverageLevel) > 0) {
+                        continue;
+                    }
+                }
+                paths.add(pathHeaderFactory.fromPath(path));
+            }
+            localeCheck.pathCount = paths.size();
+
+            List<PathCheck> pathChecks = new ArrayList<>();
+            Status otherPath = new Status();
+            for (PathHeader pathHeader : paths) {
+                String path = pathHeader.getOriginalPath();
+                if (!showAll && !file.isWinningPath(path)) {
+                    continue;
+                }
+                if (!localeCheck.isLanguageLocale && !baileyTest) {
+                    final String sourceLocaleID = file.getSourceLocaleID(path, otherPath);
+                    if (!localeID.equals(sourceLocaleID)) {
+                        continue;
+                    }
+                    // also skip aliases
+                    if (!path.equals(otherPath.pathWhereFound)) {
+                        continue;
+                    }
+                }
+                if (path.contains("@alt") && path.contains("proposed")) {
+                    continue;
+                }
+                String value = file.getStringValue(path);
+                if (baileyTest) {
+                    value = CldrUtility.INHERITANCE_MARKER;
+                }
+                pathChecks.add(new PathCheck(pathHeader, path, value, file.getFullXPath(path)));
+            }
+            localeCheck.pathChecks = pathChecks;
+
+            if (pool == null || pathChecks.size() < 2 * PATHS_PER_RUN) {
+                checkPaths(localeCheck, pathChecks);
+            } else {
+                List<ForkJoinTask<?>> runs = new ArrayList<>();
+                for (int start = 0; start < pathChecks.size(); start += PATHS_PER_RUN) {
+                    List<PathCheck> run = pathChecks.subList(start, Math.min(start + PATHS_PER_RUN, pathChecks.size()));
+                    runs.add(ForkJoinTask.adapt(() -> checkPaths(localeCheck, run)));
+                }
+                ForkJoinTask.invokeAll(runs);
+            }
+            localeCheck.elapsed = timer.toString();
+            return localeCheck;
+        }
+
+        /**
+         * Check some of the paths of a locale with the checker of the current thread, setting it up for the locale
+         * if it was last used for another one.
+         */
+        private void checkPaths(LocaleCheck localeCheck, List<PathCheck> pathChecks) {
+            CheckerState state = checkerState.get();
+            if (state.current != localeCheck) {
+                state.checkCldr.setCldrFileToCheck(localeCheck.file, new Options(localeCheck.options),
+                    new ArrayList<>()); // these were already collected by checkLocale
+                state.current = localeCheck;
+            }
+            for (PathCheck pathCheck : pathChecks) {
+                state.checkCldr.check(pathCheck.path, pathCheck.fullPath, pathCheck.value,
+                    new Options(localeCheck.options), pathCheck.result);
+            }
+        }
+
+        void shutdown() {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        /**
+         * The time spent in each check, over all the threads.
+         */
+        Map<String, Long> getCheckTimes() {
+            Map<String, Long> result = new TreeMap<>();
+            synchronized (checkers) {
+                for (CompoundCheckCLDR checkCldr : checkers) {
+                    checkCldr.getCheckTimes().forEach((check, nanos) -> result.merge(check, nanos, Long::sum));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Call handleFinish once, on the checker that main() made, after adding to it what the checkers of the
+         * other threads collected. That way it reports the same as with one thread.
+         */
+        void handleFinish() {
+            synchronized (checkers) {
+                for (CompoundCheckCLDR checkCldr : checkers) {
+                    if (checkCldr != firstChecker) {
+                        firstChecker.mergeFinishState(checkCldr);
+                    }
+                }
+            }
+            firstChecker.handleFinish();
+        }
+    }
+
     static class LocaleVotingData {
         private int disputedCount = 0;
         Counter<Organization> missingOrganizationCounter = new Counter<>(true);
@@ -1260,10 +1550,10 @@ public class ConsoleCheckCLDR {
         System.out.println(line);
     }
 
-    private static void showExamples(CheckCLDR checkCldr, String prettyPath, String localeID,
+    private static void showExamples(CLDRFile file, String prettyPath, String localeID,
         String path, String value, String fullPath, String example) {
         if (example != null) {
-            showValue(checkCldr.getCldrFileToCheck(), prettyPath, localeID, example, path, value, fullPath, "ok",
+            showValue(file, prettyPath, localeID, example, path, value, fullPath, "ok",
                 Subtype.none);
         }
     }
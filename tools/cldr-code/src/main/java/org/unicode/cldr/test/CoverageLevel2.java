@@ -158,21 +158,20 @@ public class CoverageLevel2 {
         if (path == null) {
             return Level.UNDETERMINED;
         }
-        synchronized (lookup) { // synchronize on the class, since the Matchers are changed during the matching process
-            Level result;
-            if (DEBUG_LOOKUP) { // for testing
-                Output<String[]> checkItems = new Output<>();
-                Output<Finder> matcherFound = new Output<>();
-                List<String> failures = new ArrayList<>();
-                result = lookup.get(path, myInfo, checkItems, matcherFound, failures);
-                for (String s : failures) {
-                    System.out.println(s);
-                }
-            } else {
-                result = lookup.get(path, myInfo, null);
+        // RegexLookup is safe for concurrent lookups, so no lock is needed here.
+        Level result;
+        if (DEBUG_LOOKUP) { // for testing
+            Output<String[]> checkItems = new Output<>();
+            Output<Finder> matcherFound = new Output<>();
+            List<String> failures = new ArrayList<>();
+            result = lookup.get(path, myInfo, checkItems, matcherFound, failures);
+            for (String s : failures) {
+                System.out.println(s);
             }
-            return result == null ? Level.COMPREHENSIVE : result;
+        } else {
+            result = lookup.get(path, myInfo, null);
         }
+        return result == null ? Level.COMPREHENSIVE : result;
     }
 
     public int getIntLevel(String path) {
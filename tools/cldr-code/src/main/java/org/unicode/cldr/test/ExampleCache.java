@@ -1,10 +1,15 @@
 package org.unicode.cldr.test;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.PathStarrer;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Cache example html strings for ExampleGenerator.
  *
@@ -27,8 +32,16 @@ import org.unicode.cldr.util.PathStarrer;
  * This cache is internal to each ExampleGenerator. Compare TestCache.exampleGeneratorCache,
  * which is at a higher level, caching entire ExampleGenerator objects, one for each locale.
  *
- * Unlike TestCache.exampleGeneratorCache, this cache doesn't get cleared to conserve memory,
- * only to adapt to changed winning values.
+ * The cache is bounded: it keeps at most CLDR_EXAMPLE_CACHE_SIZE examples (a CLDRConfig property),
+ * dropping the least recently used ones, since the Survey Tool asks for examples of any values
+ * that users enter. It is safe for concurrent use, since an ExampleGenerator is shared by all
+ * the threads that need examples for its locale.
+ *
+ * To invalidate the examples of the paths that depend on a changed path, each starred path has a
+ * generation number, and each example is stored with the generation of its starred path at the
+ * time the example was looked up. Bumping the generation of the dependent starred paths makes all
+ * of their examples stale at once, including any example that was being constructed at that time;
+ * stale examples are then replaced, or drop out of the cache.
  */
 class ExampleCache {
     /**
@@ -36,12 +49,10 @@ class ExampleCache {
      * needed to get and/or put one item in the cache.
      */
     class ExampleCacheItem {
-        private String xpath;
-        private String value;
+        private final Key key;
 
         /**
-         * starredPath, the "starred" version of xpath, is the key for the highest level
-         * of the cache, which is nested.
+         * starredPath, the "starred" version of xpath, is the unit of invalidation.
          *
          * Compare starred "//ldml/localeDisplayNames/languages/language[@type=\"*\"]"
          * with starless "//ldml/localeDisplayNames/languages/language[@type=\"aa\"]".
@@ -51,19 +62,12 @@ class ExampleCache {
         private String starredPath = null;
 
         /**
-         * The cache maps each starredPath to a pathMap, which in turn maps each starless path
-         * to a valueMap.
-         */
-        private Map<String, Map<String, String>> pathMap = null;
-
-        /**
-         * Finally the valueMap maps the value to the example html.
+         * The generation of starredPath when getExample was called
          */
-        private Map<String, String> valueMap = null;
+        private int generation;
 
         ExampleCacheItem(String xpath, String value) {
-            this.xpath = xpath;
-            this.value = value;
+            this.key = new Key(xpath, value);
         }
 
         /**
@@ -78,33 +82,65 @@ class ExampleCache {
             if (!cachingIsEnabled) {
                 return null;
             }
-            String result = null;
-            starredPath = pathStarrer.set(xpath);
-            pathMap = cache.get(starredPath);
-            if (pathMap != null) {
-                valueMap = pathMap.get(xpath);
-                if (valueMap != null) {
-                    result = valueMap.get(value);
-                }
-            }
+            starredPath = PATH_STARRER.get().set(key.xpath);
+            generation = generations.getOrDefault(starredPath, 0);
+            Example example = cache.getIfPresent(key);
+            String result = (example == null || example.generation != generation) ? null : example.html;
             if (cacheOnly && result == NONE) {
-                throw new InternalError("getExampleHtml cacheOnly not found: " + xpath + ", " + value);
+                throw new InternalError("getExampleHtml cacheOnly not found: " + key.xpath + ", " + key.value);
             }
             return (result == NONE) ? null : result;
         }
 
         void putExample(String result) {
-            if (cachingIsEnabled) {
-                if (pathMap == null) {
-                    pathMap = new ConcurrentHashMap<>();
-                    cache.put(starredPath, pathMap);
-                }
-                if (valueMap == null) {
-                    valueMap = new ConcurrentHashMap<>();
-                    pathMap.put(xpath, valueMap);
-                }
-                valueMap.put(value, (result == null) ? NONE : result);
+            if (cachingIsEnabled && starredPath != null) {
+                cache.put(key, new Example((result == null) ? NONE : result, generation));
+            }
+        }
+    }
+
+    /**
+     * The key of an example: the (starless) xpath and the value.
+     */
+    private static final class Key {
+        private final String xpath;
+        private final String value;
+        private final int hashCode;
+
+        Key(String xpath, String value) {
+            this.xpath = xpath;
+            this.value = value;
+            this.hashCode = Objects.hash(xpath, value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
             }
+            Key other = (Key) obj;
+            return hashCode == other.hashCode && xpath.equals(other.xpath) && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The example html, with the generation of its starred path.
+     */
+    private static final class Example {
+        private final String html;
+        private final int generation;
+
+        Example(String html, int generation) {
+            this.html = html;
+            this.generation = generation;
         }
     }
 
@@ -129,21 +165,36 @@ class ExampleCache {
     private static final String NONE = "\uFFFF";
 
     /**
-     * The nested cache mapping is: starredPath → (starlessPath → (value → html)).
+     * The maximum number of examples in each ExampleCache
      */
-    private final Map<String, Map<String, Map<String, String>>> cache = new ConcurrentHashMap<>();
+    private static final int CACHE_SIZE = CLDRConfig.getInstance().getProperty("CLDR_EXAMPLE_CACHE_SIZE", 20_000);
 
     /**
      * The PathStarrer is for getting starredPath from an ordinary (starless) path.
      * Inclusion of starred paths enables performance improvement with AVOID_CLEARING_CACHE.
+     * A PathStarrer has state, so each thread has its own.
+     */
+    private static final ThreadLocal<PathStarrer> PATH_STARRER = ThreadLocal.withInitial(
+        () -> new PathStarrer().setSubstitutionPattern("*"));
+
+    /**
+     * The cache mapping is: starlessPath+value → html, with the generation of the starred path.
+     */
+    private final Cache<Key, Example> cache = CacheBuilder.newBuilder()
+        .maximumSize(CACHE_SIZE)
+        .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+        .build();
+
+    /**
+     * The current generation of each starred path; missing means 0.
      */
-    private final PathStarrer pathStarrer = new PathStarrer().setSubstitutionPattern("*");
+    private final Map<String, Integer> generations = new ConcurrentHashMap<>();
 
     /**
      * For testing, caching can be disabled for some ExampleCaches while still
      * enabled for others.
      */
-    private boolean cachingIsEnabled = true;
+    private volatile boolean cachingIsEnabled = true;
 
     void setCachingEnabled(boolean enabled) {
         cachingIsEnabled = enabled;
@@ -154,7 +205,7 @@ class ExampleCache {
      * mode, where they will throw an exception if queried for a path+value that isn't
      * already in the cache. See TestExampleGeneratorDependencies.
      */
-    private boolean cacheOnly = false;
+    private volatile boolean cacheOnly = false;
 
     void setCacheOnly(boolean only) {
         this.cacheOnly = only;
@@ -176,12 +227,12 @@ class ExampleCache {
      */
     void update(String xpath) {
         if (AVOID_CLEARING_CACHE) {
-            String starredA = pathStarrer.set(xpath);
+            String starredA = PATH_STARRER.get().set(xpath);
             for (String starredB : ExampleDependencies.dependencies.get(starredA)) {
-                cache.remove(starredB);
+                generations.merge(starredB, 1, Integer::sum);
             }
         } else {
-            cache.clear();
+            cache.invalidateAll();
         }
     }
 }
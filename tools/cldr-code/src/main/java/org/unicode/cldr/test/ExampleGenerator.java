@@ -200,8 +200,6 @@ public class ExampleGenerator {
     private String backgroundStart = "<span class='cldr_substituted'>";
     private String backgroundEnd = "</span>";
 
-    private Calendar calendar = Calendar.getInstance(ZONE_SAMPLE, ULocale.ENGLISH);
-
     private CLDRFile cldrFile;
 
     private CLDRFile englishFile;
@@ -215,14 +213,12 @@ public class ExampleGenerator {
 
     private GrammarInfo grammarInfo;
 
-    private PluralSamples patternExamples;
+    private volatile PluralSamples patternExamples;
 
     private Map<String, String> subdivisionIdToName;
 
     private String creationTime = null; // only used if DEBUG_EXAMPLE_GENERATOR
 
-    private IntervalFormat intervalFormat = new IntervalFormat();
-
     private PathDescription pathDescription;
 
     /**
@@ -304,7 +300,8 @@ public class ExampleGenerator {
     }
 
     /**
-     * Create an Example Generator. If this is shared across threads, it must be synchronized.
+     * Create an Example Generator. It can be shared across threads: the formats it uses come from its ICUServiceBuilder
+     * as copies, and its examples are cached in an ExampleCache, which is safe for concurrent use.
      *
      * @param resolvedCldrFile
      * @param englishFile
@@ -991,6 +988,7 @@ public class ExampleGenerator {
         // intervalFormatFallback
         // //ldml/dates/calendars/calendar[@type="gregorian"]/dateTimeFormats/intervalFormats/intervalFormatItem[@id="yMd"]/greatestDifference[@id="y"]
         // find where to split the value
+        IntervalFormat intervalFormat = new IntervalFormat(); // it has state, so one for each call
         intervalFormat.setPattern(parts, value);
         Date later = SECOND_INTERVAL.get(greatestDifference);
         if (later == null) {
@@ -2163,6 +2161,7 @@ public class ExampleGenerator {
 
         SimpleDateFormat dateFormat = icuServiceBuilder.getDateFormat("gregorian", plusMinus[hours >= 0 ? 0 : 1]);
         dateFormat.setTimeZone(ZONE_SAMPLE);
+        Calendar calendar = Calendar.getInstance(ZONE_SAMPLE, ULocale.ENGLISH);
         calendar.set(1999, 9, 27, Math.abs(hours), minutes, 0); // 1999-09-13 13:25:59
         Date sample = calendar.getTime();
         String hourString = dateFormat.format(sample);
@@ -2183,6 +2182,7 @@ public class ExampleGenerator {
         // the following is <= because the TZDB inverts the hours
         SimpleDateFormat dateFormat = icuServiceBuilder.getDateFormat("gregorian", timeFormat);
         dateFormat.setTimeZone(ZONE_SAMPLE);
+        Calendar calendar = Calendar.getInstance(ZONE_SAMPLE, ULocale.ENGLISH);
         calendar.set(1999, 9, 13, 13, 25, 59); // 1999-09-13 13:25:59
         Date sample = calendar.getTime();
         String result = dateFormat.format(sample);
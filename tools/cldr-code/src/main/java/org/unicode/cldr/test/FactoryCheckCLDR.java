@@ -52,7 +52,9 @@ abstract class FactoryCheckCLDR extends CheckCLDR {
     public CheckCLDR setCldrFileToCheck(CLDRFile cldrFileToCheck, Options options,
         List<CheckStatus> possibleErrors) {
         super.setCldrFileToCheck(cldrFileToCheck, options, possibleErrors);
-        resolvedCldrFileToCheck = null;
+        // If the file is already resolved, use it rather than another one from the factory, so that
+        // a RecordingCLDRFile (see TestCache) sees all the paths that the check reads.
+        resolvedCldrFileToCheck = cldrFileToCheck.isResolved() ? cldrFileToCheck : null;
         return this;
     }
 
@@ -3,7 +3,10 @@ package org.unicode.cldr.test;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
 import org.unicode.cldr.test.CheckCLDR.Options;
@@ -13,15 +16,18 @@ import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.CLDRLocale.SublocaleProvider;
 import org.unicode.cldr.util.Factory;
 import org.unicode.cldr.util.Pair;
+import org.unicode.cldr.util.RecordingCLDRFile;
 import org.unicode.cldr.util.XMLSource;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Caches tests and examples
  * Call XMLSource.addListener() on the instance to notify it of changes to the XMLSource.
+ * Each cached test result remembers the paths it read, so that a change only removes the results that depend on it.
  *
  * @author srl
  * @see XMLSource#addListener(org.unicode.cldr.util.XMLSource.Listener)
@@ -29,16 +35,47 @@ import com.google.common.collect.ImmutableList;
 public class TestCache implements XMLSource.Listener {
     public class TestResultBundle {
         final private CheckCLDR cc = CheckCLDR.getCheckAll(getFactory(), nameMatcher);
-        final CLDRFile file;
+        final RecordingCLDRFile file;
+        /*
+         * The same data as file, without the recording: CoverageInfo builds the locale's level table from it, during
+         * whichever check first asks for a level, and reading the whole file then mustn't count as that check's
+         * dependencies. Kept here because CoverageInfo only holds it weakly.
+         */
+        final private CLDRFile coverageFile;
         final private CheckCLDR.Options options;
         final private ConcurrentHashMap<Pair<String, String>, List<CheckStatus>> pathCache;
         final protected List<CheckStatus> possibleProblems = new ArrayList<>();
 
+        /*
+         * What the cached results depend on, recorded by the file while checking: from each path that was read, and
+         * from each prefix of paths that was iterated over, to the keys in pathCache of the results that read it.
+         * keyToDependencies goes the other way, so that a key can be taken out again when its result is removed.
+         */
+        final private ConcurrentHashMap<String, Set<Pair<String, String>>> pathToKeys = new ConcurrentHashMap<>();
+        final private ConcurrentHashMap<String, Set<Pair<String, String>>> prefixToKeys = new ConcurrentHashMap<>();
+        final private ConcurrentHashMap<Pair<String, String>, Dependencies> keyToDependencies = new ConcurrentHashMap<>();
+        /*
+         * The paths and prefixes read by setCldrFileToCheck. If one of those changes, the whole bundle is out of date.
+         */
+        final private Set<String> setupPaths;
+        final private Set<String> setupPrefixes;
+        /*
+         * Incremented for each change, so that a result computed while a change came in isn't kept.
+         */
+        final private AtomicLong changeCount = new AtomicLong();
+
         protected TestResultBundle(CheckCLDR.Options cldrOptions) {
             options = cldrOptions;
             pathCache = new ConcurrentHashMap<>();
-            file = getFactory().make(options.getLocale().getBaseName(), true);
+            coverageFile = getFactory().make(options.getLocale().getBaseName(), true);
+            file = RecordingCLDRFile.of(coverageFile);
+            file.getRawExtraPaths(); // computed once for the file, and not by reading any one path
+            // the checks will ask for the levels of nearly all the paths, so get them all at once when the first is asked for
+            CLDRConfig.getInstance().getCoverageInfo().precomputeOnFirstUse(coverageFile);
+            file.clearRecordedPaths();
             cc.setCldrFileToCheck(file, options, possibleProblems);
+            setupPaths = ImmutableSet.copyOf(file.getRecordedPaths());
+            setupPrefixes = ImmutableSet.copyOf(file.getRecordedPrefixes());
         }
 
         /**
@@ -61,11 +98,93 @@ public class TestCache implements XMLSource.Listener {
              Pair<String, String> key = new Pair<>(path, value);
              List<CheckStatus> cachedResult = pathCache.get(key);
              if (cachedResult != null) {
+                 hitCount.increment();
                  result.addAll(cachedResult);
              }
              else {
-                 cc.check(path, file.getFullXPath(path), value, options, result);
+                 missCount.increment();
+                 long changeCountBefore = changeCount.get();
+                 String fullPath = file.getFullXPath(path);
+                 file.clearRecordedPaths();
+                 cc.check(path, fullPath, value, options, result);
+                 Dependencies dependencies = new Dependencies(path, file.getRecordedPaths(), file.getRecordedPrefixes());
+                 keyToDependencies.put(key, dependencies);
+                 addDependencies(key, dependencies.paths, pathToKeys);
+                 addDependencies(key, dependencies.prefixes, prefixToKeys);
                  pathCache.put(key, ImmutableList.copyOf(result));
+                 if (changeCount.get() != changeCountBefore) {
+                     removeResult(key); // may have read the old value of a changed path
+                 }
+             }
+         }
+
+         private void addDependencies(Pair<String, String> key, Set<String> dependencies,
+             ConcurrentHashMap<String, Set<Pair<String, String>>> toKeys) {
+             for (String dependency : dependencies) {
+                 toKeys.compute(dependency, (k, keys) -> {
+                     if (keys == null) {
+                         keys = ConcurrentHashMap.newKeySet();
+                     }
+                     keys.add(key);
+                     return keys;
+                 });
+             }
+         }
+
+         private void removeDependencies(Pair<String, String> key, Set<String> dependencies,
+             ConcurrentHashMap<String, Set<Pair<String, String>>> toKeys) {
+             for (String dependency : dependencies) {
+                 toKeys.computeIfPresent(dependency, (k, keys) -> {
+                     keys.remove(key);
+                     return keys.isEmpty() ? null : keys;
+                 });
+             }
+         }
+
+         /**
+          * Remove the result for the key, and the key from what it depends on, so that the dependencies don't
+          * outgrow the results.
+          *
+          * @return true if there was a result
+          */
+         private boolean removeResult(Pair<String, String> key) {
+             boolean removed = pathCache.remove(key) != null;
+             Dependencies dependencies = keyToDependencies.remove(key);
+             if (dependencies != null) {
+                 removeDependencies(key, dependencies.paths, pathToKeys);
+                 removeDependencies(key, dependencies.prefixes, prefixToKeys);
+             }
+             return removed;
+         }
+
+         /**
+          * Remove the results that depend on the path, because its value changed.
+          *
+          * @param xpath
+          * @return false if the whole bundle depends on the path, and must be thrown away instead
+          */
+         private boolean invalidate(String xpath) {
+             if (setupPaths.contains(xpath) || startsWithAny(xpath, setupPrefixes)
+                 || cc.hasLazyStateDependingOn(xpath)) {
+                 return false;
+             }
+             changeCount.incrementAndGet();
+             invalidateKeys(pathToKeys.remove(xpath));
+             for (String prefix : prefixToKeys.keySet()) {
+                 if (xpath.startsWith(prefix)) {
+                     invalidateKeys(prefixToKeys.remove(prefix));
+                 }
+             }
+             return true;
+         }
+
+         private void invalidateKeys(Set<Pair<String, String>> keys) {
+             if (keys != null) {
+                 for (Pair<String, String> key : keys) {
+                     if (removeResult(key)) {
+                         invalidationCount.increment();
+                     }
+                 }
              }
          }
 
@@ -78,8 +197,23 @@ public class TestCache implements XMLSource.Listener {
          }
     }
 
+    /**
+     * The paths and prefixes that a cached result depends on
+     */
+    private static class Dependencies {
+        final Set<String> paths;
+        final Set<String> prefixes;
+
+        Dependencies(String path, Set<String> recordedPaths, Set<String> prefixes) {
+            this.paths = ImmutableSet.<String>builder().add(path).addAll(recordedPaths).build();
+            this.prefixes = ImmutableSet.copyOf(prefixes);
+        }
+    }
+
     private static final boolean DEBUG = false;
 
+    private static final CLDRLocale ENGLISH = CLDRLocale.getInstance("en");
+
     /*
      * TODO: document whether CLDR_TESTCACHE_SIZE is set on production server, and if so to what, and why;
      * evaluate why the fallback 12 for CLDR_TESTCACHE_SIZE is appropriate or too small. Consider not
@@ -92,6 +226,39 @@ public class TestCache implements XMLSource.Listener {
 
     private String nameMatcher = null;
 
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+    private final LongAdder bundleInvalidationCount = new LongAdder();
+
+    /**
+     * @return the number of checks that were answered from the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of checks that had to be run
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of cached check results that were removed because something they read changed
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.sum();
+    }
+
+    /**
+     * @return the number of whole TestResultBundles that were removed because something their setup read changed
+     */
+    public long getBundleInvalidationCount() {
+        return bundleInvalidationCount.sum();
+    }
+
     /**
      * Get the bundle for this test
      */
@@ -153,7 +320,9 @@ public class TestCache implements XMLSource.Listener {
             }
             total++;
         }
-        stats.append(" " + good + "/" + total + "}");
+        stats.append(" " + good + "/" + total);
+        stats.append(" hits: " + getHitCount() + " misses: " + getMissCount() + " invalidated: " + getInvalidationCount()
+            + " bundles invalidated: " + getBundleInvalidationCount() + "}");
         return stats.toString();
     }
 
@@ -166,6 +335,14 @@ public class TestCache implements XMLSource.Listener {
     @Override
     public void valueChanged(String xpath, XMLSource source) {
         CLDRLocale locale = CLDRLocale.getInstance(source.getLocaleID());
+        if (locale.equals(ENGLISH)) {
+            /*
+             * The checks of every locale read English through their own file, not the recording one, so there
+             * is no telling which results depend on it. English changes rarely, so start over.
+             */
+            bundleInvalidationCount.add(testResultCache.size());
+            testResultCache.invalidateAll();
+        }
         valueChangedInvalidateRecursively(xpath, locale);
     }
 
@@ -199,22 +376,25 @@ public class TestCache implements XMLSource.Listener {
     }
 
     /**
-     * Update the cache of TestResultBundle objects, per valueChanged
+     * Update the cache of TestResultBundle objects, per valueChanged.
+     * Only the check results that read the xpath are removed from each bundle for the locale; a bundle
+     * is only removed if its setup read the xpath, or one of its checks built up state that depends on it.
      *
      * @param xpath the xpath whose value has changed
      * @param locale the CLDRLocale
      *
      * Called by valueChangedInvalidateRecursively
      */
-    private void updateTestResultCache(@SuppressWarnings("unused") String xpath, CLDRLocale locale) {
+    private void updateTestResultCache(String xpath, CLDRLocale locale) {
         if (!testResultCache.asMap().isEmpty()) {
-            // Filter the testResultCache to only remove the items where the locale matches
+            // Filter the testResultCache to only remove the items where the locale matches, and which can't be updated
             List<Options> toRemove = new ArrayList<>();
-            for (Options k : testResultCache.asMap().keySet()) {
-                if (k.getLocale().equals(locale)) {
-                    toRemove.add(k);
+            for (Entry<Options, TestResultBundle> e : testResultCache.asMap().entrySet()) {
+                if (e.getKey().getLocale().equals(locale) && !e.getValue().invalidate(xpath)) {
+                    toRemove.add(e.getKey());
                 }
             }
+            bundleInvalidationCount.add(toRemove.size());
             if (!DEBUG) {
                 // no logging is done, simply invalidate all items
                 testResultCache.invalidateAll(toRemove);
@@ -248,6 +428,15 @@ public class TestCache implements XMLSource.Listener {
      */
     private static Cache<String, ExampleGenerator> exampleGeneratorCache = CacheBuilder.newBuilder().softValues().build();
 
+    private static boolean startsWithAny(String xpath, Set<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (xpath.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Get an ExampleGenerator for the given locale, etc.
      *
@@ -5,15 +5,32 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -34,8 +51,10 @@ import org.unicode.cldr.util.XMLSource;
 import org.unicode.cldr.util.XPathParts;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.TreeMultimap;
 import com.google.common.io.Files;
@@ -60,7 +79,18 @@ public class GenerateProductionData {
     static final Set<String> COPY_ANYWAY = ImmutableSet.of("casing", "collation"); // don't want to "clean up", makes format difficult to use
     static final SupplementalDataInfo SDI = CLDRConfig.getInstance().getSupplementalDataInfo();
 
-    static final Multimap<String, Pair<String, String>> localeToSubdivisionsToMigrate = TreeMultimap.create();
+    // main/ and subdivisions/ are processed on many threads, so guard the shared map
+    static final Multimap<String, Pair<String, String>> localeToSubdivisionsToMigrate =
+        Multimaps.synchronizedSortedSetMultimap(TreeMultimap.create());
+
+    /**
+     * The subdivision names in main/xx.xml are moved into subdivisions/xx.xml, so each of those files is an input
+     * of the other: they are always regenerated together.
+     */
+    static final Map<String, String> COUPLED_DIRECTORIES = ImmutableMap.of("main", "subdivisions", "subdivisions", "main");
+
+    static ForkJoinPool POOL = null;
+    static Manifest MANIFEST = null; // null unless incremental
 
     enum MyOptions {
         sourceDirectory(new Params()
@@ -102,6 +132,14 @@ public class GenerateProductionData {
         fileMatch(new Params()
             .setHelp("regex to match patterns")
             .setMatch(".*")),
+        incremental(new Params()
+            .setHelp("only regenerate files whose inputs (including their parent locales) changed since the last run")
+            .setDefault("false")
+            .setMatch("true|false")),
+        threads(new Params()
+            .setHelp("number of files to process at once")
+            .setDefault(String.valueOf(Runtime.getRuntime().availableProcessors()))
+            .setMatch("[1-9][0-9]*")),
         ;
 
         // BOILERPLATE TO COPY
@@ -148,11 +186,14 @@ public class GenerateProductionData {
         INCLUDE_COMPREHENSIVE = "true".equalsIgnoreCase(MyOptions.includeComprehensive.option.getValue());
         CONSTRAINED_RESTORATION = "true".equalsIgnoreCase(MyOptions.constrainedRestoration.option.getValue());
 
+        POOL = new ForkJoinPool(Integer.parseInt(MyOptions.threads.option.getValue()));
+        MANIFEST = "true".equalsIgnoreCase(MyOptions.incremental.option.getValue())
+            ? Manifest.load(new File(new File(DEST_COMMON_DIR).getAbsoluteFile().getParentFile(), Manifest.FILE_NAME))
+            : null;
+
         // get directories
 
-        Arrays.asList(DtdType.values()).parallelStream()
-            .unordered()
-            .forEach(type -> {
+        forEachInPool(Arrays.asList(DtdType.values()), type -> {
             boolean isLdmlDtdType = type == DtdType.ldml;
 
             // bit of a hack, using the ldmlICU — otherwise unused! — to get the nonXML files.
@@ -160,11 +201,18 @@ public class GenerateProductionData {
 
             for (String dir : directories) {
                 File sourceDir = new File(SOURCE_COMMON_DIR, dir);
+                if (!sourceDir.exists()) {
+                    continue; // eg, a source tree with only some of the directories
+                }
                 File destinationDir = new File(DEST_COMMON_DIR, dir);
                 Stats stats = new Stats();
                 copyFilesAndReturnIsEmpty(sourceDir, destinationDir, null, isLdmlDtdType, stats);
             }
         });
+        POOL.shutdown();
+        if (MANIFEST != null) {
+            MANIFEST.write();
+        }
         if (!localeToSubdivisionsToMigrate.isEmpty()) {
             System.err.println("WARNING: Subdivision files not written");
             for (Entry<String, Pair<String, String>> entry : localeToSubdivisionsToMigrate.entries()) {
@@ -175,24 +223,26 @@ public class GenerateProductionData {
 
     private static class Stats {
         long files;
+        long unchanged;
         long removed;
         long retained;
         long remaining;
         Stats clear() {
-            files = removed = retained = remaining = 0;
+            files = unchanged = removed = retained = remaining = 0;
             return this;
         }
         @Override
         public String toString() {
             return
                 "files=" + files
+                + (unchanged == 0 ? "" : "; unchanged=" + unchanged)
                 + (removed + retained + remaining == 0 ? ""
                     : "; removed=" + removed
                     + "; retained=" + retained
                     + "; remaining=" + remaining);
         }
         public void showNonZero(String label) {
-            if (removed + retained + remaining != 0) {
+            if (unchanged + removed + retained + remaining != 0) {
                 System.out.println(label + toString());
             }
         }
@@ -213,14 +263,22 @@ public class GenerateProductionData {
         if (sourceFile.isDirectory()) {
 
             System.out.println(sourceFile + " => " + destinationFile);
-            if (!destinationFile.mkdirs()) {
-                // if created, remove old contents
-                Arrays.stream(destinationFile.listFiles()).forEach(File::delete);
-            }
-
             Set<String> sorted = new TreeSet<>();
             sorted.addAll(Arrays.asList(sourceFile.list()));
 
+            if (!destinationFile.mkdirs()) {
+                if (MANIFEST == null) {
+                    // if created, remove old contents
+                    Arrays.stream(destinationFile.listFiles()).forEach(File::delete);
+                } else {
+                    // keep the unchanged files, only removing those whose source is gone
+                    Arrays.stream(destinationFile.listFiles())
+                        .filter(file -> file.isFile() && !sorted.contains(file.getName()))
+                        .forEach(File::delete);
+                    MANIFEST.removeMissing(sourceFile, sorted);
+                }
+            }
+
             if (COPY_ANYWAY.contains(sourceFile.getName())) { // special cases
                 isLdmlDtdType = false;
             }
@@ -233,13 +291,11 @@ public class GenerateProductionData {
             boolean isMainDir = factory != null && sourceFile.getName().contentEquals("main");
             boolean isRbnfDir = factory != null && sourceFile.getName().contentEquals("rbnf");
 
-            Set<String> emptyLocales = new HashSet<>();
+            Set<String> emptyLocales = ConcurrentHashMap.newKeySet();
             final Stats stats2 = new Stats();
             final Factory theFactory = factory;
             final boolean isLdmlDtdType2 = isLdmlDtdType;
-            sorted
-                .parallelStream()
-                .forEach(file -> {
+            Consumer<String> copyFile = file -> {
                     File sourceFile2 = new File(sourceFile, file);
                     File destinationFile2 = new File(destinationFile, file);
                     if (VERBOSE) System.out.println("\t" + file);
@@ -259,18 +315,34 @@ public class GenerateProductionData {
                     if (isEmpty) { // only happens for ldml
                         emptyLocales.add(file.substring(0,file.length()-4)); // remove .xml for localeId
                     }
-                });
+                };
+            forEachInPool(largestFirst(sourceFile, sorted), copyFile);
             stats2.showNonZero("\tTOTAL:\t");
             // if there are empty ldml files, AND we aren't in /main/,
             // then remove any without children
-            if (!emptyLocales.isEmpty() && !sourceFile.getName().equals("main")) {
-                Set<String> childless = getChildless(emptyLocales, factory.getAvailable());
+            if (!emptyLocales.isEmpty()) {
+                Set<String> childless = sourceFile.getName().equals("main") ? Collections.emptySet()
+                    : getChildless(emptyLocales, factory.getAvailable());
+                if (MANIFEST != null) {
+                    // An unchanged empty locale may have been removed on an earlier run, when it had no children.
+                    List<String> missing = new ArrayList<>();
+                    for (String locale : Sets.difference(emptyLocales, childless)) {
+                        if (!new File(destinationFile, locale + ".xml").exists()) {
+                            missing.add(locale + ".xml");
+                            MANIFEST.forget(new File(sourceFile, locale + ".xml"));
+                        }
+                    }
+                    forEachInPool(missing, copyFile);
+                }
                 if (!childless.isEmpty()) {
                     if (VERBOSE) System.out.println("\t" + destinationFile + "\tRemoving empty locales:" + childless);
                     childless.stream().forEach(locale -> new File(destinationFile, locale + ".xml").delete());
                 }
             }
             return false;
+        } else if (MANIFEST != null && MANIFEST.isUpToDate(sourceFile, destinationFile, factory != null)) {
+            ++stats.unchanged;
+            return MANIFEST.wasEmpty(sourceFile);
         } else if (factory != null) {
             String file = sourceFile.getName();
             if (!file.endsWith(".xml")) {
@@ -386,12 +458,9 @@ public class GenerateProductionData {
             try (PrintWriter pw = new PrintWriter(destinationFile)) {
                 CLDRFile outCldrFile = cldrFileUnresolved.cloneAsThawed();
                 if (isSubdivisionDirectory) {
-                    Collection<Pair<String, String>> path_values = localeToSubdivisionsToMigrate.get(localeId);
-                    if (path_values != null) {
-                        for (Pair<String, String>path_value : path_values) {
-                            outCldrFile.add(path_value.getFirst(), path_value.getSecond());
-                        }
-                        localeToSubdivisionsToMigrate.removeAll(localeId);
+                    Collection<Pair<String, String>> path_values = localeToSubdivisionsToMigrate.removeAll(localeId);
+                    for (Pair<String, String>path_value : path_values) {
+                        outCldrFile.add(path_value.getFirst(), path_value.getSecond());
                     }
                 }
 
@@ -472,6 +541,9 @@ public class GenerateProductionData {
             } catch (FileNotFoundException e) {
                 throw new UncheckedIOException("Can't copy " + sourceFile + " to " + destinationFile + " — ", e);
             }
+            if (MANIFEST != null) {
+                MANIFEST.record(sourceFile, true, !gotOne);
+            }
             return !gotOne;
         } else {
             if (FILE_MATCH != null) {
@@ -485,10 +557,271 @@ public class GenerateProductionData {
             // for now, just copy
             ++stats.files;
             copyFiles(sourceFile, destinationFile);
+            if (MANIFEST != null) {
+                MANIFEST.record(sourceFile, false, false);
+            }
             return false;
         }
     }
 
+    /**
+     * Apply the action to each item, using at most the parallelism of {@link #POOL}. The items are handed out in
+     * order from a shared queue, so when they are sorted largest first, no large file is left to run alone at the end.
+     * Nested calls (for subdirectories) run in the same pool, and idle threads steal their work.
+     */
+    private static <T> void forEachInPool(List<T> items, Consumer<T> action) {
+        Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+        List<ForkJoinTask<?>> workers = new ArrayList<>();
+        for (int i = Math.min(POOL.getParallelism(), items.size()); i > 0; --i) {
+            workers.add(ForkJoinTask.adapt(() -> {
+                for (T item; (item = queue.poll()) != null;) {
+                    action.accept(item);
+                }
+            }));
+        }
+        if (ForkJoinTask.getPool() == POOL) {
+            ForkJoinTask.invokeAll(workers);
+        } else {
+            POOL.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(workers)));
+        }
+    }
+
+    private static List<String> largestFirst(File directory, Collection<String> names) {
+        Map<String, Long> sizes = new HashMap<>();
+        for (String name : names) {
+            sizes.put(name, new File(directory, name).length());
+        }
+        List<String> result = new ArrayList<>(names);
+        result.sort(Comparator.comparing((String name) -> sizes.get(name)).reversed()); // stable, so ties stay sorted
+        return result;
+    }
+
+    /**
+     * Records a hash of the inputs of each generated file, so that an incremental run only regenerates the files
+     * whose inputs changed. The inputs of a locale file are its own contents and those of its parent locales
+     * (plus the coupled file, for main and subdivisions). Everything else that affects the output — the options,
+     * the DTDs, the supplemental data, and the code of the tools themselves — goes into one global key, and a change
+     * there regenerates everything.
+     * <p>
+     * The code is found through the code source of this class: the jar, or the directory of class files when run
+     * from a build tree. If there is no code source to hash, a change to the code is NOT noticed; so whenever a change
+     * to the code changes the output, also bump FORMAT_VERSION.
+     */
+    static class Manifest {
+        static final String FILE_NAME = "productionManifest.txt";
+        /**
+         * Bump this whenever the output changes for the same input, in case the code itself can't be hashed.
+         */
+        private static final String FORMAT_VERSION = "2";
+        private static final String GLOBAL = "#global";
+
+        private static class InputRecord {
+            final String key;
+            final boolean empty;
+            InputRecord(String key, boolean empty) {
+                this.key = key;
+                this.empty = empty;
+            }
+        }
+
+        private final File file;
+        private final String globalKey;
+        private final java.nio.file.Path base = new File(SOURCE_COMMON_DIR).getAbsoluteFile().toPath().normalize();
+        private final Map<String, InputRecord> records = new ConcurrentHashMap<>();
+        private final Map<File, String> contentHashes = new ConcurrentHashMap<>();
+
+        private Manifest(File file) {
+            this.file = file;
+            this.globalKey = getGlobalKey();
+        }
+
+        static Manifest load(File file) {
+            Manifest result = new Manifest(file);
+            if (!file.canRead()) {
+                System.out.println("No manifest at " + file + "; regenerating everything");
+                return result;
+            }
+            try {
+                List<String> lines = Files.asCharSource(file, StandardCharsets.UTF_8).readLines();
+                if (lines.isEmpty() || !lines.get(0).equals(GLOBAL + "\t" + result.globalKey)) {
+                    System.out.println("Options, DTDs, or supplemental data changed; regenerating everything");
+                    return result;
+                }
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] parts = line.split("\t");
+                    result.records.put(parts[0], new InputRecord(parts[1], Boolean.parseBoolean(parts[2])));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't read " + file, e);
+            }
+            return result;
+        }
+
+        void write() {
+            List<String> lines = new ArrayList<>();
+            lines.add(GLOBAL + "\t" + globalKey);
+            for (Entry<String, InputRecord> entry : new TreeMap<>(records).entrySet()) {
+                lines.add(entry.getKey() + "\t" + entry.getValue().key + "\t" + entry.getValue().empty);
+            }
+            // write under a temporary name, so that an interrupted run never leaves a partial manifest
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                Files.asCharSink(temp, StandardCharsets.UTF_8).writeLines(lines);
+                Files.move(temp, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't write " + file, e);
+            }
+        }
+
+        boolean isUpToDate(File sourceFile, File destinationFile, boolean withAncestors) {
+            InputRecord recorded = records.get(getRelativePath(sourceFile));
+            return recorded != null
+                && (recorded.empty || destinationFile.exists())
+                && recorded.key.equals(getInputKey(sourceFile, withAncestors));
+        }
+
+        boolean wasEmpty(File sourceFile) {
+            return records.get(getRelativePath(sourceFile)).empty;
+        }
+
+        void record(File sourceFile, boolean withAncestors, boolean empty) {
+            records.put(getRelativePath(sourceFile), new InputRecord(getInputKey(sourceFile, withAncestors), empty));
+        }
+
+        void forget(File sourceFile) {
+            records.remove(getRelativePath(sourceFile));
+        }
+
+        /**
+         * Drop the records for files in the directory that are no longer in the source.
+         */
+        void removeMissing(File sourceDirectory, Set<String> names) {
+            String prefix = getRelativePath(sourceDirectory) + "/";
+            records.keySet().removeIf(path -> path.startsWith(prefix)
+                && path.indexOf('/', prefix.length()) < 0
+                && !names.contains(path.substring(prefix.length())));
+        }
+
+        private String getRelativePath(File sourceFile) {
+            return base.relativize(sourceFile.getAbsoluteFile().toPath().normalize()).toString()
+                .replace(File.separatorChar, '/');
+        }
+
+        private String getInputKey(File sourceFile, boolean withAncestors) {
+            MessageDigest digest = newDigest();
+            File directory = sourceFile.getParentFile();
+            addInputs(digest, directory, sourceFile.getName(), withAncestors);
+            String coupled = COUPLED_DIRECTORIES.get(directory.getName());
+            if (withAncestors && coupled != null) {
+                addInputs(digest, new File(directory.getParentFile(), coupled), sourceFile.getName(), true);
+            }
+            return toHex(digest.digest());
+        }
+
+        private void addInputs(MessageDigest digest, File directory, String name, boolean withAncestors) {
+            update(digest, name + "\t" + getContentHash(new File(directory, name)));
+            if (withAncestors && name.endsWith(".xml")) {
+                String locale = name.substring(0, name.length() - 4);
+                while ((locale = LocaleIDParser.getParent(locale)) != null) {
+                    update(digest, locale + "\t" + getContentHash(new File(directory, locale + ".xml")));
+                }
+            }
+        }
+
+        private String getContentHash(File file) {
+            return contentHashes.computeIfAbsent(file, f -> {
+                if (!f.isFile()) {
+                    return "-";
+                }
+                MessageDigest digest = newDigest();
+                try {
+                    digest.update(Files.toByteArray(f));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Can't read " + f, e);
+                }
+                return toHex(digest.digest());
+            });
+        }
+
+        private static String getGlobalKey() {
+            MessageDigest digest = newDigest();
+            update(digest, FORMAT_VERSION);
+            for (MyOptions option : MyOptions.values()) {
+                switch (option) {
+                case verbose:
+                case Debug:
+                case fileMatch:
+                case incremental:
+                case threads:
+                    break; // don't affect the output
+                default:
+                    update(digest, option + "=" + option.option.getValue());
+                }
+            }
+            for (File directory : Arrays.asList(
+                new File(SOURCE_COMMON_DIR, "dtd"),
+                new File(SOURCE_COMMON_DIR, "supplemental"),
+                new File(CLDRPaths.SUPPLEMENTAL_DIRECTORY))) {
+                addTree(digest, directory);
+            }
+            addTree(digest, getCodeLocation());
+            return toHex(digest.digest());
+        }
+
+        /**
+         * The jar or directory that the code of the tools is loaded from, or null if it can't be found.
+         */
+        private static File getCodeLocation() {
+            CodeSource codeSource = GenerateProductionData.class.getProtectionDomain().getCodeSource();
+            if (codeSource == null || !"file".equals(codeSource.getLocation().getProtocol())) {
+                System.out.println("Can't find the code of the tools; bump FORMAT_VERSION if the code changes the output");
+                return null;
+            }
+            try {
+                return new File(codeSource.getLocation().toURI());
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        private static void addTree(MessageDigest digest, File file) {
+            if (file == null) {
+                return;
+            } else if (file.isDirectory()) {
+                for (String name : new TreeSet<>(Arrays.asList(file.list()))) {
+                    addTree(digest, new File(file, name));
+                }
+            } else if (file.isFile()) {
+                update(digest, file.getName());
+                try {
+                    digest.update(Files.toByteArray(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Can't read " + file, e);
+                }
+            }
+        }
+
+        private static void update(MessageDigest digest, String string) {
+            digest.update((string + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // every Java implementation has SHA-256
+            }
+        }
+
+        private static String toHex(byte[] hash) {
+            StringBuilder result = new StringBuilder();
+            for (byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        }
+    }
+
     private static void showIfNonZero(String localeId, String title, Set<String> toRemove) {
         if (toRemove.size() != 0) {
             System.out.println(localeId + ": "
@@ -1337,50 +1337,140 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String>, LocaleSt
     }
 
     /*
-     * TODO: clarify the need for syncObject.
-     * Formerly, an XPathParts object named "nondraftParts" was used for this purpose, but
-     * there was no evident reason for it to be an XPathParts object rather than any other
-     * kind of object.
+     * Memo table for getNondraftNonaltXPath, in the same style as DistinguishedXPath: the result only
+     * depends on the path, so threads can share it without locking. A race may compute a value twice,
+     * but both computations give the same string.
      */
-    private static Object syncObject = new Object();
+    private static final Map<String, String> nondraftNonaltMap = new ConcurrentHashMap<>();
 
+    private static final ThreadLocal<XPathView> nondraftView = ThreadLocal.withInitial(XPathView::new);
+
+    /**
+     * Get the path without draft attributes, and without alt attributes containing "proposed"
+     * (alt="xxx-proposedyyy" becomes alt="xxx"). Thread-safe, and doesn't lock.
+     */
     public static String getNondraftNonaltXPath(String xpath) {
         if (xpath.indexOf("draft=\"") < 0 && xpath.indexOf("alt=\"") < 0) {
             return xpath;
         }
-        synchronized (syncObject) {
-            XPathParts parts = XPathParts.getFrozenInstance(xpath).cloneAsThawed(); // can't be frozen since we call removeAttributes
-            String restore;
-            HashSet<String> toRemove = new HashSet<>();
-            for (int i = 0; i < parts.size(); ++i) {
-                if (parts.getAttributeCount(i) == 0) {
-                    continue;
-                }
-                Map<String, String> attributes = parts.getAttributes(i);
-                toRemove.clear();
-                restore = null;
-                for (Iterator<String> it = attributes.keySet().iterator(); it.hasNext();) {
-                    String attribute = it.next();
-                    if (attribute.equals("draft")) {
+        String result = nondraftNonaltMap.get(xpath);
+        if (result == null) {
+            result = computeNondraftNonaltXPath(xpath);
+            String old = nondraftNonaltMap.putIfAbsent(xpath, result);
+            if (old != null) {
+                result = old;
+            }
+        }
+        return result;
+    }
+
+    private static String computeNondraftNonaltXPath(String xpath) {
+        XPathView view = nondraftView.get().set(xpath);
+        if (!view.hasSingleQuotes() && hasAttributesInDtdOrder(view)) {
+            return appendNondraftNonalt(view, new StringBuilder(xpath.length())).toString();
+        }
+        XPathParts parts = XPathParts.getFrozenInstance(xpath).cloneAsThawed(); // can't be frozen since we call removeAttributes
+        String restore;
+        HashSet<String> toRemove = new HashSet<>();
+        for (int i = 0; i < parts.size(); ++i) {
+            if (parts.getAttributeCount(i) == 0) {
+                continue;
+            }
+            Map<String, String> attributes = parts.getAttributes(i);
+            toRemove.clear();
+            restore = null;
+            for (Iterator<String> it = attributes.keySet().iterator(); it.hasNext();) {
+                String attribute = it.next();
+                if (attribute.equals("draft")) {
+                    toRemove.add(attribute);
+                } else if (attribute.equals("alt")) {
+                    String value = attributes.get(attribute);
+                    int proposedPos = value.indexOf("proposed");
+                    if (proposedPos >= 0) {
                         toRemove.add(attribute);
-                    } else if (attribute.equals("alt")) {
-                        String value = attributes.get(attribute);
-                        int proposedPos = value.indexOf("proposed");
-                        if (proposedPos >= 0) {
-                            toRemove.add(attribute);
-                            if (proposedPos > 0) {
-                                restore = value.substring(0, proposedPos - 1); // is of form xxx-proposedyyy
-                            }
+                        if (proposedPos > 0) {
+                            restore = value.substring(0, proposedPos - 1); // is of form xxx-proposedyyy
                         }
                     }
                 }
-                parts.removeAttributes(i, toRemove);
-                if (restore != null) {
-                    attributes.put("alt", restore);
+            }
+            parts.removeAttributes(i, toRemove);
+            if (restore != null) {
+                attributes.put("alt", restore);
+            }
+        }
+        return parts.toString();
+    }
+
+    /**
+     * The view writes the attributes in their order in the path, while XPathParts puts them in DTD order and keeps
+     * only the last of any duplicates. So the view can only be used when each element's attributes are already
+     * unique and in DTD order.
+     */
+    private static boolean hasAttributesInDtdOrder(XPathView view) {
+        Comparator<String> comparator = null;
+        try {
+            for (int i = 0; i < view.size(); ++i) {
+                int count = view.getAttributeCount(i);
+                if (count < 2) {
+                    continue;
                 }
+                if (comparator == null) {
+                    comparator = getAttributeComparator(view.getElement(0));
+                }
+                String previous = view.getAttributeName(i, 0);
+                for (int j = 1; j < count; ++j) {
+                    String current = view.getAttributeName(i, j);
+                    if (comparator.compare(previous, current) >= 0) {
+                        return false;
+                    }
+                    previous = current;
+                }
+            }
+        } catch (RuntimeException e) {
+            return false; // eg, an attribute unknown to the comparator; let XPathParts deal with it
+        }
+        return true;
+    }
+
+    /**
+     * The attribute order XPathParts uses for a path with the given root element.
+     */
+    private static Comparator<String> getAttributeComparator(String rootElement) {
+        DtdType type;
+        try {
+            type = DtdType.valueOf(rootElement);
+        } catch (IllegalArgumentException e) {
+            return Comparator.naturalOrder();
+        }
+        return type == DtdType.ldml ? getAttributeOrdering() : DtdData.getInstance(type).getAttributeComparator();
+    }
+
+    /**
+     * Write the path of the view without draft attributes, and without alt attributes containing "proposed"
+     * (alt="xxx-proposedyyy" becomes alt="xxx"). Works straight from the path string, without an XPathParts.
+     */
+    private static StringBuilder appendNondraftNonalt(XPathView view, StringBuilder target) {
+        target.append('/');
+        for (int i = 0; i < view.size(); ++i) {
+            view.appendElement(target, i);
+            for (int j = 0; j < view.getAttributeCount(i); ++j) {
+                if (view.attributeNameEquals(i, j, "draft")) {
+                    continue;
+                }
+                if (view.attributeNameEquals(i, j, "alt")) {
+                    int proposedPos = view.indexOfInAttributeValue(i, j, "proposed");
+                    if (proposedPos == 0) {
+                        continue;
+                    } else if (proposedPos > 0) {
+                        view.appendAttribute(target, i, j, proposedPos - 1); // is of form xxx-proposedyyy
+                        continue;
+                    }
+                }
+                view.appendAttribute(target, i, j);
             }
-            return parts.toString();
         }
+        return target;
     }
 
     /**
@@ -2873,6 +2963,15 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String>, LocaleSt
         return dataSource.isResolving();
     }
 
+    /**
+     * Get a stamp for the current data of the file, for the keys of caches of things built from it.
+     *
+     * @see XMLSource#getDataStamp()
+     */
+    public String getDataStamp() {
+        return dataSource.getDataStamp();
+    }
+
     // WARNING: this must go AFTER attributeOrdering is set; otherwise it uses a null comparator!!
     /*
      * TODO: clarify the warning. There is nothing named "attributeOrdering" in this file.
@@ -3,6 +3,7 @@ package org.unicode.cldr.util;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.StreamSupport;
 
 import org.unicode.cldr.test.CoverageLevel2;
 
@@ -12,6 +13,12 @@ import com.google.common.cache.CacheBuilder;
 public class CoverageInfo {
     private final static int MAXLOCALES = 50;
 
+    /**
+     * How many locales' level tables to keep (CLDR_COVERAGE_TABLE_LOCALES). A table is a byte per path id, so this
+     * trades memory for not rebuilding tables when more locales than this are in use.
+     */
+    private final static int MAX_TABLE_LOCALES = Integer.parseInt(CldrUtility.getProperty("CLDR_COVERAGE_TABLE_LOCALES", "100"));
+
     private final static class XPathWithLocation {
         private final String xpath;
         private final String location;
@@ -67,12 +74,125 @@ public class CoverageInfo {
     private Cache<String, CoverageLevel2> localeToCoverageLevelInfo = CacheBuilder.newBuilder().maximumSize(MAXLOCALES).build();
     private Cache<XPathWithLocation, Level> coverageCache = CacheBuilder.newBuilder().maximumSize(MAXLOCALES).build();
 
+    /**
+     * Per-locale tables of levels, indexed by XPathIdTable id. Each entry is the Level ordinal + 1, or 0 if the path
+     * wasn't in the table. Tables are never modified once built, so lookups don't need any locking.
+     */
+    private final Cache<String, byte[]> localeToLevelTable = CacheBuilder.newBuilder().maximumSize(MAX_TABLE_LOCALES).build();
+
+    /**
+     * The resolved files registered with precomputeOnFirstUse, to build tables from. Held weakly, so that
+     * registering a file doesn't keep it in memory.
+     */
+    private final Cache<String, CLDRFile> localeToTableFile = CacheBuilder.newBuilder().weakValues().build();
+
     private final SupplementalDataInfo supplementalDataInfo;
+    private final Factory tableFactory;
 
     public CoverageInfo(SupplementalDataInfo coverageInfoGettable) {
+        this(coverageInfoGettable, null);
+    }
+
+    /**
+     * Create a CoverageInfo that precomputes a level table for each locale the first time the locale is queried,
+     * using the resolved file from the factory (see {@link #precompute(CLDRFile)}).
+     *
+     * @param coverageInfoGettable
+     * @param tableFactory
+     *            the factory to make the resolved files from, or null to only use tables that were explicitly precomputed
+     */
+    public CoverageInfo(SupplementalDataInfo coverageInfoGettable, Factory tableFactory) {
         this.supplementalDataInfo = coverageInfoGettable;
+        this.tableFactory = tableFactory;
     }
 
+    /**
+     * Compute the levels of all the paths of a resolved file (including its extra paths) plus all the English paths,
+     * once, so that getCoverageLevel can answer for those paths with an array lookup.
+     * Other paths still go through CoverageLevel2.
+     *
+     * @param resolvedFile
+     *            the resolved file for the locale
+     */
+    public void precompute(CLDRFile resolvedFile) {
+        String locale = resolvedFile.getLocaleID();
+        localeToLevelTable.put(locale, makeLevelTable(locale, resolvedFile));
+    }
+
+    /**
+     * Like {@link #precompute(CLDRFile)}, but the table is only built when a level is first looked up for the locale
+     * (and built again from the same file if it has been dropped since). For callers that will look up the levels
+     * of most of the locale's paths, if they look up any, such as the TestCache bundles. The file is held weakly, so
+     * the caller must keep it.
+     */
+    public void precomputeOnFirstUse(CLDRFile resolvedFile) {
+        localeToTableFile.put(resolvedFile.getLocaleID(), resolvedFile);
+    }
+
+    private byte[] makeLevelTable(String locale, CLDRFile resolvedFile) {
+        CoverageLevel2 cov = getCoverageLevel2(locale);
+        CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        int[] ids = StreamSupport.stream(resolvedFile.fullIterable().spliterator(), false)
+            .mapToInt(XPathIdTable::getId)
+            .toArray();
+        int[] englishIds = StreamSupport.stream(english.fullIterable().spliterator(), false)
+            .mapToInt(XPathIdTable::getId)
+            .toArray();
+        byte[] table = new byte[XPathIdTable.size()]; // all the ids above are less than this
+        for (int[] someIds : new int[][] { ids, englishIds }) {
+            for (int id : someIds) {
+                if (table[id] == 0) {
+                    Level level = cov.getLevel(XPathIdTable.getPath(id));
+                    if (level != null) {
+                        table[id] = (byte) (level.ordinal() + 1);
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    private CoverageLevel2 getCoverageLevel2(String location) {
+        try {
+            return localeToCoverageLevelInfo.get(location, () -> CoverageLevel2.getInstance(supplementalDataInfo, location));
+        } catch (ExecutionException e) {
+            throw new IllegalArgumentException("Can't get coverage for " + location, e.getCause());
+        }
+    }
+
+    /**
+     * Look up the level in the locale's precomputed table.
+     *
+     * @return the level, or null if there is no table for the locale or the path isn't in it
+     */
+    private Level getPrecomputedLevel(String xpath, String loc) {
+        byte[] table = localeToLevelTable.getIfPresent(loc);
+        if (table == null && loc != null) {
+            CLDRFile tableFile = localeToTableFile.getIfPresent(loc);
+            if (tableFile != null || tableFactory != null) {
+                try {
+                    // a locale the factory doesn't have always falls back to CoverageLevel2
+                    table = localeToLevelTable.get(loc, () -> tableFile != null ? makeLevelTable(loc, tableFile)
+                        : tableFactory.getAvailable().contains(loc) ? makeLevelTable(loc, tableFactory.make(loc, true))
+                            : NO_TABLE);
+                } catch (ExecutionException e) {
+                    throw new IllegalArgumentException("Can't precompute coverage for " + loc, e.getCause());
+                }
+            }
+        }
+        if (table == null) {
+            return null;
+        }
+        int id = XPathIdTable.peekId(xpath);
+        if (id < 0 || id >= table.length || table[id] == 0) {
+            return null;
+        }
+        return LEVELS[table[id] - 1];
+    }
+
+    private static final Level[] LEVELS = Level.values();
+    private static final byte[] NO_TABLE = new byte[0];
+
     /**
      * Used to get the coverage value for a path. This is generally the most
      * efficient way for tools to get coverage.
@@ -82,7 +202,10 @@ public class CoverageInfo {
      * @return
      */
     public Level getCoverageLevel(String xpath, String loc) {
-        Level result = null;
+        Level result = getPrecomputedLevel(xpath, loc);
+        if (result != null) {
+            return result;
+        }
         final XPathWithLocation xpLoc = new XPathWithLocation(xpath, loc);
         try {
             result = coverageCache.get(xpLoc, new Callable<Level>() {
@@ -20,11 +20,14 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.ImmutableSetMultimap;
@@ -40,6 +43,11 @@ import com.ibm.icu.text.Transform;
 public class DtdData extends XMLFileReader.SimpleHandler {
     private static final String COMMENT_PREFIX = System.lineSeparator() + "    ";
     private static final boolean SHOW_ALL = CldrUtility.getProperty("show_all", false);
+    /**
+     * The number of paths that each DtdComparator keeps sort keys for
+     */
+    private static final int SORT_KEY_CACHE_SIZE = Integer.parseInt(
+        CldrUtility.getProperty("CLDR_DTD_SORT_KEY_CACHE_SIZE", "300000"));
     private static final boolean USE_SYNTHESIZED = false;
 
     private static final boolean DEBUG = false;
@@ -805,14 +813,214 @@ public class DtdData extends XMLFileReader.SimpleHandler {
         return dtdComparator;
     }
 
+    /**
+     * Compares paths in DTD order. Each path gets a sort key the first time it is compared, and after that two paths
+     * are compared by comparing their keys, which are plain strings, instead of walking the elements and attributes of
+     * both paths. The few paths that can't be given a key that sorts exactly like xpathComparator (such as paths with
+     * diffing elements, or attributes that aren't in the DTD) are compared with xpathComparator.
+     */
     public class DtdComparator implements Comparator<String> {
+        // The sort key of a path has, for each element after the root:
+        //   a char for the position of the element among the children of its parent;
+        //   for each attribute that the element has, in DTD order, a char for the attribute (descending, so that a
+        //   missing attribute sorts first) and the value: a label for the position of the value in the ordering of
+        //   the attribute values, a char for its position among the enumerated values, or the value itself
+        //   followed by \u0000;
+        //   \u0001, for the end of the attributes.
+        private static final char END_OF_ATTRIBUTES = '\u0001';
+        private static final char END_OF_VALUE = '\u0000';
+        private static final char FIRST_ATTRIBUTE = '\uFFFE';
+
+        /**
+         * The keys can always be made again, so only keep the ones for the most recently compared paths. DtdData is
+         * shared for the life of the process, and would otherwise keep a key for every path it ever compared.
+         */
+        private final Cache<String, SortKey> sortKeys = CacheBuilder.newBuilder()
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .maximumSize(SORT_KEY_CACHE_SIZE)
+            .build();
+        private final Map<Comparator<String>, ValueLabels> valueLabels = new HashMap<>();
+        /**
+         * Changed whenever the labels of some attribute values are changed, which makes all the keys made before invalid.
+         */
+        private final AtomicInteger generation = new AtomicInteger();
+
         @Override
         public int compare(String path1, String path2) {
+            while (true) {
+                SortKey key1 = getSortKey(path1);
+                SortKey key2 = getSortKey(path2);
+                if (key1.key == null || key2.key == null) {
+                    break;
+                }
+                if (key1.generation == key2.generation) {
+                    return key1.key.compareTo(key2.key);
+                }
+                // the labels changed in between, so get the keys again
+            }
             XPathParts a = XPathParts.getFrozenInstance(path1);
             XPathParts b = XPathParts.getFrozenInstance(path2);
             return xpathComparator(a, b);
         }
 
+        /**
+         * The sort key of a path, made with the labels of the given generation. The key is null if the path
+         * must be compared with xpathComparator.
+         */
+        private final class SortKey {
+            final String key;
+            final int generation;
+
+            SortKey(String key, int generation) {
+                this.key = key;
+                this.generation = generation;
+            }
+        }
+
+        private SortKey getSortKey(String path) {
+            SortKey result = sortKeys.getIfPresent(path);
+            if (result != null && (result.key == null || result.generation == generation.get())) {
+                return result;
+            }
+            while (true) {
+                int before = generation.get();
+                String key = makeSortKey(path);
+                if (before == generation.get()) {
+                    result = new SortKey(key, before);
+                    sortKeys.put(path, result);
+                    return result;
+                }
+            }
+        }
+
+        private String makeSortKey(String path) {
+            XPathParts parts = XPathParts.getFrozenInstance(path);
+            if (!ROOT.name.equals(parts.getElement(0))) {
+                return null;
+            }
+            StringBuilder key = new StringBuilder();
+            Element parent = ROOT;
+            for (int i = 1; i < parts.size(); ++i) {
+                Element element = nameToElement.get(parts.getElement(i));
+                Integer position = element == null ? null : parent.children.get(element);
+                if (position == null || position + 2 > Character.MAX_VALUE) {
+                    return null; // includes the "fake" diffing elements, which start with _
+                }
+                key.append((char) (position + 2));
+                int count = parts.getAttributeCount(i);
+                if (count != 0) {
+                    if (parts.getAttributeValue(i, "_q") != null) {
+                        return null;
+                    }
+                    char attributeChar = FIRST_ATTRIBUTE;
+                    for (Attribute attribute : element.attributes.keySet()) {
+                        String value = parts.getAttributeValue(i, attribute.name);
+                        if (value != null) {
+                            key.append(attributeChar);
+                            if (!appendValue(key, attribute, value)) {
+                                return null;
+                            }
+                            --count;
+                        }
+                        --attributeChar;
+                    }
+                    if (count != 0) {
+                        return null; // some attributes are not in the DTD
+                    }
+                }
+                key.append(END_OF_ATTRIBUTES);
+                parent = element;
+            }
+            return key.toString();
+        }
+
+        private boolean appendValue(StringBuilder key, Attribute attribute, String value) {
+            if (attribute.attributeValueComparator != null) {
+                ValueLabels labels;
+                synchronized (valueLabels) {
+                    labels = valueLabels.computeIfAbsent(attribute.attributeValueComparator, ValueLabels::new);
+                }
+                Long label = labels.get(value);
+                if (label == null) {
+                    return false;
+                }
+                key.append((char) (label >>> 48)).append((char) (label >>> 32)).append((char) (label >>> 16))
+                    .append((char) label.longValue());
+            } else if (attribute.values.size() != 0) {
+                Integer position = attribute.values.get(value);
+                if (position == null || position + 2 > Character.MAX_VALUE) {
+                    return false;
+                }
+                key.append((char) (position + 2));
+            } else {
+                if (value.indexOf(END_OF_VALUE) >= 0) {
+                    return false;
+                }
+                key.append(value).append(END_OF_VALUE);
+            }
+            return true;
+        }
+
+        /**
+         * Labels for the values of the attributes with one attribute value comparator, ordered like the comparator
+         * orders the values. New values get a label between the labels of their neighbors; when there is no room left,
+         * all the values get new labels, and the generation changes.
+         */
+        private final class ValueLabels {
+            private static final long STEP = 1L << 32;
+            private final TreeMap<String, Long> labels;
+
+            ValueLabels(Comparator<String> comparator) {
+                labels = new TreeMap<>(comparator);
+            }
+
+            /**
+             * Get the label for the value, or null if the comparator finds it equal to a different value, or can't
+             * compare it, since then the paths must be compared with xpathComparator to get the same result.
+             */
+            synchronized Long get(String value) {
+                try {
+                    return getOrAdd(value);
+                } catch (RuntimeException e) {
+                    return null; // such as a value missing from a MapComparator
+                }
+            }
+
+            private Long getOrAdd(String value) {
+                Entry<String, Long> higher = labels.ceilingEntry(value);
+                if (higher != null && labels.comparator().compare(higher.getKey(), value) == 0) {
+                    return higher.getKey().equals(value) ? higher.getValue() : null;
+                }
+                Entry<String, Long> lower = labels.lowerEntry(value);
+                long low = lower == null ? 0 : lower.getValue();
+                long high = higher == null ? Long.MAX_VALUE : higher.getValue();
+                long label;
+                if (lower == null && higher == null) {
+                    label = Long.MAX_VALUE / 2;
+                } else if (lower == null && high - low > 2 * STEP) {
+                    label = high - STEP;
+                } else if (higher == null && high - low > 2 * STEP) {
+                    label = low + STEP;
+                } else {
+                    label = low + (high - low) / 2;
+                }
+                if (label == low || label == high) {
+                    // no room left: spread all the labels out evenly
+                    labels.put(value, 0L);
+                    long step = Long.MAX_VALUE / (labels.size() + 1);
+                    long next = step;
+                    for (Entry<String, Long> entry : labels.entrySet()) {
+                        entry.setValue(next);
+                        next += step;
+                    }
+                    generation.incrementAndGet();
+                    return labels.get(value);
+                }
+                labels.put(value, label);
+                return label;
+            }
+        }
+
         public int xpathComparator(XPathParts a, XPathParts b) {
             // there must always be at least one element
             String baseA = a.getElement(0);
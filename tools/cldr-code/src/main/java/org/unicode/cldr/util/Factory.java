@@ -2,14 +2,22 @@ package org.unicode.cldr.util;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.CLDRLocale.SublocaleProvider;
+import org.unicode.cldr.util.XMLSource.FlatResolvingSource;
 import org.unicode.cldr.util.XMLSource.ResolvingSource;
 
 /**
@@ -117,6 +125,22 @@ public abstract class Factory implements SublocaleProvider {
         return make(localeID, resolved, getMinimalDraftStatus());
     }
 
+    /**
+     * Make a resolved CLDRFile that resolves every path once, up front, and answers later lookups from a flat table.
+     * It suits tools that read all the paths of a locale, possibly from several threads, and can be shared by them.
+     * Changes to the unresolved sources are picked up path by path, as for any resolved file.
+     *
+     * @see XMLSource.FlatResolvingSource
+     */
+    public CLDRFile makeFlattened(String localeID) {
+        return makeFlattened(localeID, getMinimalDraftStatus());
+    }
+
+    public CLDRFile makeFlattened(String localeID, DraftStatus madeWithMinimalDraftStatus) {
+        return new CLDRFile(new FlatResolvingSource(makeResolvingSource(localeID, madeWithMinimalDraftStatus)))
+            .setSupplementalDirectory(getSupplementalDirectory());
+    }
+
     public CLDRFile makeWithFallback(String localeID) {
         return makeWithFallback(localeID, getMinimalDraftStatus());
     }
@@ -171,6 +195,82 @@ public abstract class Factory implements SublocaleProvider {
         return new ResolvingSource(sourceList);
     }
 
+    /**
+     * Load a set of locales in bulk, using the executor to do the work in parallel.
+     * First the unresolved files for the locales and all their parents are loaded in parallel (this is where the
+     * time goes: parsing the XML). Then the resolved files are all made in one parallel pass. A resolved file is
+     * built from the unresolved sources of the locale and its parents, not from its parent's resolved file, so the
+     * resolved files don't depend on one another; they all share the unresolved sources loaded once in the first
+     * step, and later calls to make() find those sources already cached.
+     *
+     * @param locales
+     *            the locales to load
+     * @param executor
+     *            the executor to run the loads on, for example a ForkJoinPool or a fixed thread pool with one
+     *            thread per core
+     * @return a map from each of the locales to its resolved CLDRFile, with parents before children
+     */
+    public Map<String, CLDRFile> preload(Set<String> locales, Executor executor) {
+        DraftStatus minimalDraftStatus = getMinimalDraftStatus();
+
+        // Group the locales and their parents by depth (root = 0)
+        Map<Integer, Set<String>> depthToLocales = new TreeMap<>();
+        Set<String> seen = new TreeSet<>();
+        for (String locale : locales) {
+            for (String cur = locale; cur != null && seen.add(cur); cur = LocaleIDParser.getParent(cur)) {
+                int depth = 0;
+                for (String parent = LocaleIDParser.getParent(cur); parent != null; parent = LocaleIDParser.getParent(parent)) {
+                    ++depth;
+                }
+                depthToLocales.computeIfAbsent(depth, k -> new TreeSet<>()).add(cur);
+            }
+        }
+
+        // Parse all the unresolved files at once; they don't depend on one another.
+        // Keep them in a map while we work, so that none of them can be dropped from a cache before it is used.
+        Map<String, CompletableFuture<CLDRFile>> unresolved = new TreeMap<>();
+        for (String locale : seen) {
+            unresolved.put(locale, CompletableFuture.supplyAsync(() -> handleMake(locale, false, minimalDraftStatus), executor));
+        }
+        join(unresolved.values());
+
+        // Then resolve them all at once
+        Map<String, CompletableFuture<CLDRFile>> resolved = new TreeMap<>();
+        for (String locale : locales) {
+            resolved.put(locale, CompletableFuture.supplyAsync(() -> make(locale, true, minimalDraftStatus), executor));
+        }
+        join(resolved.values());
+
+        // Return them parents first
+        Map<String, CLDRFile> result = new LinkedHashMap<>();
+        for (Set<String> level : depthToLocales.values()) {
+            for (String locale : level) {
+                CompletableFuture<CLDRFile> file = resolved.get(locale);
+                if (file != null) {
+                    result.put(locale, file.join());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wait for all the futures, rethrowing the first failure as it was thrown by the task.
+     */
+    private static void join(Collection<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
     public abstract DraftStatus getMinimalDraftStatus();
 
     /**
@@ -13,6 +13,8 @@ import org.unicode.cldr.util.CLDRFile.Status;
 import org.unicode.cldr.util.DayPeriodInfo.DayPeriod;
 import org.unicode.cldr.util.SupplementalDataInfo.CurrencyNumberInfo;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.DateFormatSymbols;
 import com.ibm.icu.text.DecimalFormat;
@@ -29,6 +31,18 @@ import com.ibm.icu.util.Output;
 import com.ibm.icu.util.TimeZone;
 import com.ibm.icu.util.ULocale;
 
+/**
+ * Builds ICU formats, symbols, and collators from the (resolved) CLDRFile that is set on it.
+ * <p>
+ * Once the file is set, an ICUServiceBuilder can be shared by threads: the formats and symbols that it builds are cached as
+ * templates that are never changed after they are built, and each call gets its own copy, which the caller is free to modify.
+ * <p>
+ * The cache is shared by all ICUServiceBuilders, so that tools that switch between locales don't build the same formats
+ * and collators again. Its keys have the locale and the data stamp ({@link CLDRFile#getDataStamp()}) of the file that each
+ * object is built from: a change to the data just makes new keys, and the old entries drop out of the cache.
+ * The size of the cache can be set with CLDR_ICU_SERVICE_CACHE_SIZE. Collators, which are much larger, are kept in a
+ * separate cache, whose size can be set with CLDR_ICU_COLLATOR_CACHE_SIZE.
+ */
 public class ICUServiceBuilder {
     public static Currency NO_CURRENCY = Currency.getInstance("XXX");
     private CLDRFile cldrFile;
@@ -42,23 +56,39 @@ public class ICUServiceBuilder {
     }
 
     static public String isoDateFormat(Date date) {
-        return iso.format(date);
+        synchronized (iso) {
+            return iso.format(date);
+        }
     }
 
     public static String isoDateFormat(long value) {
-        // TODO Auto-generated method stub
-        return iso.format(new Date(value));
+        return isoDateFormat(new Date(value));
     }
 
     static public Date isoDateParse(String date) throws ParseException {
-        return iso.parse(date);
+        synchronized (iso) {
+            return iso.parse(date);
+        }
     }
 
-    private Map<String, SimpleDateFormat> cacheDateFormats = new HashMap<>();
-    private Map<String, DateFormatSymbols> cacheDateFormatSymbols = new HashMap<>();
-    private Map<String, NumberFormat> cacheNumberFormats = new HashMap<>();
-    private Map<String, DecimalFormatSymbols> cacheDecimalFormatSymbols = new HashMap<>();
-    private Map<String, RuleBasedCollator> cacheRuleBasedCollators = new HashMap<>();
+    private static final Cache<String, Object> SHARED_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(CLDRConfig.getInstance().getProperty("CLDR_ICU_SERVICE_CACHE_SIZE", 5_000))
+        .build();
+
+    /**
+     * Collators are kept apart from the formats, with a much smaller bound: each one holds its tailoring tables, which
+     * can be hundreds of KB, while a format is a few KB.
+     */
+    private static final Cache<String, RuleBasedCollator> COLLATOR_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(CLDRConfig.getInstance().getProperty("CLDR_ICU_COLLATOR_CACHE_SIZE", 50))
+        .build();
+
+    /**
+     * The key in SHARED_CACHE for an object of the given kind, built from the given file
+     */
+    private static String cacheKey(String kind, CLDRFile file, String key) {
+        return kind + "/" + file.getLocaleID() + "/" + file.getDataStamp() + "/" + key;
+    }
 
     private SupplementalDataInfo supplementalData;
 
@@ -98,15 +128,10 @@ public class ICUServiceBuilder {
         this.cldrFile = cldrFile;
         supplementalData = CLDRConfig.getInstance().getSupplementalDataInfo();
         // SupplementalDataInfo.getInstance(this.cldrFile.getSupplementalDirectory());
-        cacheDateFormats.clear();
-        cacheNumberFormats.clear();
-        cacheDateFormatSymbols.clear();
-        cacheDecimalFormatSymbols.clear();
-        cacheRuleBasedCollators.clear();
         return this;
     }
 
-    public static ICUServiceBuilder forLocale(CLDRLocale locale) {
+    public static synchronized ICUServiceBuilder forLocale(CLDRLocale locale) {
 
         ICUServiceBuilder result = ISBMap.get(locale);
 
@@ -118,11 +143,6 @@ public class ICUServiceBuilder {
                 result.collationFile = Factory.make(CLDRPaths.COLLATION_DIRECTORY, ".*").makeWithFallback(locale.getBaseName());
             }
             result.supplementalData = SupplementalDataInfo.getInstance(CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
-            result.cacheDateFormats.clear();
-            result.cacheNumberFormats.clear();
-            result.cacheDateFormatSymbols.clear();
-            result.cacheDecimalFormatSymbols.clear();
-            result.cacheRuleBasedCollators.clear();
 
             ISBMap.put(locale, result);
         }
@@ -130,12 +150,13 @@ public class ICUServiceBuilder {
     }
 
     public RuleBasedCollator getRuleBasedCollator(String type) throws Exception {
-        RuleBasedCollator col = cacheRuleBasedCollators.get(type);
+        String key = cacheKey("collator", collationFile, type);
+        RuleBasedCollator col = COLLATOR_CACHE.getIfPresent(key);
         if (col == null) {
-            col = _getRuleBasedCollator(type);
-            cacheRuleBasedCollators.put(type, col);
+            col = _getRuleBasedCollator(type).freeze(); // building one is slow, so it is only done once
+            COLLATOR_CACHE.put(key, col);
         }
-        return (RuleBasedCollator) col.clone();
+        return col.cloneAsThawed();
     }
 
     private RuleBasedCollator _getRuleBasedCollator(String type) throws Exception {
@@ -181,24 +202,24 @@ public class ICUServiceBuilder {
     }
 
     public SimpleDateFormat getDateFormat(String calendar, int dateIndex, int timeIndex, String numbersOverride) {
-        String key = cldrFile.getLocaleID() + "," + calendar + "," + dateIndex + "," + timeIndex;
-        SimpleDateFormat result = cacheDateFormats.get(key);
+        String key = cacheKey("dateFormat", cldrFile, calendar + "," + dateIndex + "," + timeIndex + ",,," + numbersOverride);
+        SimpleDateFormat result = (SimpleDateFormat) SHARED_CACHE.getIfPresent(key);
         if (result != null) return (SimpleDateFormat) result.clone();
 
         String pattern = getPattern(calendar, dateIndex, timeIndex);
 
         result = getFullFormat(calendar, pattern, numbersOverride);
-        cacheDateFormats.put(key, result);
+        SHARED_CACHE.put(key, result);
         // System.out.println("created " + key);
         return (SimpleDateFormat) result.clone();
     }
 
     public SimpleDateFormat getDateFormat(String calendar, String pattern, String numbersOverride) {
-        String key = cldrFile.getLocaleID() + "," + calendar + ",," + pattern + ",,," + numbersOverride;
-        SimpleDateFormat result = cacheDateFormats.get(key);
+        String key = cacheKey("dateFormat", cldrFile, calendar + ",," + pattern + ",,," + numbersOverride);
+        SimpleDateFormat result = (SimpleDateFormat) SHARED_CACHE.getIfPresent(key);
         if (result != null) return (SimpleDateFormat) result.clone();
         result = getFullFormat(calendar, pattern, numbersOverride);
-        cacheDateFormats.put(key, result);
+        SHARED_CACHE.put(key, result);
         // System.out.println("created " + key);
         return (SimpleDateFormat) result.clone();
     }
@@ -256,8 +277,8 @@ public class ICUServiceBuilder {
     }
 
     private DateFormatSymbols _getDateFormatSymbols(String calendar) {
-        String key = cldrFile.getLocaleID() + "," + calendar;
-        DateFormatSymbols result = cacheDateFormatSymbols.get(key);
+        String key = cacheKey("dateFormatSymbols", cldrFile, calendar);
+        DateFormatSymbols result = (DateFormatSymbols) SHARED_CACHE.getIfPresent(key);
         if (result != null) return (DateFormatSymbols) result.clone();
 
         String[] last;
@@ -347,7 +368,7 @@ public class ICUServiceBuilder {
         formatData.setQuarters(getArray(prefix, "quarter", "stand-alone", "narrow"), DateFormatSymbols.STANDALONE,
             DateFormatSymbols.NARROW);
 
-        cacheDateFormatSymbols.put(key, formatData);
+        SHARED_CACHE.put(key, formatData);
         return (DateFormatSymbols) formatData.clone();
     }
 
@@ -591,11 +612,12 @@ public class ICUServiceBuilder {
 
     public NumberFormat getGenericNumberFormat(String ns) {
         // CLDRFile cldrFile = cldrFactory.make(localeID, true);
-        NumberFormat result = cacheNumberFormats.get(cldrFile.getLocaleID() + "@numbers=" + ns);
+        String key = cacheKey("genericNumberFormat", cldrFile, ns);
+        NumberFormat result = (NumberFormat) SHARED_CACHE.getIfPresent(key);
         if (result == null) {
             ULocale ulocale = new ULocale(cldrFile.getLocaleID() + "@numbers=" + ns);
             result = NumberFormat.getInstance(ulocale);
-            cacheNumberFormats.put(cldrFile.getLocaleID() + "@numbers=" + ns, result);
+            SHARED_CACHE.put(key, result);
         }
         return (NumberFormat) result.clone();
     }
@@ -614,16 +636,16 @@ public class ICUServiceBuilder {
         String localeIDString = (numberSystem == null) ? cldrFile.getLocaleID() : cldrFile.getLocaleID() + "@numbers="
             + numberSystem;
         ULocale ulocale = new ULocale(localeIDString);
-        String key = (currencySymbol == null) ? ulocale + "/" + key1 + "/" + kind : ulocale + "/" + key1 + "/" + kind
-            + "/" + currencySymbol;
-        DecimalFormat result = (DecimalFormat) cacheNumberFormats.get(key);
+        String key = cacheKey("numberFormat", cldrFile, (currencySymbol == null) ? ulocale + "/" + key1 + "/" + kind
+            : ulocale + "/" + key1 + "/" + kind + "/" + currencySymbol);
+        DecimalFormat result = (DecimalFormat) SHARED_CACHE.getIfPresent(key);
         if (result != null) {
             return (DecimalFormat) result.clone();
         }
 
         String pattern = kind == PATTERN ? key1 : getPattern(key1, kind);
 
-        DecimalFormatSymbols symbols = _getDecimalFormatSymbols(numberSystem);
+        DecimalFormatSymbols symbols = _getDecimalFormatSymbols(numberSystem); // a copy, so it can be changed
         /*
          * currencySymbol.equals(other.currencySymbol) &&
          * intlCurrencySymbol.equals(other.intlCurrencySymbol) &&
@@ -644,7 +666,7 @@ public class ICUServiceBuilder {
             }
             String currencyDecimal = cldrFile.getWinningValueWithBailey(prefix + "decimal");
             if (currencyDecimal != null) {
-                (symbols = cloneIfNeeded(symbols)).setMonetaryDecimalSeparator(currencyDecimal.charAt(0));
+                symbols.setMonetaryDecimalSeparator(currencyDecimal.charAt(0));
             }
             String currencyPattern = cldrFile.getWinningValueWithBailey(prefix + "pattern");
             if (currencyPattern != null) {
@@ -653,7 +675,7 @@ public class ICUServiceBuilder {
 
             String currencyGrouping = cldrFile.getWinningValueWithBailey(prefix + "grouping");
             if (currencyGrouping != null) {
-                (symbols = cloneIfNeeded(symbols)).setMonetaryGroupingSeparator(currencyGrouping.charAt(0));
+                symbols.setMonetaryGroupingSeparator(currencyGrouping.charAt(0));
             }
 
             // <decimal>,</decimal>
@@ -706,37 +728,41 @@ public class ICUServiceBuilder {
             result.setDecimalSeparatorAlwaysShown(false);
             result.setParseIntegerOnly(true);
         }
-        cacheNumberFormats.put(key, result);
+        SHARED_CACHE.put(key, result);
         return (DecimalFormat) result.clone();
     }
 
     private String fixCurrencySpacing(String pattern, String symbol) {
+        CurrencySpacing spacing = getCurrencySpacing();
         int startPos = pattern.indexOf('\u00a4');
         if (startPos > 0
-            && beforeCurrencyMatch.contains(UTF16.charAt(symbol, 0))) {
+            && spacing.beforeCurrencyMatch.contains(UTF16.charAt(symbol, 0))) {
             int ch = UTF16.charAt(pattern, startPos - 1);
             if (ch == '#') ch = '0';// fix pattern
-            if (beforeSurroundingMatch.contains(ch)) {
-                pattern = pattern.substring(0, startPos) + beforeInsertBetween + pattern.substring(startPos);
+            if (spacing.beforeSurroundingMatch.contains(ch)) {
+                pattern = pattern.substring(0, startPos) + spacing.beforeInsertBetween + pattern.substring(startPos);
             }
         }
         int endPos = pattern.lastIndexOf('\u00a4') + 1;
         if (endPos < pattern.length()
-            && afterCurrencyMatch.contains(UTF16.charAt(symbol, symbol.length() - 1))) {
+            && spacing.afterCurrencyMatch.contains(UTF16.charAt(symbol, symbol.length() - 1))) {
             int ch = UTF16.charAt(pattern, endPos);
             if (ch == '#') ch = '0';// fix pattern
-            if (afterSurroundingMatch.contains(ch)) {
-                pattern = pattern.substring(0, endPos) + afterInsertBetween + pattern.substring(endPos);
+            if (spacing.afterSurroundingMatch.contains(ch)) {
+                pattern = pattern.substring(0, endPos) + spacing.afterInsertBetween + pattern.substring(endPos);
             }
         }
         return pattern;
     }
 
-    private DecimalFormatSymbols cloneIfNeeded(DecimalFormatSymbols symbols) {
-        if (symbols == _getDecimalFormatSymbols(null)) {
-            return (DecimalFormatSymbols) symbols.clone();
+    private CurrencySpacing getCurrencySpacing() {
+        String key = cacheKey("currencySpacing", cldrFile, "");
+        CurrencySpacing result = (CurrencySpacing) SHARED_CACHE.getIfPresent(key);
+        if (result == null) {
+            result = new CurrencySpacing(cldrFile); // a race just builds it twice
+            SHARED_CACHE.put(key, result);
         }
-        return symbols;
+        return result;
     }
 
     public DecimalFormatSymbols getDecimalFormatSymbols(String numberSystem) {
@@ -744,9 +770,8 @@ public class ICUServiceBuilder {
     }
 
     private DecimalFormatSymbols _getDecimalFormatSymbols(String numberSystem) {
-        String key = (numberSystem == null) ? cldrFile.getLocaleID() : cldrFile.getLocaleID() + "@numbers="
-            + numberSystem;
-        DecimalFormatSymbols symbols = cacheDecimalFormatSymbols.get(key);
+        String key = cacheKey("decimalFormatSymbols", cldrFile, String.valueOf(numberSystem));
+        DecimalFormatSymbols symbols = (DecimalFormatSymbols) SHARED_CACHE.getIfPresent(key);
         if (symbols != null) {
             return (DecimalFormatSymbols) symbols.clone();
         }
@@ -789,16 +814,7 @@ public class ICUServiceBuilder {
             symbols.setMonetaryGroupingSeparator(symbols.getGroupingSeparator());
         }
 
-        String prefix = "//ldml/numbers/currencyFormats/currencySpacing/beforeCurrency/";
-        beforeCurrencyMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "currencyMatch")).freeze();
-        beforeSurroundingMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "surroundingMatch")).freeze();
-        beforeInsertBetween = cldrFile.getWinningValueWithBailey(prefix + "insertBetween");
-        prefix = "//ldml/numbers/currencyFormats/currencySpacing/afterCurrency/";
-        afterCurrencyMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "currencyMatch")).freeze();
-        afterSurroundingMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "surroundingMatch")).freeze();
-        afterInsertBetween = cldrFile.getWinningValueWithBailey(prefix + "insertBetween");
-
-        cacheDecimalFormatSymbols.put(key, symbols);
+        SHARED_CACHE.put(key, symbols);
 
         return (DecimalFormatSymbols) symbols.clone();
     }
@@ -834,12 +850,28 @@ public class ICUServiceBuilder {
         }
     }
 
-    UnicodeSet beforeCurrencyMatch;
-    UnicodeSet beforeSurroundingMatch;
-    String beforeInsertBetween;
-    UnicodeSet afterCurrencyMatch;
-    UnicodeSet afterSurroundingMatch;
-    String afterInsertBetween;
+    /**
+     * The currencySpacing data of the file, which doesn't depend on the number system.
+     */
+    private static final class CurrencySpacing {
+        final UnicodeSet beforeCurrencyMatch;
+        final UnicodeSet beforeSurroundingMatch;
+        final String beforeInsertBetween;
+        final UnicodeSet afterCurrencyMatch;
+        final UnicodeSet afterSurroundingMatch;
+        final String afterInsertBetween;
+
+        CurrencySpacing(CLDRFile cldrFile) {
+            String prefix = "//ldml/numbers/currencyFormats/currencySpacing/beforeCurrency/";
+            beforeCurrencyMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "currencyMatch")).freeze();
+            beforeSurroundingMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "surroundingMatch")).freeze();
+            beforeInsertBetween = cldrFile.getWinningValueWithBailey(prefix + "insertBetween");
+            prefix = "//ldml/numbers/currencyFormats/currencySpacing/afterCurrency/";
+            afterCurrencyMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "currencyMatch")).freeze();
+            afterSurroundingMatch = new UnicodeSet(cldrFile.getWinningValueWithBailey(prefix + "surroundingMatch")).freeze();
+            afterInsertBetween = cldrFile.getWinningValueWithBailey(prefix + "insertBetween");
+        }
+    }
 
     private String getPattern(String key1, int isCurrency) {
         String prefix = "//ldml/numbers/";
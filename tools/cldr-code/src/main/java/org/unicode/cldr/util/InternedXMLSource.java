@@ -0,0 +1,216 @@
+package org.unicode.cldr.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.unicode.cldr.util.XPathParts.Comments;
+
+import com.ibm.icu.util.VersionInfo;
+
+/**
+ * An XMLSource that stores its values by path id (see {@link XPathIdTable}) instead of in maps keyed by path strings.
+ * The path strings are shared by all the sources in the process, and each source only holds arrays of values
+ * (and of the full paths that differ from the distinguishing paths). Intended for loading many locales at once;
+ * it can be enabled for the XMLNormalizingLoader with the property CLDR_INTERNED_XPATHS=true.
+ * <p>
+ * Like SimpleXMLSource, it is meant to be filled by a single thread and then frozen; once frozen it is thread-safe.
+ */
+public class InternedXMLSource extends XMLSource {
+    private SparseStringArray values = new SparseStringArray();
+    private SparseStringArray fullPaths = new SparseStringArray();
+    private Comments xpath_comments = new Comments(); // map from paths to comments.
+    private VersionInfo dtdVersionInfo;
+
+    public InternedXMLSource(String localeID) {
+        this.setLocaleID(localeID);
+    }
+
+    @Override
+    public String getValueAtDPath(String xpath) {
+        return values.get(XPathIdTable.peekId(xpath));
+    }
+
+    /**
+     * Get the value for a path id, or null if there is none.
+     */
+    public String getValueAtId(int id) {
+        return values.get(id);
+    }
+
+    @Override
+    public String getFullPathAtDPath(String xpath) {
+        int id = XPathIdTable.peekId(xpath);
+        String result = fullPaths.get(id);
+        if (result != null) return result;
+        if (values.get(id) != null) return XPathIdTable.getPath(id); // we don't store duplicates
+        return null;
+    }
+
+    @Override
+    public Comments getXpathComments() {
+        return xpath_comments;
+    }
+
+    @Override
+    public void setXpathComments(Comments xpath_comments) {
+        this.xpath_comments = xpath_comments;
+    }
+
+    @Override
+    public void putFullPathAtDPath(String distinguishingXPath, String fullxpath) {
+        // a full path equal to the distinguishing path is read back from the shared table, so don't keep a copy
+        fullPaths.set(XPathIdTable.getId(distinguishingXPath),
+            distinguishingXPath.equals(fullxpath) ? null : fullxpath);
+    }
+
+    @Override
+    public void putValueAtDPath(String distinguishingXPath, String value) {
+        values.set(XPathIdTable.getId(distinguishingXPath), value);
+    }
+
+    @Override
+    public void removeValueAtDPath(String distinguishingXPath) {
+        int id = XPathIdTable.peekId(distinguishingXPath);
+        if (id >= 0) {
+            values.set(id, null);
+            fullPaths.set(id, null);
+        }
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int nextId = values.nextId(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextId >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (nextId < 0) {
+                    throw new NoSuchElementException();
+                }
+                String result = XPathIdTable.getPath(nextId);
+                nextId = values.nextId(nextId + 1);
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public void getPathsWithValue(String valueToMatch, String pathPrefix, Set<String> result) {
+        String normalizedValue = SimpleXMLSource.normalize(valueToMatch);
+        for (int id = values.nextId(0); id >= 0; id = values.nextId(id + 1)) {
+            String value = values.get(id);
+            if (CldrUtility.INHERITANCE_MARKER.equals(value)) {
+                continue;
+            }
+            String path = XPathIdTable.getPath(id);
+            if ((pathPrefix == null || path.startsWith(pathPrefix))
+                && normalizedValue.equals(SimpleXMLSource.normalize(value))) {
+                result.add(path);
+            }
+        }
+    }
+
+    @Override
+    public XMLSource freeze() {
+        locked = true;
+        return this;
+    }
+
+    @Override
+    public XMLSource cloneAsThawed() {
+        InternedXMLSource result = (InternedXMLSource) super.cloneAsThawed();
+        result.xpath_comments = (Comments) result.xpath_comments.clone();
+        result.values = values.copy();
+        result.fullPaths = fullPaths.copy();
+        return result;
+    }
+
+    public void setDtdVersionInfo(VersionInfo dtdVersionInfo) {
+        this.dtdVersionInfo = dtdVersionInfo;
+    }
+
+    @Override
+    public VersionInfo getDtdVersionInfo() {
+        return dtdVersionInfo;
+    }
+
+    /**
+     * A String array indexed by path id, allocated in pages, so that a locale with few paths
+     * scattered across the id range doesn't need an array as large as the whole table.
+     */
+    static final class SparseStringArray {
+        private static final int PAGE_BITS = 6;
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+        private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+        private String[][] pages = new String[16][];
+
+        String get(int id) {
+            if (id < 0) {
+                return null;
+            }
+            String[][] pages = this.pages;
+            int pageIndex = id >>> PAGE_BITS;
+            if (pageIndex >= pages.length) {
+                return null;
+            }
+            String[] page = pages[pageIndex];
+            return page == null ? null : page[id & PAGE_MASK];
+        }
+
+        void set(int id, String value) {
+            int pageIndex = id >>> PAGE_BITS;
+            if (pageIndex >= pages.length) {
+                if (value == null) {
+                    return;
+                }
+                pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length * 2));
+            }
+            String[] page = pages[pageIndex];
+            if (page == null) {
+                if (value == null) {
+                    return;
+                }
+                page = pages[pageIndex] = new String[PAGE_SIZE];
+            }
+            page[id & PAGE_MASK] = value;
+        }
+
+        /**
+         * Return the first id at or after start that has a value, or -1 if there is none.
+         */
+        int nextId(int start) {
+            for (int pageIndex = start >>> PAGE_BITS; pageIndex < pages.length; ++pageIndex) {
+                String[] page = pages[pageIndex];
+                if (page == null) {
+                    continue;
+                }
+                int first = pageIndex == start >>> PAGE_BITS ? start & PAGE_MASK : 0;
+                for (int i = first; i < PAGE_SIZE; ++i) {
+                    if (page[i] != null) {
+                        return (pageIndex << PAGE_BITS) | i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        SparseStringArray copy() {
+            SparseStringArray result = new SparseStringArray();
+            result.pages = new String[pages.length][];
+            for (int i = 0; i < pages.length; ++i) {
+                if (pages[i] != null) {
+                    result.pages[i] = pages[i].clone();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.unicode.cldr.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -15,6 +16,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -23,10 +25,17 @@ import org.unicode.cldr.draft.ScriptMetadata;
 import org.unicode.cldr.draft.ScriptMetadata.Info;
 import org.unicode.cldr.tool.LikelySubtags;
 import org.unicode.cldr.util.RegexLookup.Finder;
+import org.unicode.cldr.util.RegexLookup.LookupType;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo.Count;
 import org.unicode.cldr.util.With.SimpleIterator;
 
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.lang.UCharacter;
@@ -371,9 +380,8 @@ public class PathHeader implements Comparable<PathHeader> {
     private final SubstringOrder codeSuborder;
 
     static final Pattern SEMI = PatternCache.get("\\s*;\\s*");
-    static final Matcher ALT_MATCHER = PatternCache.get(
-        "\\[@alt=\"([^\"]*+)\"]")
-        .matcher("");
+    static final Pattern ALT_PATTERN = PatternCache.get(
+        "\\[@alt=\"([^\"]*+)\"]");
 
     static final Collator alphabetic = CLDRConfig.getInstance().getCollatorRoot();
 
@@ -629,8 +637,8 @@ public class PathHeader implements Comparable<PathHeader> {
     }
 
     public static class Factory implements Transform<String, PathHeader> {
-        static final RegexLookup<RawData> lookup = RegexLookup
-            .of(new PathHeaderTransform())
+        static final RegexLookup<RawData> lookup = new RegexLookup<RawData>(LookupType.PREFIX_TRIE_LOOKUP)
+            .setValueTransform(new PathHeaderTransform())
             .setPatternTransform(
                 RegexLookup.RegexFinderTransformPath)
             .loadFromFile(
@@ -646,8 +654,28 @@ public class PathHeader implements Comparable<PathHeader> {
         static long order;
         static SubstringOrder suborder;
 
-        static final Map<String, PathHeader> cache = new HashMap<>();
-        // synchronized with cache
+        /**
+         * Maximum number of PathHeaders to cache (CLDR_PATHHEADER_CACHE_SIZE); 0 means no limit.
+         * <p>
+         * Evicting is safe: a PathHeader's header and code orders come from the RawData of the PathHeader.txt rule
+         * it matches, which are fixed when the rules are loaded, and from the functions in functionMap, which only
+         * look at the path. So a PathHeader that is evicted and made again compares the same as before. The
+         * section/page index (sectionPageToPaths) is kept apart from the cache and isn't evicted.
+         */
+        private static final int CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty("CLDR_PATHHEADER_CACHE_SIZE", "100000"));
+
+        static final Cache<String, PathHeader> cache;
+        static {
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .recordStats();
+            if (CACHE_SIZE > 0) {
+                builder.maximumSize(CACHE_SIZE);
+            }
+            cache = builder.build();
+        }
+
+        // synchronized with sectionPageToPaths
         static final Map<SectionId, Map<PageId, SectionPage>> sectionToPageToSectionPage = new EnumMap<>(
             SectionId.class);
         static final Relation<SectionPage, String> sectionPageToPaths = Relation
@@ -686,9 +714,27 @@ public class PathHeader implements Comparable<PathHeader> {
          * Use only when trying to find unmatched patterns
          */
         public void clearCache() {
-            synchronized (cache) {
-                cache.clear();
-            }
+            cache.invalidateAll();
+        }
+
+        /**
+         * Get the hit, miss, load time, and eviction counts for the cache of PathHeaders.
+         */
+        public CacheStats getCacheStatistics() {
+            return cache.stats();
+        }
+
+        /**
+         * Compute (and cache) the PathHeaders for all the paths in the file, in parallel,
+         * so that later calls to fromPath for those paths are cache hits.
+         *
+         * @return the number of paths
+         */
+        public int warmUp(CLDRFile file) {
+            List<String> paths = new ArrayList<>();
+            file.fullIterable().forEach(paths::add);
+            paths.parallelStream().forEach(this::fromPath);
+            return paths.size();
         }
 
         /**
@@ -714,44 +760,57 @@ public class PathHeader implements Comparable<PathHeader> {
             if (path == null) {
                 throw new NullPointerException("Path cannot be null");
             }
-            synchronized (cache) {
-                PathHeader old = cache.get(path);
-                if (old != null) {
-                    return old;
-                }
+            try {
+                return cache.get(path, () -> makePathHeader(path, failures));
+            } catch (InvalidCacheLoadException e) {
+                return null; // no PathHeader.txt rule matched; not cached
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new IllegalArgumentException(e.getCause());
             }
-            synchronized (lookup) {
-                String cleanPath = path;
-                // special handling for alt
-                String alt = null;
-                int altPos = cleanPath.indexOf("[@alt=");
-                if (altPos >= 0 && !cleanPath.endsWith("/symbol[@alt=\"narrow\"]")) {
-                    if (ALT_MATCHER.reset(cleanPath).find()) {
-                        alt = ALT_MATCHER.group(1);
-                        cleanPath = cleanPath.substring(0, ALT_MATCHER.start())
-                            + cleanPath.substring(ALT_MATCHER.end());
-                        int pos = alt.indexOf("proposed");
-                        if (pos >= 0 && !path.startsWith("//ldml/collations")) {
-                            alt = pos == 0 ? null : alt.substring(0, pos - 1);
-                            // drop "proposed",
-                            // change "xxx-proposed" to xxx.
-                        }
-                    } else {
-                        throw new IllegalArgumentException();
+        }
+
+        /**
+         * Make the PathHeader for a path, without caching. The regex lookup itself is thread-safe; only the
+         * parts that change the shared ordering state are synchronized with lookup.
+         */
+        private PathHeader makePathHeader(final String path, List<String> failures) {
+            String cleanPath = path;
+            // special handling for alt
+            String alt = null;
+            int altPos = cleanPath.indexOf("[@alt=");
+            if (altPos >= 0 && !cleanPath.endsWith("/symbol[@alt=\"narrow\"]")) {
+                Matcher altMatcher = ALT_PATTERN.matcher(cleanPath);
+                if (altMatcher.find()) {
+                    alt = altMatcher.group(1);
+                    cleanPath = cleanPath.substring(0, altMatcher.start())
+                        + cleanPath.substring(altMatcher.end());
+                    int pos = alt.indexOf("proposed");
+                    if (pos >= 0 && !path.startsWith("//ldml/collations")) {
+                        alt = pos == 0 ? null : alt.substring(0, pos - 1);
+                        // drop "proposed",
+                        // change "xxx-proposed" to xxx.
                     }
+                } else {
+                    throw new IllegalArgumentException();
                 }
-                Output<Finder> matcherFound = new Output<>();
-                RawData data = lookup.get(cleanPath, null, args, matcherFound, failures);
-                if (data == null) {
-                    return null;
-                }
+            }
+            Output<Finder> matcherFound = new Output<>();
+            Output<String[]> foundArgs = new Output<>();
+            RawData data = lookup.get(cleanPath, null, foundArgs, matcherFound, failures);
+            if (data == null) {
+                return null;
+            }
+            PathHeader result;
+            synchronized (lookup) {
                 matchersFound.add(matcherFound.value.toString());
                 counter.add(data, 1);
                 if (!samples.containsKey(data)) {
                     samples.put(data, cleanPath);
                 }
+                args.value = foundArgs.value;
                 try {
-                    PathHeader result = new PathHeader(
+                    result = new PathHeader(
                         SectionId.forString(fix(data.section, 0)),
                         PageId.forString(fix(data.page, 0)),
                         fix(data.header, data.headerOrder),
@@ -762,32 +821,26 @@ public class PathHeader implements Comparable<PathHeader> {
                         suborder,
                         data.status,
                         path);
-                    synchronized (cache) {
-                        PathHeader old = cache.get(path);
-                        if (old == null) {
-                            cache.put(path, result);
-                        } else {
-                            result = old;
-                        }
-                        Map<PageId, SectionPage> pageToPathHeaders = sectionToPageToSectionPage
-                            .get(result.sectionId);
-                        if (pageToPathHeaders == null) {
-                            sectionToPageToSectionPage.put(result.sectionId, pageToPathHeaders = new EnumMap<>(PageId.class));
-                        }
-                        SectionPage sectionPage = pageToPathHeaders.get(result.pageId);
-                        if (sectionPage == null) {
-                            sectionPage = new SectionPage(result.sectionId, result.pageId);
-                            pageToPathHeaders.put(result.pageId, sectionPage);
-                        }
-                        sectionPageToPaths.put(sectionPage, path);
-                    }
-                    return result;
                 } catch (Exception e) {
                     throw new IllegalArgumentException(
                         "Probably mismatch in Page/Section enum, or too few capturing groups in regex for " + path,
                         e);
                 }
             }
+            synchronized (sectionPageToPaths) {
+                Map<PageId, SectionPage> pageToPathHeaders = sectionToPageToSectionPage
+                    .get(result.sectionId);
+                if (pageToPathHeaders == null) {
+                    sectionToPageToSectionPage.put(result.sectionId, pageToPathHeaders = new EnumMap<>(PageId.class));
+                }
+                SectionPage sectionPage = pageToPathHeaders.get(result.pageId);
+                if (sectionPage == null) {
+                    sectionPage = new SectionPage(result.sectionId, result.pageId);
+                    pageToPathHeaders.put(result.pageId, sectionPage);
+                }
+                sectionPageToPaths.put(sectionPage, path);
+            }
+            return result;
         }
 
         private static class SectionPage implements Comparable<SectionPage> {
@@ -854,7 +907,7 @@ public class PathHeader implements Comparable<PathHeader> {
          */
         public static Set<String> getCachedPaths(SectionId sectionId, PageId page) {
             Set<String> target = new HashSet<>();
-            synchronized (cache) {
+            synchronized (sectionPageToPaths) {
                 Map<PageId, SectionPage> pageToSectionPage = sectionToPageToSectionPage
                     .get(sectionId);
                 if (pageToSectionPage == null) {
@@ -0,0 +1,279 @@
+package org.unicode.cldr.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.ibm.icu.text.UnicodeSet;
+
+/**
+ * Inverted index from the values of a CLDRFile to its paths, for substring and word-prefix search.
+ * Values are matched in the form of {@link SimpleXMLSource#normalize(String)}, like
+ * {@link CLDRFile#getPathsWithValue(String, String, java.util.regex.Matcher, Set)}, but they don't have to match the whole value.
+ * <p>
+ * The index has postings (path ids from the {@link XPathIdTable}) for each trigram of each normalized value, and for each word
+ * of each value. A substring search intersects the postings of the trigrams of the query, and then checks the few paths that are left;
+ * a prefix search looks up the range of words with the prefix.
+ * <p>
+ * To keep the index up to date, add it as a listener to the (unresolved) sources that the file's values come from; on each change it
+ * gets the new value of the path from the file. For a resolved file, that means the index has to hear of the change after the file's
+ * resolving source has: the resolving source adds itself as a listener to the same sources when the file is made, and an XMLSource
+ * notifies its listeners in the order they were added, so add the index after making the file.
+ * Each index has its own lock, so searches of different locales never wait for each other, and searches of the same locale only wait
+ * for changes being applied.
+ */
+public class PathValueIndex implements XMLSource.Listener {
+    private static final int GRAM_LENGTH = 3;
+    private static final UnicodeSet WORD_CHARACTERS = new UnicodeSet("[[:L:][:M:][:N:]]").freeze();
+
+    private final CLDRFile file;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All guarded by lock
+    private String[] values = new String[0]; // by path id; null if the path has no value
+    private String[] normalizedValues = new String[0];
+    private final Map<String, Postings> grams = new HashMap<>();
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+
+    /**
+     * Index all the values of the file.
+     *
+     * @param file
+     *            the file, typically resolved. The index keeps it, to get the new values when it is notified of a change.
+     */
+    public PathValueIndex(CLDRFile file) {
+        this.file = file;
+        lock.writeLock().lock();
+        try {
+            for (String path : file) {
+                setValue(XPathIdTable.getId(path), getIndexedValue(path));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CLDRFile getFile() {
+        return file;
+    }
+
+    /**
+     * Update the index for the new value of the path. The value is read under the same lock that it is indexed under, so that
+     * concurrent changes to the same path can't be indexed out of order.
+     */
+    @Override
+    public void valueChanged(String xpath, XMLSource source) {
+        lock.writeLock().lock();
+        try {
+            setValue(XPathIdTable.getId(xpath), getIndexedValue(xpath));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search for text the way a user would expect: paths whose values contain the text, or for text that is too short for that to be
+     * useful (one or two characters when normalized), paths whose values have a word starting with it.
+     *
+     * @return result, for chaining
+     */
+    public Set<String> search(String text, Set<String> result) {
+        if (SimpleXMLSource.normalize(text).length() < GRAM_LENGTH) {
+            return getPathsWithWordPrefix(text, result);
+        }
+        return getPathsContaining(text, result);
+    }
+
+    /**
+     * Add the paths whose normalized value contains the normalized text.
+     *
+     * @return result, for chaining
+     */
+    public Set<String> getPathsContaining(String text, Set<String> result) {
+        String query = SimpleXMLSource.normalize(text);
+        if (query.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) { // too short for the grams; scan the values instead
+                for (int id = 0; id < normalizedValues.length; ++id) {
+                    String value = normalizedValues[id];
+                    if (value != null && value.contains(query)) {
+                        result.add(XPathIdTable.getPath(id));
+                    }
+                }
+                return result;
+            }
+            List<Postings> postingsList = new ArrayList<>();
+            for (int i = 0; i + GRAM_LENGTH <= query.length(); ++i) {
+                Postings postings = grams.get(query.substring(i, i + GRAM_LENGTH));
+                if (postings == null) {
+                    return result; // some gram doesn't occur anywhere
+                }
+                postingsList.add(postings);
+            }
+            postingsList.sort((a, b) -> Integer.compare(a.size, b.size)); // start with the rarest gram
+            Postings first = postingsList.get(0);
+            candidates: for (int i = 0; i < first.size; ++i) {
+                int id = first.ids[i];
+                for (int j = 1; j < postingsList.size(); ++j) {
+                    if (!postingsList.get(j).contains(id)) {
+                        continue candidates;
+                    }
+                }
+                if (normalizedValues[id].contains(query)) { // the grams can be in the wrong order
+                    result.add(XPathIdTable.getPath(id));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add the paths with a value that has a word starting with the normalized prefix.
+     *
+     * @return result, for chaining
+     */
+    public Set<String> getPathsWithWordPrefix(String prefix, Set<String> result) {
+        String query = SimpleXMLSource.normalize(prefix);
+        if (query.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            for (Postings postings : words.subMap(query, true, query + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < postings.size; ++i) {
+                    result.add(XPathIdTable.getPath(postings.ids[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the value of a path that is indexed, skipping the inheritance marker like SimpleXMLSource does.
+     */
+    private String getIndexedValue(String path) {
+        String value = file.getStringValue(path);
+        return value == null || CldrUtility.INHERITANCE_MARKER.equals(value) ? null : value;
+    }
+
+    private void setValue(int id, String value) {
+        if (id >= values.length) {
+            int length = Math.max(id + 1, XPathIdTable.size());
+            values = Arrays.copyOf(values, length);
+            normalizedValues = Arrays.copyOf(normalizedValues, length);
+        }
+        String oldValue = values[id];
+        if (oldValue == null ? value == null : oldValue.equals(value)) {
+            return;
+        }
+        if (oldValue != null) {
+            for (String gram : getGrams(normalizedValues[id])) {
+                Postings postings = grams.get(gram);
+                if (postings.remove(id) && postings.size == 0) {
+                    grams.remove(gram);
+                }
+            }
+            for (String word : getWords(oldValue)) {
+                Postings postings = words.get(word);
+                if (postings.remove(id) && postings.size == 0) {
+                    words.remove(word);
+                }
+            }
+        }
+        values[id] = value;
+        normalizedValues[id] = value == null ? null : SimpleXMLSource.normalize(value);
+        if (value != null) {
+            for (String gram : getGrams(normalizedValues[id])) {
+                grams.computeIfAbsent(gram, k -> new Postings()).add(id);
+            }
+            for (String word : getWords(value)) {
+                words.computeIfAbsent(word, k -> new Postings()).add(id);
+            }
+        }
+    }
+
+    /**
+     * The distinct trigrams of a normalized value.
+     */
+    private static Set<String> getGrams(String normalizedValue) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalizedValue.length(); ++i) {
+            result.add(normalizedValue.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    /**
+     * The distinct normalized words of a value. The words have to be found before normalizing, since that removes the spaces.
+     */
+    private static Set<String> getWords(String value) {
+        Set<String> result = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= value.length();) {
+            int cp = i < value.length() ? value.codePointAt(i) : -1;
+            if (cp >= 0 && WORD_CHARACTERS.contains(cp)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                String word = SimpleXMLSource.normalize(value.substring(start, i));
+                if (!word.isEmpty()) {
+                    result.add(word);
+                }
+                start = -1;
+            }
+            i += cp > 0xFFFF ? 2 : 1;
+        }
+        return result;
+    }
+
+    /**
+     * A sorted set of path ids.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            ++size;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            --size;
+            return true;
+        }
+    }
+}
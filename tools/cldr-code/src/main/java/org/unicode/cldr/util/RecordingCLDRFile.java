@@ -1,6 +1,13 @@
 package org.unicode.cldr.util;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import com.ibm.icu.util.Output;
 
 /**
  * Like CLDRFile, with an added feature for recording the paths for which
@@ -10,29 +17,66 @@ import java.util.HashSet;
  * which a given example depends. Before calling ExampleGenerator.getExampleHtml, TestExampleDependencies
  * calls clearRecordedPaths. After getting each example, TestExampleDependencies calls getRecordedPaths
  * to get the set of all paths in this file that were accessed to generate the example.
+ *
+ * TestCache uses it the same way to learn which paths each check result depends on. Since checks of different
+ * paths can run at the same time, the paths are recorded separately for each thread. For a resolving file,
+ * the path where a value was actually found (such as the target of an alias) is recorded too.
+ * Calls that look at many paths at once, like iterator(prefix) and getPathsWithValue, record their prefix
+ * instead, with getRecordedPrefixes; the empty prefix stands for all the paths. Reads of the file returned by
+ * getUnresolved are recorded along with those of this file.
  */
 public class RecordingCLDRFile extends CLDRFile {
-    private HashSet<String> recordedPaths = new HashSet<>();
+    private final ThreadLocal<HashSet<String>> recordedPaths;
+    private final ThreadLocal<HashSet<String>> recordedPrefixes;
 
     public RecordingCLDRFile(XMLSource dataSource) {
         super(dataSource);
+        recordedPaths = ThreadLocal.withInitial(HashSet::new);
+        recordedPrefixes = ThreadLocal.withInitial(HashSet::new);
     }
 
     public RecordingCLDRFile(XMLSource dataSource, XMLSource... resolvingParents) {
         super(dataSource, resolvingParents);
+        recordedPaths = ThreadLocal.withInitial(HashSet::new);
+        recordedPrefixes = ThreadLocal.withInitial(HashSet::new);
+    }
+
+    /**
+     * A file for the unresolved data, which records into the same sets as the resolved one
+     */
+    private RecordingCLDRFile(XMLSource dataSource, RecordingCLDRFile resolved) {
+        super(dataSource);
+        recordedPaths = resolved.recordedPaths;
+        recordedPrefixes = resolved.recordedPrefixes;
+    }
+
+    /**
+     * Make a RecordingCLDRFile with the same data as the given file, which can be resolved. Changes to the data of
+     * either file show up in both.
+     */
+    public static RecordingCLDRFile of(CLDRFile file) {
+        return new RecordingCLDRFile(file.dataSource);
     }
 
     public void clearRecordedPaths() {
-        recordedPaths.clear();
+        recordedPaths.get().clear();
+        recordedPrefixes.get().clear();
     }
 
     public HashSet<String> getRecordedPaths() {
-        return recordedPaths;
+        return recordedPaths.get();
+    }
+
+    public HashSet<String> getRecordedPrefixes() {
+        return recordedPrefixes.get();
     }
 
     @Override
     public String getStringValue(String xpath) {
         recordPath(xpath);
+        if (isResolved()) {
+            recordPathWhereFound(xpath);
+        }
         return super.getStringValue(xpath);
     }
 
@@ -48,7 +92,106 @@ public class RecordingCLDRFile extends CLDRFile {
         return super.getConstructedValue(xpath);
     }
 
+    @Override
+    public String getFullXPath(String xpath) {
+        recordPath(xpath);
+        return super.getFullXPath(xpath);
+    }
+
+    @Override
+    public String getBaileyValue(String xpath, Output<String> pathWhereFound, Output<String> localeWhereFound) {
+        recordPath(xpath);
+        if (pathWhereFound == null) {
+            pathWhereFound = new Output<>();
+        }
+        String result = super.getBaileyValue(xpath, pathWhereFound, localeWhereFound);
+        if (pathWhereFound.value != null) {
+            recordPath(pathWhereFound.value);
+        }
+        return result;
+    }
+
+    @Override
+    public String getSourceLocaleID(String distinguishedXPath, Status status) {
+        recordPath(distinguishedXPath);
+        return super.getSourceLocaleID(distinguishedXPath, status);
+    }
+
+    @Override
+    public String getSourceLocaleIdExtended(String distinguishedXPath, Status status, boolean skipInheritanceMarker) {
+        recordPath(distinguishedXPath);
+        return super.getSourceLocaleIdExtended(distinguishedXPath, status, skipInheritanceMarker);
+    }
+
+    /**
+     * Reads of the unresolved file are recorded here too, since checks look at it to see what the locale itself has.
+     */
+    @Override
+    public CLDRFile getUnresolved() {
+        if (!isResolved()) {
+            return this;
+        }
+        return new RecordingCLDRFile(dataSource.getUnresolving(), this);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        recordPrefix("");
+        return super.iterator();
+    }
+
+    @Override
+    public synchronized Iterator<String> iterator(String prefix) {
+        recordPrefix(prefix);
+        return super.iterator(prefix);
+    }
+
+    @Override
+    public Iterator<String> iterator(Matcher pathFilter) {
+        recordPrefix("");
+        return super.iterator(pathFilter);
+    }
+
+    @Override
+    public Iterator<String> iterator(String prefix, Comparator<String> comparator) {
+        recordPrefix(prefix);
+        return super.iterator(prefix, comparator);
+    }
+
+    @Override
+    public Set<String> getPathsWithValue(String valueToMatch, String pathPrefix, Matcher pathMatcher, Set<String> result) {
+        recordPrefix(pathPrefix);
+        return super.getPathsWithValue(valueToMatch, pathPrefix, pathMatcher, result);
+    }
+
+    @Override
+    public Collection<String> getExtraPaths() {
+        recordPrefix("");
+        return super.getExtraPaths();
+    }
+
+    @Override
+    public Collection<String> getExtraPaths(String prefix, Collection<String> toAddTo) {
+        recordPrefix(prefix);
+        return super.getExtraPaths(prefix, toAddTo);
+    }
+
     private void recordPath(String xpath) {
-        recordedPaths.add(xpath);
+        recordedPaths.get().add(xpath);
+    }
+
+    private void recordPrefix(String prefix) {
+        recordedPrefixes.get().add(prefix == null ? "" : prefix);
+    }
+
+    /**
+     * Record where the value of the path comes from, if that is another path
+     */
+    private void recordPathWhereFound(String xpath) {
+        Status status = new Status();
+        super.getSourceLocaleID(xpath, status);
+        if (status.pathWhereFound != null) {
+            recordPath(status.pathWhereFound);
+        }
     }
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -25,8 +26,11 @@ import com.ibm.icu.text.Transform;
 import com.ibm.icu.util.Output;
 
 /**
- * Lookup items according to a set of regex patterns. Returns the value according to the first pattern that matches. Not
- * thread-safe.
+ * Lookup items according to a set of regex patterns. Returns the value according to the first pattern that matches.
+ * <p>
+ * Loading (add, loadFromFile, ...) is not thread-safe. Once loaded, lookups (get, getAll) may be called concurrently
+ * without external synchronization: each thread matches with its own Matchers, and no per-lookup state is kept in the
+ * shared structure.
  *
  * @param <T>
  */
@@ -39,10 +43,12 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     private Transform<String, ? extends T> valueTransform;
     private Merger<T> valueMerger;
     private final boolean allowNull = false;
-    private static PathStarrer pathStarrer = new PathStarrer().setSubstitutionPattern("*");
+    // PathStarrer keeps per-call state, so each thread gets its own.
+    private static final ThreadLocal<PathStarrer> pathStarrer = ThreadLocal.withInitial(
+        () -> new PathStarrer().setSubstitutionPattern("*"));
 
     public enum LookupType {
-        STAR_PATTERN_LOOKUP, OPTIMIZED_DIRECTORY_PATTERN_LOOKUP, STANDARD
+        STAR_PATTERN_LOOKUP, OPTIMIZED_DIRECTORY_PATTERN_LOOKUP, PREFIX_TRIE_LOOKUP, STANDARD
     }
 
     private LookupType _lookupType;
@@ -67,6 +73,16 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
      * However regex's no longer need to follow any specific format (Slower but more versatile).
      */
 
+    /*
+     * PREFIX_TRIE_LOOKUP
+     *
+     * The literal prefix of each anchored regex (the text after the ^, up to the first regex construct) is compiled
+     * into a character trie. A lookup walks the trie once along the source, so only the rules whose literal prefix
+     * is a prefix of the source are ever run, in the order they were added; the first one that matches wins.
+     * The cost of a lookup thus depends on the length of the source and the number of rules sharing its prefix,
+     * not on the total number of rules. Any regex can be added: one without a usable prefix is simply always tried.
+     */
+
     public RegexLookup(LookupType type) {
         _lookupType = type;
         switch (type) {
@@ -78,6 +94,9 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             //   RTEntries = new RegexTree<T>();
             storage = new RegexTree<>();
             break;
+        case PREFIX_TRIE_LOOKUP:
+            storage = new PrefixTrie<>();
+            break;
         default:
             MEntries = new LinkedHashMap<>();
             break;
@@ -111,9 +130,10 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 
     public static class RegexFinder extends Finder {
         /**
-         * The matcher used by this RegexFinder
+         * The matchers used by this RegexFinder, one per thread, so that lookups from
+         * different threads never contend for (or corrupt) a shared Matcher.
          */
-        private final Matcher matcher;
+        private final ThreadLocal<Matcher> matcher;
 
         /**
          * The Pattern used by this RegexFinder
@@ -122,7 +142,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 
         public RegexFinder(String pattern) {
             this.pattern = Pattern.compile(pattern, Pattern.COMMENTS);
-            matcher = this.pattern.matcher("");
+            matcher = ThreadLocal.withInitial(() -> this.pattern.matcher(""));
         }
 
         /**
@@ -131,32 +151,32 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
          */
         @Override
         public boolean matches(String item, Object context, Info info) {
-            synchronized (matcher) {
-                try {
-                    boolean result = matcher.reset(item).matches();
-                    extractInfo(info, result);
-                    return result;
-                } catch (StringIndexOutOfBoundsException e) {
-                    // We don't know what causes this error (cldrbug 5051) so
-                    // make the exception message more detailed.
-                    throw new IllegalArgumentException("Matching error caused by pattern: ["
-                        + matcher.toString() + "] on text: [" + item + "]", e);
-                }
+            Matcher m = matcher.get();
+            try {
+                boolean result = m.reset(item).matches();
+                extractInfo(m, info, result);
+                return result;
+            } catch (StringIndexOutOfBoundsException e) {
+                // We don't know what causes this error (cldrbug 5051) so
+                // make the exception message more detailed.
+                throw new IllegalArgumentException("Matching error caused by pattern: ["
+                    + m.toString() + "] on text: [" + item + "]", e);
             }
         }
 
         /**
          * Extract match related information into  the info field, if result is true, and info
          * is not null.
+         * @param m
          * @param info
          * @param result
          */
-        private void extractInfo(Info info, boolean result) {
+        private void extractInfo(Matcher m, Info info, boolean result) {
             if (result && info != null) {
-                int limit = matcher.groupCount() + 1;
+                int limit = m.groupCount() + 1;
                 String[] value = new String[limit];
                 for (int i = 0; i < limit; ++i) {
-                    value[i] = matcher.group(i);
+                    value[i] = m.group(i);
                 }
                 info.value = value;
             }
@@ -168,23 +188,22 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
          */
         @Override
         public boolean find(String item, Object context, Info info) {
-            synchronized (matcher) {
-                try {
-                    boolean result = matcher.reset(item).find();
-                    extractInfo(info, result);
-                    return result;
-                } catch (StringIndexOutOfBoundsException e) {
-                    // We don't know what causes this error (cldrbug 5051) so
-                    // make the exception message more detailed.
-                    throw new IllegalArgumentException("Matching error caused by pattern: ["
-                        + matcher.toString() + "] on text: [" + item + "]", e);
-                }
+            Matcher m = matcher.get();
+            try {
+                boolean result = m.reset(item).find();
+                extractInfo(m, info, result);
+                return result;
+            } catch (StringIndexOutOfBoundsException e) {
+                // We don't know what causes this error (cldrbug 5051) so
+                // make the exception message more detailed.
+                throw new IllegalArgumentException("Matching error caused by pattern: ["
+                    + m.toString() + "] on text: [" + item + "]", e);
             }
         }
 
         @Override
         public String toString() {
-            // Use pattern here, to avoid having to synchronize on matcher
+            // Use pattern here, to avoid touching a matcher
             return pattern.pattern();
         }
 
@@ -204,9 +223,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 
         @Override
         public int getFailPoint(String source) {
-            synchronized (matcher) {
-                return RegexUtilities.findMismatch(matcher, source);
-            }
+            return RegexUtilities.findMismatch(matcher.get(), source);
         }
     }
 
@@ -261,24 +278,14 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         @Override
         public List<T> getAll(String pattern, Object context, List<Finder> matcherList, Output<String[]> firstInfo) {
             List<RTNode> list = new ArrayList<>();
+            Map<RTNode, String[]> infos = new IdentityHashMap<>();
             List<T> retList = new ArrayList<>();
 
-            root.addToList(pattern, context, list);
+            root.addToList(pattern, context, list, infos);
             Collections.sort(list, rankComparator);
 
-            boolean isFirst = true;
             if (firstInfo != null && !list.isEmpty()) {
-                RTNode firstNode = list.get(0);
-                if (firstNode._info != null) {
-                    firstInfo.value = firstNode._info.value;
-                }
-            }
-
-            for (RTNode n : list) {
-                if (isFirst) {
-                    firstInfo.value = n._info.value;
-                    isFirst = false;
-                }
+                firstInfo.value = infos.get(list.get(0));
             }
 
             for (RTNode n : list) {
@@ -341,7 +348,6 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 //                _finder = new RegexFinder(key);
 //                _val = val;
 //                _rank = -1;
-                _info = new Info();
             }
 
             public void put(RTNode node) {
@@ -467,36 +473,22 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             }
 
             //traverse tree to get list of all values who's key matcher matches pattern
-            public void addToList(String pattern, Object context, List<RTNode> list) {
+            //the match arguments go into infos, rather than into the (shared) nodes, so that concurrent lookups are safe
+            public void addToList(String pattern, Object context, List<RTNode> list, Map<RTNode, String[]> infos) {
                 if (_children.size() == 0) {
                     return;
                 } else {
                     Info firstInfo = new Info();
                     for (RTNode child : _children) {
-                        boolean found;
-                        synchronized (child._finder) {
-                            found = child._finder.find(pattern, context, firstInfo);
-                        }
-
                         //check if child matches pattern
-                        if (found) {
+                        if (child._finder.find(pattern, context, firstInfo)) {
                             if (child._rank != -1) {
                                 list.add(child);
-                            }
-                            // if this node's info value is unset, set it to the result of the
-                            // lookup
-//                            if (child._info!=null && child._info.value==null) {
-                            if (child._info != null) {
-                                // set the value to the result of the last find
-                                child._info.value = firstInfo.value;
-                            } else {
-                                // for some reason, child._info is null, so simply initialize it.
-                                child._info = new Info();
                                 // set the value to the result of the last find
-                                child._info.value = firstInfo.value;
+                                infos.put(child, firstInfo.value);
                             }
                             //check if child is the parent of node then enter that node
-                            child.addToList(pattern, context, list);
+                            child.addToList(pattern, context, list, infos);
                         }
                     }
                 }
@@ -569,7 +561,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         @Override
         public void put(Finder pattern, T value) {
             //System.out.println("pattern.toString() is => "+pattern.toString());
-            String starPattern = pathStarrer.transform2(pattern.toString().replaceAll("\\(\\[\\^\"\\]\\*\\)", "*"));
+            String starPattern = pathStarrer.get().transform2(pattern.toString().replaceAll("\\(\\[\\^\"\\]\\*\\)", "*"));
             //System.out.println("Putting => "+starPattern);
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
@@ -583,7 +575,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 
         @Override
         public T get(Finder finder) {
-            String starPattern = pathStarrer.transform2(finder.toString());
+            String starPattern = pathStarrer.get().transform2(finder.toString());
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
                 return null;
@@ -601,7 +593,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             List<SPNode> list = new ArrayList<>();
             List<T> retList = new ArrayList<>();
 
-            String starPattern = pathStarrer.transform2(pattern);
+            String starPattern = pathStarrer.get().transform2(pattern);
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
                 return retList;
@@ -677,7 +669,221 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     }
 
     /**
-     * The basic class of an information node, featuring a Finder, a value and an Info
+     * Storage that indexes each rule by the literal prefix of its regex, in a character trie.
+     * A lookup walks the trie along the source once, collecting the rules whose prefix matches,
+     * then runs just those rules in insertion order.
+     */
+    private static class PrefixTrie<T> implements StorageInterfaceBase<T> {
+        private final PTNode root = new PTNode();
+        // in insertion order; the index is the rank
+        private final List<PTEntry> entries = new ArrayList<>();
+        private final Map<Finder, PTEntry> finderToEntry = new HashMap<>();
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public void put(Finder pattern, T value) {
+            PTEntry entry = new PTEntry(pattern, value, entries.size());
+            entries.add(entry);
+            finderToEntry.put(pattern, entry);
+            PTNode node = root;
+            // only a RegexFinder is known to have a regex as its toString()
+            String prefix = pattern instanceof RegexFinder ? getLiteralPrefix(pattern.toString()) : "";
+            for (int i = 0; i < prefix.length(); ++i) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), x -> new PTNode());
+            }
+            node.ranks.add(entry.rank);
+        }
+
+        @Override
+        public T get(Finder finder) {
+            PTEntry entry = finderToEntry.get(finder);
+            return entry == null ? null : entry._val;
+        }
+
+        /**
+         * Get the ranks of all the rules whose literal prefix is a prefix of source, in rank order.
+         */
+        private List<Integer> getCandidates(String source) {
+            List<Integer> result = new ArrayList<>(root.ranks);
+            PTNode node = root;
+            boolean needsSort = false;
+            for (int i = 0; i < source.length(); ++i) {
+                node = node.children.get(source.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (!node.ranks.isEmpty()) {
+                    needsSort |= !result.isEmpty();
+                    result.addAll(node.ranks);
+                }
+            }
+            if (needsSort) {
+                Collections.sort(result);
+            }
+            return result;
+        }
+
+        @Override
+        public List<T> getAll(String pattern, Object context, List<Finder> matcherList, Output<String[]> firstInfo) {
+            List<T> retList = new ArrayList<>();
+            for (int rank : getCandidates(pattern)) {
+                PTEntry entry = entries.get(rank);
+                Info info = new Info();
+                if (entry._finder.find(pattern, context, info)) {
+                    if (firstInfo != null && retList.isEmpty()) {
+                        firstInfo.value = info.value;
+                    }
+                    retList.add(entry._val);
+                    if (matcherList != null) {
+                        matcherList.add(entry._finder);
+                    }
+                }
+            }
+            return retList;
+        }
+
+        @Override
+        public T get(String pattern, Object context, Output<String[]> arguments, Output<Finder> matcherFound) {
+            // unlike getAll, we can stop at the first match
+            for (int rank : getCandidates(pattern)) {
+                PTEntry entry = entries.get(rank);
+                Info info = new Info();
+                if (entry._finder.find(pattern, context, info)) {
+                    if (arguments != null) {
+                        arguments.value = info.value;
+                    }
+                    if (matcherFound != null) {
+                        matcherFound.value = entry._finder;
+                    }
+                    return entry._val;
+                }
+            }
+            if (arguments != null) {
+                arguments.value = null;
+            }
+            if (matcherFound != null) {
+                matcherFound.value = null;
+            }
+            return null;
+        }
+
+        @Override
+        public Set<Entry<Finder, T>> entrySet() {
+            LinkedHashMap<Finder, T> ret = new LinkedHashMap<>();
+            for (PTEntry entry : entries) {
+                ret.put(entry._finder, entry._val);
+            }
+            return ret.entrySet();
+        }
+
+        /**
+         * Returns the literal text that any match of the regex must start with, if the regex is anchored with ^;
+         * otherwise "". Stops conservatively at the first construct that is not a plain (or escaped) character.
+         * The regex is in Pattern.COMMENTS form, so unescaped whitespace is skipped and # starts a comment.
+         */
+        static String getLiteralPrefix(String regex) {
+            if (!regex.startsWith("^") || hasTopLevelAlternation(regex)) {
+                return "";
+            }
+            StringBuilder result = new StringBuilder();
+            for (int i = 1; i < regex.length(); ++i) {
+                char ch = regex.charAt(i);
+                switch (ch) {
+                case '\\':
+                    if (i + 1 >= regex.length()) {
+                        return result.toString();
+                    }
+                    char next = regex.charAt(i + 1);
+                    if (Character.isLetterOrDigit(next)) {
+                        // \d, \Q, back references, ...
+                        return result.toString();
+                    }
+                    result.append(next);
+                    ++i;
+                    break;
+                case '?':
+                case '*':
+                case '{':
+                    // the last character is optional
+                    if (result.length() > 0) {
+                        result.setLength(result.length() - 1);
+                    }
+                    return result.toString();
+                case '.':
+                case '[':
+                case ']':
+                case '(':
+                case ')':
+                case '+':
+                case '|':
+                case '^':
+                case '$':
+                case '#':
+                    return result.toString();
+                default:
+                    if (!Character.isWhitespace(ch)) {
+                        result.append(ch);
+                    }
+                    break;
+                }
+            }
+            return result.toString();
+        }
+
+        private static boolean hasTopLevelAlternation(String regex) {
+            int depth = 0;
+            boolean inClass = false;
+            for (int i = 0; i < regex.length(); ++i) {
+                char ch = regex.charAt(i);
+                if (ch == '\\') {
+                    ++i;
+                } else if (inClass) {
+                    inClass = ch != ']';
+                } else if (ch == '[') {
+                    inClass = true;
+                } else if (ch == '(') {
+                    ++depth;
+                } else if (ch == ')') {
+                    --depth;
+                } else if (ch == '|' && depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private class PTEntry extends NodeBase<T> {
+            final int rank;
+
+            public PTEntry(Finder finder, T val, int rank) {
+                super(finder, val);
+                this.rank = rank;
+            }
+
+            @Override
+            public String toString() {
+                return this._finder.toString();
+            }
+        }
+
+        private static class PTNode {
+            final Map<Character, PTNode> children = new HashMap<>();
+            final List<Integer> ranks = new ArrayList<>();
+        }
+
+        @Override
+        public String toString() {
+            return entries.toString();
+        }
+    }
+
+    /**
+     * The basic class of an information node, featuring a Finder and a value. Match results are not stored in the
+     * node, since nodes are shared between threads.
      *
      * @author ribnitz
      *
@@ -686,7 +892,6 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     private static class NodeBase<T> {
         Finder _finder;
         T _val;
-        Info _info = new Info();
 
         public NodeBase(Finder finder, T value) {
             this._finder = finder;
@@ -782,15 +987,14 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : SPEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
-        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP) {
+        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP
+            || _lookupType == RegexLookup.LookupType.PREFIX_TRIE_LOOKUP) {
             //      T ret = RTEntries.get(source, context, arguments, matcherFound);
             T ret = storage.get(source, context, arguments, matcherFound);
             if (ret != null) {
@@ -801,35 +1005,31 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : RTEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
         } else {
             //slow but versatile implementation
             for (Map.Entry<Finder, T> entry : MEntries.entrySet()) {
                 Finder matcher = entry.getKey();
-                synchronized (matcher) {
-                    Info firstInfo = new Info();
-                    if (matcher.find(source, context, firstInfo)) {
-                        if (arguments != null) {
-//                            arguments.value = matcher.getInfo();
-                            arguments.value = firstInfo.value;
-                        }
-                        if (matcherFound != null) {
-                            matcherFound.value = matcher;
-                        }
-                        return entry.getValue();
-                    } else if (failures != null) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
+                Info firstInfo = new Info();
+                if (matcher.find(source, context, firstInfo)) {
+                    if (arguments != null) {
+//                        arguments.value = matcher.getInfo();
+                        arguments.value = firstInfo.value;
                     }
+                    if (matcherFound != null) {
+                        matcherFound.value = matcher;
+                    }
+                    return entry.getValue();
+                } else if (failures != null) {
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
         }
@@ -866,16 +1066,15 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : SPEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
             return null;
-        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP) {
+        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP
+            || _lookupType == RegexLookup.LookupType.PREFIX_TRIE_LOOKUP) {
             Output<String[]> info = new Output<>();
 //            List<T> matches = RTEntries.getAll(source, context, matcherList,info);
             List<T> matches = storage.getAll(source, context, matcherList, info);
@@ -887,12 +1086,10 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : RTEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
             return null;
@@ -933,7 +1130,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 //            entrySet = SPEntries.entrySet();
             entrySet = storage.entrySet();
             break;
-        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fall through
+        case PREFIX_TRIE_LOOKUP:
 //            entrySet = RTEntries.entrySet();
             entrySet = storage.entrySet();
             break;
@@ -1095,7 +1293,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         T old;
         switch (_lookupType) {
         case STAR_PATTERN_LOOKUP: // fallthrough
-        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fallthrough
+        case PREFIX_TRIE_LOOKUP:
             old = storage.get(pattern);
 //            old = SPEntries.get(pattern);
             break;
@@ -1111,7 +1310,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         if (old == null) {
             switch (_lookupType) {
             case STAR_PATTERN_LOOKUP: // fallthrough
-            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fallthrough
+            case PREFIX_TRIE_LOOKUP:
                 storage.put(pattern, target);
 //                SPEntries.put(pattern, target);
                 break;
@@ -1136,7 +1336,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     public Iterator<Map.Entry<Finder, T>> iterator() {
         switch (_lookupType) {
         case STAR_PATTERN_LOOKUP: // fall through
-        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fall through
+        case PREFIX_TRIE_LOOKUP:
 //            return Collections.unmodifiableCollection(SPEntries.entrySet()).iterator();
             return Collections.unmodifiableCollection(storage.entrySet()).iterator();
 //        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
@@ -1175,7 +1376,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     public int size() {
         switch (_lookupType) {
         case STAR_PATTERN_LOOKUP: // fall through
-        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fall through
+        case PREFIX_TRIE_LOOKUP:
 //            return SPEntries.size();
             return storage.size();
 //        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
@@ -1,5 +1,8 @@
 package org.unicode.cldr.util;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -45,8 +48,7 @@ import com.ibm.icu.util.ULocale;
  *     { 222, new VoterInfo(Organization.adobe, Level.expert, &quot;A. Aldus&quot;) },
  *     { 111, new VoterInfo(Organization.ibm, Level.street, &quot;J. Henry&quot;) }, }));
  *
- * // you can create a resolver and keep it around. It isn't thread-safe, so either have a separate one per thread (they
- * // are small), or synchronize.
+ * // you can create a resolver and keep it around. Its methods are synchronized, so it can be shared between threads.
  * VoteResolver resolver = new VoteResolver();
  *
  * // For any particular base path, set the values
@@ -63,9 +65,19 @@ import com.ibm.icu.util.ULocale;
  * winner = resolver.getWinningValue();
  * status = resolver.getWinningStatus();
  * conflicts = resolver.getConflictedOrganizations();
+ *
+ * // A resolver that is kept for one base path can then follow the votes, one at a time: only the voter's
+ * // organization is recounted, and the results are resolved again when they are next asked for.
+ * resolver.setVote(value2, voter1, null, date); // voter1 changes their vote
+ * resolver.withdraw(voter3);
+ * winner = resolver.getWinningValue();
  * </pre>
+ *
+ * A resolver is Serializable (if its values are), so that one that is kept can also be cached outside the process;
+ * only the inputs (baseline, bailey, locale, path, and votes) are written, and the votes are added again when it is read.
  */
-public class VoteResolver<T> {
+public class VoteResolver<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
     private static final boolean DEBUG = false;
 
     /**
@@ -374,6 +386,27 @@ public class VoteResolver<T> {
         }
     }
 
+    /**
+     * One voter's vote, as added, so that it can be withdrawn or replayed.
+     */
+    private static final class Vote<T> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final T value;
+        private final int voter;
+        private final int votes; // after checking against the voter's level
+        private final long time;
+        private final boolean locking; // was it added with LOCKING_VOTES
+
+        Vote(T value, int voter, int votes, long time, boolean locking) {
+            this.value = value;
+            this.voter = voter;
+            this.votes = votes;
+            this.time = time;
+            this.locking = locking;
+        }
+    }
+
     /**
      * Internal class for getting from an organization to its vote.
      */
@@ -381,6 +414,8 @@ public class VoteResolver<T> {
         private final Map<Organization, MaxCounter<T>> orgToVotes = new EnumMap<>(Organization.class);
         private final Counter<T> totalVotes = new Counter<>();
         private final Map<Organization, Integer> orgToMax = new EnumMap<>(Organization.class);
+        // the votes of each organization in the order they were added, to recount one organization when a vote is withdrawn
+        private final Map<Organization, List<Vote<T>>> orgToVoteList = new EnumMap<>(Organization.class);
         private final Counter<T> totals = new Counter<>(true);
         private Map<String, Long> nameTime = new LinkedHashMap<>();
         // map an organization to what it voted for.
@@ -403,6 +438,7 @@ public class VoteResolver<T> {
             }
             orgToAdd.clear();
             orgToMax.clear();
+            orgToVoteList.clear();
             totalVotes.clear();
             baileyValue = null;
             baileySet = false;
@@ -435,25 +471,85 @@ public class VoteResolver<T> {
                 throw new UnknownVoterException(voter);
             }
             Level level = info.getLevel();
+            final boolean locking = withVotes != null && withVotes == Level.LOCKING_VOTES;
             if (withVotes == null || !level.canVoteWithCount(withVotes)) {
                 withVotes = level.getVotes();
             }
-            addInternal(value, info, withVotes, date); // do the add
+            addInternal(new Vote<>(value, voter, withVotes, date.getTime(), locking), info); // do the add
+        }
+
+        /**
+         * Remove the votes of one voter, and recount the voter's organization from its remaining votes.
+         *
+         * @param voter
+         * @return the votes that were removed, in the order they were added
+         */
+        public List<Vote<T>> withdraw(int voter) {
+            final VoterInfo info = getVoterToInfo().get(voter);
+            if (info == null) {
+                throw new UnknownVoterException(voter);
+            }
+            Organization organization = info.getOrganization();
+            List<Vote<T>> votes = orgToVoteList.get(organization);
+            List<Vote<T>> removed = new ArrayList<>();
+            if (votes == null) {
+                return removed;
+            }
+            for (Iterator<Vote<T>> it = votes.iterator(); it.hasNext();) {
+                Vote<T> vote = it.next();
+                if (vote.voter == voter) {
+                    it.remove();
+                    removed.add(vote);
+                }
+            }
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            for (Vote<T> vote : removed) {
+                totalVotes.add(vote.value, -vote.votes);
+                if (totalVotes.get(vote.value) == 0) {
+                    totalVotes.remove(vote.value);
+                }
+            }
+            nameTime.remove(info.getName());
+
+            // Recount the organization. MaxCounter only keeps the maximum, so it can't just subtract.
+            MaxCounter<T> counter = orgToVotes.get(organization);
+            counter.clear();
+            orgToMax.remove(organization);
+            orgToAdd.remove(organization);
+            for (Vote<T> vote : votes) {
+                counter.add(vote.value, vote.votes, vote.time);
+                addToMax(organization, vote.votes);
+            }
+            return removed;
+        }
+
+        /**
+         * All the votes, by organization, each in the order they were added.
+         */
+        private List<Vote<T>> getVotes() {
+            List<Vote<T>> result = new ArrayList<>();
+            for (List<Vote<T>> votes : orgToVoteList.values()) {
+                result.addAll(votes);
+            }
+            return result;
         }
 
         /**
          * Called by add(T,int,Integer) to actually add a value.
          *
-         * @param value
+         * @param vote the vote, with the number of votes already checked against the voter's level
          * @param info
-         * @param votes
-         * @param date
          * @see #add(Object, int, Integer)
          */
-        private void addInternal(T value, final VoterInfo info, final int votes, Date time) {
+        private void addInternal(final Vote<T> vote, final VoterInfo info) {
             if (baileySet == false) {
                 throw new IllegalArgumentException("setBaileyValue must be called before add");
             }
+            final T value = vote.value;
+            final int votes = vote.votes;
+            final Date time = new Date(vote.time);
             totalVotes.add(value, votes, time.getTime());
             nameTime.put(info.getName(), time.getTime());
             if (DEBUG) {
@@ -464,6 +560,7 @@ public class VoteResolver<T> {
             }
             Organization organization = info.getOrganization();
             orgToVotes.get(organization).add(value, votes, time.getTime());
+            orgToVoteList.computeIfAbsent(organization, k -> new ArrayList<>()).add(vote);
             if (DEBUG) {
                 System.out.println("Adding now Info: " + organization.displayName + info.getName() + " is adding: " + votes + value
                     + new Timestamp(time.getTime()).toString());
@@ -473,8 +570,14 @@ public class VoteResolver<T> {
                 System.out.println("addInternal: " + organization.displayName + " : " + orgToVotes.get(organization).toString());
             }
 
-            // add the new votes to orgToMax, if they are greater that what was there
-            Integer max = orgToMax.get(info.getOrganization());
+            addToMax(organization, votes);
+        }
+
+        /**
+         * Add the new votes to orgToMax, if they are greater that what was there
+         */
+        private void addToMax(Organization organization, int votes) {
+            Integer max = orgToMax.get(organization);
             if (max == null || max < votes) {
                 orgToMax.put(organization, votes);
             }
@@ -667,6 +770,7 @@ public class VoteResolver<T> {
     private Status baselineStatus;
 
     private boolean resolved;
+    private boolean frozen; // a frozenCopy, which can't be changed
     private boolean valueIsLocked;
     private int requiredVotes = 0;
     private SupplementalDataInfo supplementalDataInfo = SupplementalDataInfo.getInstance();
@@ -700,16 +804,17 @@ public class VoteResolver<T> {
      * @param baselineValue the baseline value
      * @param baselineStatus the baseline status
      */
-    public void setBaseline(T baselineValue, Status baselineStatus) {
+    public synchronized void setBaseline(T baselineValue, Status baselineStatus) {
+        checkNotFrozen();
         this.baselineValue = baselineValue;
         this.baselineStatus = baselineValue == null ? Status.missing : baselineStatus;
     }
 
-    public T getBaselineValue() {
+    public synchronized T getBaselineValue() {
         return baselineValue;
     }
 
-    public Status getBaselineStatus() {
+    public synchronized Status getBaselineStatus() {
         return baselineStatus;
     }
 
@@ -721,7 +826,8 @@ public class VoteResolver<T> {
      * @param locale the CLDRLocale
      * @param pathHeader the PathHeader
      */
-    public void setLocale(CLDRLocale locale, PathHeader pathHeader) {
+    public synchronized void setLocale(CLDRLocale locale, PathHeader pathHeader) {
+        checkNotFrozen();
         this.locale = locale;
         this.pathHeader = pathHeader;
     }
@@ -731,7 +837,7 @@ public class VoteResolver<T> {
      *
      * @return the number of votes (as of this writing: usually 4, 8 for established locales)
      */
-    public int getRequiredVotes() {
+    public synchronized int getRequiredVotes() {
         if (requiredVotes == 0) {
             int preliminaryRequiredVotes = supplementalDataInfo.getRequiredVotes(locale, pathHeader);
             if (preliminaryRequiredVotes == HIGH_BAR && baselineStatus != Status.approved) {
@@ -747,7 +853,8 @@ public class VoteResolver<T> {
      * Call this method first, for a new base path. You'll then call add for each value
      * associated with that base path.
      */
-    public void clear() {
+    public synchronized void clear() {
+        checkNotFrozen();
         baselineValue = null;
         baselineStatus = Status.missing;
         requiredVotes = 0;
@@ -757,6 +864,7 @@ public class VoteResolver<T> {
         organizationToValueAndVote.clear();
         resolved = valueIsLocked = false;
         values.clear();
+        unvotedValues.clear();
 
         // TODO: clear these out between reuse
         // Are there other values that should be cleared?
@@ -776,7 +884,7 @@ public class VoteResolver<T> {
      * Called by STFactory.PerLocaleData.getResolverInternal in the special
      * circumstance where getWinningValue has returned INHERITANCE_MARKER.
      */
-    public T getBaileyValue() {
+    public synchronized T getBaileyValue() {
         if (organizationToValueAndVote == null
                 || organizationToValueAndVote.baileySet == false) {
             throw new IllegalArgumentException("setBaileyValue must be called before getBaileyValue");
@@ -789,7 +897,11 @@ public class VoteResolver<T> {
      * This value is used in handling any {@link CldrUtility.INHERITANCE_MARKER}.
      * This value must be set <i>before</i> adding values. Usually by calling CLDRFile.getBaileyValue().
      */
-    public void setBaileyValue(T baileyValue) {
+    public synchronized void setBaileyValue(T baileyValue) {
+        checkNotFrozen();
+        if (organizationToValueAndVote.baileySet && !Objects.equal(organizationToValueAndVote.baileyValue, baileyValue)) {
+            resolved = false; // for a resolver that is kept: resolve again with the new value
+        }
         organizationToValueAndVote.baileySet = true;
         organizationToValueAndVote.baileyValue = baileyValue;
     }
@@ -804,7 +916,8 @@ public class VoteResolver<T> {
      *
      * Called by getResolverInternal
      */
-    public void add(T value, int voter, Integer withVotes, Date date) {
+    public synchronized void add(T value, int voter, Integer withVotes, Date date) {
+        checkNotFrozen();
         if (resolved) {
             throw new IllegalArgumentException("Must be called after clear, and before any getters.");
         }
@@ -824,7 +937,8 @@ public class VoteResolver<T> {
      *
      * Called only for TestUtilities, not used in Survey Tool.
      */
-    public void add(T value, int voter, Integer withVotes) {
+    public synchronized void add(T value, int voter, Integer withVotes) {
+        checkNotFrozen();
         if (resolved) {
             throw new IllegalArgumentException("Must be called after clear, and before any getters.");
         }
@@ -846,7 +960,8 @@ public class VoteResolver<T> {
      *
      * Called by ConsoleCheckCLDR and TestUtilities; not used in SurveyTool.
      */
-    public void add(T value, int voter) {
+    public synchronized void add(T value, int voter) {
+        checkNotFrozen();
         Date date = new Date(++maxcounter);
         add(value, voter, null, date);
     }
@@ -859,15 +974,84 @@ public class VoteResolver<T> {
      *
      * Called by getResolverInternal for the baseline (trunk) value; also called for ConsoleCheckCLDR.
      */
-    public void add(T value) {
+    public synchronized void add(T value) {
+        checkNotFrozen();
         if (resolved) {
             throw new IllegalArgumentException("Must be called after clear, and before any getters.");
         }
         values.add(value);
+        unvotedValues.add(value);
+    }
+
+    /**
+     * Set the vote of one voter, replacing any earlier vote by the same voter, or withdraw it if the value is null.
+     * Unlike add, this can be called at any time, including after the getters: only the voter's organization is
+     * recounted, and the votes are resolved again by the next getter. That way a resolver that is kept for a path
+     * stays current as the votes come in, without clear() and adding all of them again.
+     *
+     * @param value the value voted for, or null to withdraw the vote
+     * @param voter
+     * @param withVotes override to lower the user's voting permission. May be null for default.
+     * @param date
+     */
+    public synchronized void setVote(T value, int voter, Integer withVotes, Date date) {
+        checkNotFrozen();
+        withdraw(voter);
+        if (value != null) {
+            resolved = false;
+            add(value, voter, withVotes, date);
+        }
+    }
+
+    /**
+     * Withdraw the vote of one voter, if the voter had voted. Like setVote, this can be called at any time.
+     *
+     * @param voter
+     * @return true if the voter had voted
+     */
+    public synchronized boolean withdraw(int voter) {
+        checkNotFrozen();
+        List<Vote<T>> removed = organizationToValueAndVote.withdraw(voter);
+        if (removed.isEmpty()) {
+            return false;
+        }
+        resolved = false;
+        boolean lockingRemoved = false;
+        for (Vote<T> vote : removed) {
+            if (!unvotedValues.contains(vote.value) && !organizationToValueAndVote.totalVotes.containsKey(vote.value)) {
+                values.remove(vote.value);
+            }
+            lockingRemoved |= vote.locking;
+        }
+        if (lockingRemoved) {
+            valueIsLocked = false;
+            for (Vote<T> vote : organizationToValueAndVote.getVotes()) {
+                valueIsLocked |= vote.locking;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a vote that was already checked against the voter's level, as when reading a serialized resolver.
+     */
+    private void addVote(Vote<T> vote) {
+        final VoterInfo info = getVoterToInfo().get(vote.voter);
+        if (info == null) {
+            throw new UnknownVoterException(vote.voter);
+        }
+        organizationToValueAndVote.addInternal(vote, info);
+        values.add(vote.value);
+        valueIsLocked |= vote.locking;
     }
 
     private Set<T> values = new TreeSet<>(objectCollator);
 
+    /**
+     * The values added without a voter, with add(value); withdrawing votes doesn't remove them from values.
+     */
+    private Set<T> unvotedValues = new TreeSet<>(objectCollator);
+
     private final Comparator<T> votesThenUcaCollator = new Comparator<T>() {
 
         /**
@@ -1392,7 +1576,7 @@ public class VoteResolver<T> {
      *
      * @return
      */
-    public boolean isDisputed() {
+    public synchronized boolean isDisputed() {
         if (!resolved) {
             resolveVotes();
         }
@@ -1406,7 +1590,7 @@ public class VoteResolver<T> {
         return false;
     }
 
-    public Status getWinningStatus() {
+    public synchronized Status getWinningStatus() {
         if (!resolved) {
             resolveVotes();
         }
@@ -1445,25 +1629,25 @@ public class VoteResolver<T> {
      *
      * @return
      */
-    public T getWinningValue() {
+    public synchronized T getWinningValue() {
         if (!resolved) {
             resolveVotes();
         }
         return winningValue;
     }
 
-    public List<T> getValuesWithSameVotes() {
+    public synchronized List<T> getValuesWithSameVotes() {
         if (!resolved) {
             resolveVotes();
         }
         return new ArrayList<>(valuesWithSameVotes);
     }
 
-    public EnumSet<Organization> getConflictedOrganizations() {
+    public synchronized EnumSet<Organization> getConflictedOrganizations() {
         if (!resolved) {
             resolveVotes();
         }
-        return conflictedOrganizations;
+        return EnumSet.copyOf(conflictedOrganizations);
     }
 
     /**
@@ -1472,16 +1656,16 @@ public class VoteResolver<T> {
      * @param org
      * @return
      */
-    public T getOrgVote(Organization org) {
+    public synchronized T getOrgVote(Organization org) {
         return organizationToValueAndVote.getOrgVote(org);
     }
 
-    public Map<T, Long> getOrgToVotes(Organization org) {
+    public synchronized Map<T, Long> getOrgToVotes(Organization org) {
         return organizationToValueAndVote.getOrgToVotes(org);
     }
 
-    public Map<String, Long> getNameTime() {
-        return organizationToValueAndVote.getNameTime();
+    public synchronized Map<String, Long> getNameTime() {
+        return new LinkedHashMap<>(organizationToValueAndVote.getNameTime());
     }
 
     /**
@@ -1492,7 +1676,7 @@ public class VoteResolver<T> {
      * actually used by the client.
      */
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return "{"
             + "bailey: " + (organizationToValueAndVote.baileySet ? ("“" + organizationToValueAndVote.baileyValue + "” ") : "none ")
             + "baseline: {" + baselineValue + ", " + baselineStatus + "}, "
@@ -1832,7 +2016,7 @@ public class VoteResolver<T> {
     /*
      * TODO: either delete this or explain why it's needed
      */
-    public int size() {
+    public synchronized int size() {
         return values.size();
     }
 
@@ -1843,7 +2027,7 @@ public class VoteResolver<T> {
      *
      * @return the map
      */
-    public Map<T, Long> getResolvedVoteCounts() {
+    public synchronized Map<T, Long> getResolvedVoteCounts() {
         if (!resolved) {
             resolveVotes();
         }
@@ -1868,7 +2052,7 @@ public class VoteResolver<T> {
         return result;
     }
 
-    public VoteStatus getStatusForOrganization(Organization orgOfUser) {
+    public synchronized VoteStatus getStatusForOrganization(Organization orgOfUser) {
         if (!resolved) {
             resolveVotes();
         }
@@ -1940,7 +2124,7 @@ public class VoteResolver<T> {
      *
      * @return true or false
      */
-    public boolean isUsingKeywordAnnotationVoting() {
+    public synchronized boolean isUsingKeywordAnnotationVoting() {
         return usingKeywordAnnotationVoting;
     }
 
@@ -1949,7 +2133,8 @@ public class VoteResolver<T> {
      *
      * @param usingKeywordAnnotationVoting true or false
      */
-    public void setUsingKeywordAnnotationVoting(boolean usingKeywordAnnotationVoting) {
+    public synchronized void setUsingKeywordAnnotationVoting(boolean usingKeywordAnnotationVoting) {
+        checkNotFrozen();
         this.usingKeywordAnnotationVoting = usingKeywordAnnotationVoting;
     }
 
@@ -1958,7 +2143,7 @@ public class VoteResolver<T> {
      *
      * @return true or false
      */
-    public boolean isValueLocked() {
+    public synchronized boolean isValueLocked() {
         return valueIsLocked;
     }
 
@@ -1968,7 +2153,96 @@ public class VoteResolver<T> {
      *
      * @return true or false
      */
-    public boolean canFlagOnLosing() {
+    public synchronized boolean canFlagOnLosing() {
         return valueIsLocked || (getRequiredVotes() == HIGH_BAR);
     }
+
+    /**
+     * Get a copy of this resolver with the votes resolved, which can't be changed. For a resolver that is kept and
+     * changed as the votes come in: a reader that calls several getters on the copy gets results that all come from
+     * the same votes.
+     */
+    public synchronized VoteResolver<T> frozenCopy() {
+        VoteResolver<T> result = new SerializedForm<>(this).toResolver(locale, pathHeader);
+        result.getWinningValue(); // resolve now, so that the copy never changes
+        result.frozen = true;
+        return result;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Attempt to modify a frozen copy of a VoteResolver");
+        }
+    }
+
+    /**
+     * Serialize a resolver as its inputs, see SerializedForm.
+     */
+    private synchronized Object writeReplace() {
+        return new SerializedForm<>(this);
+    }
+
+    private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+        throw new InvalidObjectException("VoteResolver is only read through SerializedForm");
+    }
+
+    /**
+     * The serialized form of a resolver: the inputs, with the votes as they were added. The counts and results
+     * are rebuilt by adding the votes again when it is read, so the voters must still be known to setVoterToInfo.
+     */
+    private static final class SerializedForm<T> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String locale;
+        private final String path;
+        private final boolean usingKeywordAnnotationVoting;
+        private final T baselineValue;
+        private final Status baselineStatus;
+        private final int requiredVotes;
+        private final boolean baileySet;
+        private final T baileyValue;
+        private final ArrayList<T> unvotedValues;
+        private final ArrayList<Vote<T>> votes;
+
+        SerializedForm(VoteResolver<T> resolver) {
+            locale = resolver.locale == null ? null : resolver.locale.getBaseName();
+            path = resolver.pathHeader == null ? null : resolver.pathHeader.getOriginalPath();
+            usingKeywordAnnotationVoting = resolver.usingKeywordAnnotationVoting;
+            baselineValue = resolver.baselineValue;
+            baselineStatus = resolver.baselineStatus;
+            requiredVotes = resolver.requiredVotes;
+            baileySet = resolver.organizationToValueAndVote.baileySet;
+            baileyValue = resolver.organizationToValueAndVote.baileyValue;
+            unvotedValues = new ArrayList<>(resolver.unvotedValues);
+            votes = new ArrayList<>(resolver.organizationToValueAndVote.getVotes());
+        }
+
+        private Object readResolve() {
+            return toResolver(locale == null ? null : CLDRLocale.getInstance(locale),
+                path == null ? null : PathHeader.getFactory().fromPath(path));
+        }
+
+        /**
+         * Make a resolver with these inputs, adding the votes again.
+         */
+        VoteResolver<T> toResolver(CLDRLocale resolverLocale, PathHeader resolverPathHeader) {
+            VoteResolver<T> resolver = new VoteResolver<>();
+            resolver.locale = resolverLocale;
+            resolver.pathHeader = resolverPathHeader;
+            resolver.usingKeywordAnnotationVoting = usingKeywordAnnotationVoting;
+            resolver.baselineValue = baselineValue;
+            resolver.baselineStatus = baselineStatus;
+            resolver.requiredVotes = requiredVotes;
+            if (baileySet) {
+                resolver.setBaileyValue(baileyValue);
+            }
+            for (T value : unvotedValues) {
+                resolver.add(value);
+            }
+            for (Vote<T> vote : votes) {
+                resolver.addVote(vote);
+            }
+            return resolver;
+        }
+    }
 }
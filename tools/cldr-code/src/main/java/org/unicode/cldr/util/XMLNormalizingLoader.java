@@ -49,6 +49,12 @@ public class XMLNormalizingLoader{
                 }
             });
 
+    /**
+     * If true, load into InternedXMLSources, which share the path strings across all locales.
+     * (Sources read from snapshots, see XMLSourceSnapshot, are backed by the snapshot file instead.)
+     */
+    private static final boolean USE_INTERNED_XPATHS = CldrUtility.getProperty("CLDR_INTERNED_XPATHS", false);
+
     private static final boolean LOG_PROGRESS = false;
     private static final boolean DEBUG = false;
     enum SupplementalStatus {
@@ -148,12 +154,19 @@ public class XMLNormalizingLoader{
     }
 
     public static XMLSource loadXMLFile(File f, String localeId, DraftStatus minimalDraftStatus) {
+        return XMLSourceSnapshot.load(f, localeId, minimalDraftStatus,
+            () -> parseXMLFile(f, localeId, minimalDraftStatus));
+    }
+
+    private static XMLSource parseXMLFile(File f, String localeId, DraftStatus minimalDraftStatus) {
         // use try-with-resources statement
         try (
             InputStream fis = new FileInputStream(f);
         ) {
             String fullFileName = PathUtilities.getNormalizedPathString(f);
-            XMLSource source = new SimpleXMLSource(localeId);
+            XMLSource source = USE_INTERNED_XPATHS
+                ? new InternedXMLSource(localeId)
+                : new SimpleXMLSource(localeId);
             XMLNormalizingHandler XML_HANDLER = new XMLNormalizingHandler(source, minimalDraftStatus);
             XMLFileReader.read(fullFileName, fis, -1, true, XML_HANDLER);
             if (XML_HANDLER.supplementalStatus == SupplementalStatus.NEVER_SET) {
@@ -245,7 +258,11 @@ public class XMLNormalizingLoader{
 
                     if (attribute.equals("cldrVersion")
                         && (qName.equals("version"))) {
-                        ((SimpleXMLSource) source).setDtdVersionInfo(VersionInfo.getInstance(value));
+                        if (source instanceof InternedXMLSource) {
+                            ((InternedXMLSource) source).setDtdVersionInfo(VersionInfo.getInstance(value));
+                        } else {
+                            ((SimpleXMLSource) source).setDtdVersionInfo(VersionInfo.getInstance(value));
+                        }
                     } else {
                         putAndFixDeprecatedAttribute(qName, attribute, value);
                     }
@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -77,6 +79,72 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
     // Listeners are stored using weak references so that they can be garbage collected.
     private List<WeakReference<Listener>> listeners = new ArrayList<>();
 
+    private static final AtomicLong nextStamp = new AtomicLong();
+    private volatile String stamp = Long.toString(nextStamp.incrementAndGet());
+
+    /**
+     * Get a stamp for the current data of this source, for use in the keys of caches of things that are built from the data.
+     * No two sources have the same stamp, and the stamp of a source changes whenever its data is changed through putValueAtPath,
+     * removeValueAtPath, or removeAll, or when notifyListeners is called. A resolving source combines the stamps of all the
+     * sources that it resolves through.
+     * <p>
+     * The same String object is returned until the data changes, so it is cheap to call for each lookup in a cache.
+     */
+    public String getDataStamp() {
+        return stamp;
+    }
+
+    /**
+     * Give the source a new stamp, since its data has changed.
+     */
+    protected void changeStamp() {
+        stamp = Long.toString(nextStamp.incrementAndGet());
+    }
+
+    /**
+     * A stamp made of the stamps of several sources, which is only rebuilt when one of them changes.
+     */
+    private static final class CombinedDataStamp {
+        private final String separator;
+        /**
+         * The stamps of the sources, followed by the combined stamp, replaced as a whole so that readers see a
+         * consistent pair
+         */
+        private volatile String[] partsAndCombined = null;
+
+        CombinedDataStamp(String separator) {
+            this.separator = separator;
+        }
+
+        /**
+         * Get the combined stamp for the current stamps of the given sources, which must be the same sources, in the
+         * same order, on each call.
+         */
+        String get(Collection<XMLSource> sources) {
+            String[] old = partsAndCombined;
+            if (old != null) {
+                int i = 0;
+                for (XMLSource source : sources) {
+                    if (!source.getDataStamp().equals(old[i++])) {
+                        old = null;
+                        break;
+                    }
+                }
+                if (old != null) {
+                    return old[old.length - 1];
+                }
+            }
+            String[] result = new String[sources.size() + 1];
+            int i = 0;
+            for (XMLSource source : sources) {
+                result[i++] = source.getDataStamp();
+            }
+            result[i] = String.join(separator, Arrays.asList(result).subList(0, i));
+            partsAndCombined = result;
+            return result[i];
+        }
+    }
+
     public String getLocaleID() {
         return localeID;
     }
@@ -132,6 +200,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         for (Iterator<String> it = xpaths.iterator(); it.hasNext();) {
             removeValueAtDPath(it.next());
         }
+        changeStamp();
     }
 
     /**
@@ -173,6 +242,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             clearCache();
             putFullPathAtDPath(distinguishingXPath, fixedPath[0]);
         }
+        changeStamp();
         return distinguishingXPath;
     }
 
@@ -500,6 +570,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         if (locked) throw new UnsupportedOperationException("Attempt to modify locked object");
         clearCache();
         removeValueAtDPath(CLDRFile.getDistinguishingXPath(xpath, null));
+        changeStamp();
     }
 
     /**
@@ -630,6 +701,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         try {
             XMLSource result = (XMLSource) super.clone();
             result.locked = false;
+            result.changeStamp();
             return result;
         } catch (CloneNotSupportedException e) {
             throw new InternalError("should never happen");
@@ -976,8 +1048,27 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
                 }
             }
 
+            if (aliasedPath == null) {
+                aliasedPath = getAltOrCountFallback(xpath);
+            }
+
+            if (aliasedPath != null) {
+                // Call getCachedFullStatus recursively to avoid recalculating cached aliases.
+                return getCachedFullStatus(aliasedPath, skipInheritanceMarker);
+            }
+
+            // Fallback location.
+            return new AliasLocation(xpath, CODE_FALLBACK_ID);
+        }
+
+        /**
+         * Get the path that the given path falls back to when no source has a value for it, other than through a
+         * root alias, or null if there is none.
+         */
+        static String getAltOrCountFallback(String xpath) {
+            String aliasedPath = null;
             // alts are special; they act like there is a root alias to the path without the alt.
-            if (aliasedPath == null && xpath.contains("[@alt=")) {
+            if (xpath.contains("[@alt=")) {
                 aliasedPath = XPathParts.getPathWithoutAlt(xpath);
             }
 
@@ -997,14 +1088,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
                     }
                 }
             }
-
-            if (aliasedPath != null) {
-                // Call getCachedFullStatus recursively to avoid recalculating cached aliases.
-                return getCachedFullStatus(aliasedPath, skipInheritanceMarker);
-            }
-
-            // Fallback location.
-            return new AliasLocation(xpath, CODE_FALLBACK_ID);
+            return aliasedPath;
         }
 
         /**
@@ -1169,6 +1253,13 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return this; // No-op. ResolvingSource is already read-only.
         }
 
+        private final CombinedDataStamp dataStamp = new CombinedDataStamp(".");
+
+        @Override
+        public String getDataStamp() {
+            return dataStamp.get(sources.values());
+        }
+
         @Override
         public void valueChanged(String xpath, XMLSource nonResolvingSource) {
             if (!cachingIsEnabled) {
@@ -1192,6 +1283,18 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             }
         }
 
+        /**
+         * Forget the cached locations and full paths of the given paths, so that they are looked up again.
+         */
+        void forgetLocations(Collection<String> paths) {
+            synchronized (getSourceLocaleIDCache) {
+                for (String path : paths) {
+                    getSourceLocaleIDCache.remove(path);
+                    getFullPathAtDPathCache.remove(path);
+                }
+            }
+        }
+
         /**
          * Creates a new ResolvingSource with the given locale resolution chain.
          *
@@ -1560,6 +1663,202 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         }
     }
 
+    /**
+     * A ResolvingSource that resolves all of its paths once, when it is made, into a flat table of the value, full path,
+     * source locale, and path where found of each path. After that, looking up one of those paths is a single hash
+     * lookup, with no walk through the parents, the root aliases, or the alt and count fallbacks. What a path resolves
+     * to is never changed once made, so a FlatResolvingSource can be shared by threads that read it.
+     * <br>When a value changes (see valueChanged), only the changed path and the paths that can resolve through it are
+     * looked up again, and replaced in the table one by one: the cost of a change doesn't depend on the number of paths.
+     * <br>The paths are iterated in sorted order, as when the source was made. The sorted list is only made again, on
+     * the next iteration, after a change adds or removes paths.
+     * <br>Other paths, and lookups that don't skip the inheritance marker, are resolved as by any ResolvingSource.
+     */
+    public static class FlatResolvingSource extends ResolvingSource {
+
+        /**
+         * What a path resolves to
+         */
+        private static final class Resolved {
+            final String value;
+            final String fullPath;
+            final String localeWhereFound;
+            final String pathWhereFound;
+
+            Resolved(String value, String fullPath, String localeWhereFound, String pathWhereFound) {
+                this.value = value;
+                this.fullPath = fullPath;
+                this.localeWhereFound = localeWhereFound;
+                this.pathWhereFound = pathWhereFound;
+            }
+        }
+
+        /**
+         * The resolved paths, null while the source is being made
+         */
+        private volatile Map<String, Resolved> table;
+
+        /**
+         * The paths of the table, sorted; null after paths are added or removed, until the next iteration
+         */
+        private volatile List<String> sortedPaths;
+
+        /**
+         * From a path to the paths that fall back to it, for alt or count. Only used while holding the lock.
+         */
+        private final Map<String, Set<String>> fallbacks = new HashMap<>();
+
+        /**
+         * Creates a new FlatResolvingSource with the given locale resolution chain, and resolves all of its paths.
+         *
+         * @param sourceList
+         *            the list of XMLSources to look in during resolution,
+         *            ordered from the current locale up to root.
+         */
+        public FlatResolvingSource(List<XMLSource> sourceList) {
+            super(sourceList);
+            String[] paths = Iterators.toArray(super.iterator(), String.class);
+            Arrays.sort(paths);
+            Map<String, Resolved> newTable = new ConcurrentHashMap<>(paths.length * 4 / 3 + 1);
+            CLDRFile.Status status = new CLDRFile.Status();
+            synchronized (this) {
+                for (String path : paths) {
+                    newTable.put(path, resolve(path, status));
+                    addFallback(path);
+                }
+                sortedPaths = Collections.unmodifiableList(Arrays.asList(paths));
+                table = newTable;
+            }
+        }
+
+        /**
+         * Creates a FlatResolvingSource with the same resolution chain as the given ResolvingSource.
+         */
+        public FlatResolvingSource(ResolvingSource resolvingSource) {
+            this(new ArrayList<>(resolvingSource.sources.values()));
+        }
+
+        private Resolved resolve(String path, CLDRFile.Status status) {
+            String localeWhereFound = super.getSourceLocaleIdExtended(path, status, true /* skipInheritanceMarker */);
+            return new Resolved(super.getValueAtDPath(path), super.getFullPathAtDPath(path), localeWhereFound,
+                status.pathWhereFound);
+        }
+
+        private void addFallback(String path) {
+            String fallback = getAltOrCountFallback(path);
+            if (fallback != null) {
+                fallbacks.computeIfAbsent(fallback, k -> new HashSet<>()).add(path);
+            }
+        }
+
+        private void removeFallback(String path) {
+            String fallback = getAltOrCountFallback(path);
+            if (fallback != null) {
+                Set<String> paths = fallbacks.get(fallback);
+                paths.remove(path);
+                if (paths.isEmpty()) {
+                    fallbacks.remove(fallback);
+                }
+            }
+        }
+
+        @Override
+        public String getValueAtDPath(String xpath) {
+            Map<String, Resolved> current = table;
+            Resolved resolved = current == null ? null : current.get(xpath);
+            return resolved == null ? super.getValueAtDPath(xpath) : resolved.value;
+        }
+
+        @Override
+        public String getFullPathAtDPath(String xpath) {
+            Map<String, Resolved> current = table;
+            Resolved resolved = current == null ? null : current.get(xpath);
+            return resolved == null ? super.getFullPathAtDPath(xpath) : resolved.fullPath;
+        }
+
+        @Override
+        public String getSourceLocaleIdExtended(String distinguishedXPath, CLDRFile.Status status, boolean skipInheritanceMarker) {
+            Map<String, Resolved> current = table;
+            Resolved resolved = current == null || !skipInheritanceMarker ? null : current.get(distinguishedXPath);
+            if (resolved == null) {
+                return super.getSourceLocaleIdExtended(distinguishedXPath, status, skipInheritanceMarker);
+            }
+            if (status != null) {
+                status.pathWhereFound = resolved.pathWhereFound;
+            }
+            return resolved.localeWhereFound;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            if (table == null) {
+                return super.iterator();
+            }
+            List<String> paths = sortedPaths;
+            if (paths == null) {
+                synchronized (this) {
+                    paths = sortedPaths;
+                    if (paths == null) {
+                        String[] array = table.keySet().toArray(new String[0]);
+                        Arrays.sort(array);
+                        sortedPaths = paths = Collections.unmodifiableList(Arrays.asList(array));
+                    }
+                }
+            }
+            return paths.iterator();
+        }
+
+        @Override
+        public void valueChanged(String xpath, XMLSource nonResolvingSource) {
+            super.valueChanged(xpath, nonResolvingSource);
+            update(xpath);
+        }
+
+        /**
+         * Resolve the changed path again, with all the paths that can resolve through it, and replace them in the
+         * table. Paths that are left without a value are dropped from it.
+         */
+        private synchronized void update(String xpath) {
+            Map<String, Resolved> current = table;
+            if (current == null) {
+                return; // still being made
+            }
+            Set<String> affected = new HashSet<>();
+            Set<String> newPaths = Collections.singleton(xpath);
+            while (!newPaths.isEmpty()) {
+                affected.addAll(newPaths);
+                String[] sortedNewPaths = newPaths.toArray(new String[newPaths.size()]);
+                Arrays.sort(sortedNewPaths);
+                Set<String> next = super.getDirectAliases(sortedNewPaths);
+                for (String path : newPaths) {
+                    next.addAll(fallbacks.getOrDefault(path, Collections.emptySet()));
+                }
+                next.removeAll(affected);
+                newPaths = next;
+            }
+            forgetLocations(affected);
+
+            boolean pathsChanged = false;
+            CLDRFile.Status status = new CLDRFile.Status();
+            for (String path : affected) {
+                Resolved resolved = resolve(path, status);
+                if (resolved.value == null) {
+                    // a path that no longer has a value, here or in a parent, isn't a path of the source any more
+                    if (current.remove(path) != null) {
+                        removeFallback(path);
+                        pathsChanged = true;
+                    }
+                } else if (current.put(path, resolved) == null) {
+                    addFallback(path);
+                    pathsChanged = true;
+                }
+            }
+            if (pathsChanged) {
+                sortedPaths = null;
+            }
+        }
+    }
+
     /**
      * See CLDRFile isWinningPath for documentation
      *
@@ -1602,6 +1901,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
      *            the xpath where the change occurred.
      */
     public void notifyListeners(String xpath) {
+        changeStamp();
         int i = 0;
         while (i < listeners.size()) {
             Listener listener = listeners.get(i).get();
@@ -0,0 +1,564 @@
+package org.unicode.cldr.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.XPathParts.Comments;
+import org.unicode.cldr.util.XPathParts.Comments.CommentType;
+
+import com.ibm.icu.util.VersionInfo;
+
+/**
+ * Binary snapshots of parsed XMLSources, so that a tool doesn't have to parse and normalize the same XML files
+ * every time it starts. A snapshot holds everything the XMLNormalizingLoader puts into a source: the distinguishing
+ * paths with their values and full paths, the comments, the DTD type and version, and the non-inheriting flag.
+ * <p>
+ * Snapshots are turned on by setting CLDR_SNAPSHOT_DIR to a writable directory; the XMLNormalizingLoader then goes
+ * through {@link #load}, so every Factory uses them without any change. Each snapshot file is named by a hash of the
+ * XML file's canonical path, size and modification time, the DTD files, the locale, the draft status and the format
+ * version, so a change to any of those makes a new snapshot, and the stale one is deleted when the new one is written.
+ * The name also starts with a tag for the file's directory, so that files with the same locale in different
+ * directories keep separate snapshots. Naming a snapshot doesn't read the XML file. If CLDR_SNAPSHOT_VERIFY is set,
+ * a snapshot is also checked against a hash of the XML file's contents (stored in the snapshot) before it is used.
+ * <p>
+ * The format is a table of the distinct strings in the source, records of indexes into that table, and a hash table
+ * from path to record. Snapshots are memory-mapped, and the source that is read is backed by the mapped file: strings
+ * are only decoded when they are first looked up.
+ */
+public final class XMLSourceSnapshot {
+    private static final int MAGIC = 0x434c4453; // "CLDS"
+    /**
+     * Bump whenever the format, or the way the loader normalizes the XML, changes.
+     */
+    private static final int FORMAT_VERSION = 2;
+    private static final String SUFFIX = ".bin";
+
+    private static final String SNAPSHOT_DIRECTORY = CldrUtility.getProperty("CLDR_SNAPSHOT_DIR", null);
+    private static final boolean VERIFY = CldrUtility.getProperty("CLDR_SNAPSHOT_VERIFY", false);
+
+    private static byte[] dtdDigest = null; // guarded by XMLSourceSnapshot.class
+
+    private XMLSourceSnapshot() {
+    }
+
+    /**
+     * @return true if CLDR_SNAPSHOT_DIR is set, so that {@link #load} uses snapshots
+     */
+    public static boolean isEnabled() {
+        return SNAPSHOT_DIRECTORY != null && !SNAPSHOT_DIRECTORY.isEmpty();
+    }
+
+    /**
+     * Get the source for an XML file from its snapshot, if there is a current one; otherwise call the parser and
+     * save a snapshot of the result for next time. If snapshots aren't enabled, this just calls the parser.
+     * A snapshot that can't be read or written is ignored (and rebuilt), since the XML is always there to fall back on.
+     * A source read from a snapshot is already frozen, and is backed by the mapped snapshot file.
+     *
+     * @param xmlFile
+     *            the file the source is loaded from
+     * @param parser
+     *            parses the file; the result must not be frozen yet
+     */
+    public static XMLSource load(File xmlFile, String localeId, DraftStatus minimalDraftStatus,
+        Supplier<XMLSource> parser) {
+        if (!isEnabled()) {
+            return parser.get();
+        }
+        File directory = new File(SNAPSHOT_DIRECTORY);
+        String prefix = getDirectoryTag(xmlFile) + "-" + localeId + "-" + minimalDraftStatus + "-";
+        File snapshot;
+        try {
+            snapshot = new File(directory, prefix + getKey(xmlFile, localeId, minimalDraftStatus) + SUFFIX);
+        } catch (IOException e) {
+            return parser.get(); // let the parser report the problem with the file
+        }
+        if (snapshot.canRead()) {
+            try {
+                MappedXMLSource result = read(snapshot);
+                if (!VERIFY || Arrays.equals(result.contentHash, getContentHash(xmlFile))) {
+                    return result;
+                }
+                System.err.println("Ignoring out-of-date snapshot " + snapshot);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring bad snapshot " + snapshot + ": " + e);
+            }
+            snapshot.delete();
+        }
+        XMLSource result = parser.get();
+        try {
+            directory.mkdirs();
+            write(result, snapshot, getContentHash(xmlFile));
+            // remove any snapshots of older versions of the same file
+            File[] stale = directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(SUFFIX)
+                && !name.equals(snapshot.getName()));
+            if (stale != null) {
+                for (File file : stale) {
+                    file.delete();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Can't write snapshot " + snapshot + ": " + e);
+        }
+        return result;
+    }
+
+    /**
+     * Identify the directory of the XML file, so that the snapshots of main/de.xml and annotations/de.xml (say) don't
+     * replace each other: the directory name for readability, plus a short hash of its full path.
+     */
+    static String getDirectoryTag(File xmlFile) {
+        File directory = xmlFile.getAbsoluteFile().getParentFile();
+        String path;
+        try {
+            path = directory.getCanonicalPath();
+        } catch (IOException e) {
+            path = directory.getPath();
+        }
+        byte[] hash = newDigest().digest(path.getBytes(StandardCharsets.UTF_8));
+        StringBuilder result = new StringBuilder(directory.getName()).append('_');
+        for (int i = 0; i < 4; ++i) {
+            result.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Get the key identifying the snapshot for the XML file as it is now, from the file's canonical path, size and
+     * modification time, without reading it.
+     */
+    static String getKey(File xmlFile, String localeId, DraftStatus minimalDraftStatus) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update((FORMAT_VERSION + "\t" + localeId + "\t" + minimalDraftStatus + "\t"
+            + xmlFile.getCanonicalPath() + "\t" + xmlFile.length() + "\t" + xmlFile.lastModified() + "\t")
+                .getBytes(StandardCharsets.UTF_8));
+        digest.update(getDtdDigest());
+        byte[] hash = digest.digest();
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < 16; ++i) {
+            result.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    /**
+     * A hash of the XML file's contents, stored in the snapshot for CLDR_SNAPSHOT_VERIFY.
+     */
+    static byte[] getContentHash(File xmlFile) throws IOException {
+        return newDigest().digest(Files.readAllBytes(xmlFile.toPath()));
+    }
+
+    /**
+     * The normalization depends on the DTDs, so they are part of every key. Computed once per process.
+     */
+    private static synchronized byte[] getDtdDigest() throws IOException {
+        if (dtdDigest == null) {
+            MessageDigest digest = newDigest();
+            for (DtdType type : DtdType.values()) {
+                File dtd = new File(CLDRPaths.BASE_DIRECTORY, type.dtdPath);
+                if (dtd.canRead()) {
+                    digest.update(Files.readAllBytes(dtd.toPath()));
+                }
+            }
+            dtdDigest = digest.digest();
+        }
+        return dtdDigest;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every Java implementation has SHA-256
+        }
+    }
+
+    /**
+     * Write a snapshot of the source. The file is written under a temporary name and then renamed,
+     * so that another process never sees a partial snapshot.
+     */
+    public static void write(XMLSource source, File file) throws IOException {
+        write(source, file, new byte[0]);
+    }
+
+    /**
+     * Write a snapshot of the source, with the hash of the contents of the XML file it was parsed from.
+     */
+    static void write(XMLSource source, File file, byte[] contentHash) throws IOException {
+        StringTable strings = new StringTable();
+        List<int[]> records = new ArrayList<>();
+        for (String path : source) {
+            String fullPath = source.getFullPathAtDPath(path);
+            records.add(new int[] {
+                strings.add(path),
+                strings.add(source.getValueAtDPath(path)),
+                fullPath == null || fullPath.equals(path) ? -1 : strings.add(fullPath) });
+        }
+        Comments comments = source.getXpathComments();
+        int initialComment = strings.add(comments.getInitialComment());
+        int finalComment = strings.add(comments.getFinalComment());
+        Map<CommentType, int[]> commentRecords = new HashMap<>();
+        for (CommentType type : CommentType.values()) {
+            Map<String, String> typeComments = comments.getComments(type);
+            int[] pairs = new int[typeComments.size() * 2];
+            int i = 0;
+            for (Entry<String, String> entry : typeComments.entrySet()) {
+                pairs[i++] = strings.add(entry.getKey());
+                pairs[i++] = strings.add(entry.getValue());
+            }
+            commentRecords.put(type, pairs);
+        }
+        DtdType dtdType = source.getXMLNormalizingDtdType();
+        VersionInfo dtdVersion = source.getDtdVersionInfo();
+        int localeId = strings.add(source.getLocaleID());
+        int dtdTypeName = dtdType == null ? -1 : strings.add(dtdType.name());
+        int dtdVersionName = dtdVersion == null ? -1 : strings.add(dtdVersion.toString());
+
+        // open addressing, at most half full; each slot is the path's hash and its record, or -1 if empty
+        int tableSize = 2;
+        while (tableSize < records.size() * 2) {
+            tableSize <<= 1;
+        }
+        int[] table = new int[tableSize * 2];
+        Arrays.fill(table, -1);
+        for (int record = 0; record < records.size(); ++record) {
+            int hash = hash(strings.list.get(records.get(record)[0]));
+            int slot = hash & (tableSize - 1);
+            while (table[slot * 2 + 1] >= 0) {
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            table[slot * 2] = hash;
+            table[slot * 2 + 1] = record;
+        }
+
+        File temp = File.createTempFile("snapshot", ".tmp", file.getAbsoluteFile().getParentFile());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(contentHash.length);
+            out.write(contentHash);
+            out.writeInt(localeId);
+            out.writeBoolean(source.isNonInheriting());
+            out.writeInt(dtdTypeName);
+            out.writeInt(dtdVersionName);
+
+            List<byte[]> encoded = new ArrayList<>(strings.list.size());
+            out.writeInt(strings.list.size());
+            int offset = 0;
+            for (String s : strings.list) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                out.writeInt(offset);
+                offset += bytes.length;
+            }
+            out.writeInt(offset);
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+
+            out.writeInt(records.size());
+            for (int[] record : records) {
+                for (int index : record) {
+                    out.writeInt(index);
+                }
+            }
+            out.writeInt(tableSize);
+            for (int entry : table) {
+                out.writeInt(entry);
+            }
+
+            out.writeInt(initialComment);
+            out.writeInt(finalComment);
+            for (CommentType type : CommentType.values()) {
+                int[] pairs = commentRecords.get(type);
+                out.writeInt(pairs.length / 2);
+                for (int index : pairs) {
+                    out.writeInt(index);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read a snapshot. The source is frozen, and backed by the mapped file; use cloneAsThawed to get a copy that
+     * can be changed.
+     */
+    public static MappedXMLSource read(File file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not a snapshot, or an old format: " + file);
+        }
+        return new MappedXMLSource(in);
+    }
+
+    private static int hash(String path) {
+        int h = path.hashCode();
+        return (h ^ (h >>> 16)) & 0x7FFFFFFF;
+    }
+
+    /**
+     * A frozen XMLSource backed by a mapped snapshot. Paths are found through the snapshot's hash table, and strings
+     * are decoded from the mapped bytes the first time they are needed. Only absolute reads are made from the
+     * buffer, so it is thread-safe.
+     */
+    public static final class MappedXMLSource extends XMLSource {
+        private final ByteBuffer data;
+        private final byte[] contentHash;
+        private final VersionInfo dtdVersionInfo;
+        private final String[] strings; // decoded lazily; racing decodes give equal strings
+        private final int stringOffsets;
+        private final int stringData;
+        private final int records;
+        private final int recordCount;
+        private final int table;
+        private final int tableMask;
+        private final int commentsStart;
+        private volatile Comments comments;
+
+        private MappedXMLSource(ByteBuffer in) {
+            data = in;
+            contentHash = new byte[in.getInt()];
+            in.get(contentHash);
+            int localeId = in.getInt();
+            boolean nonInheriting = in.get() != 0;
+            int dtdTypeName = in.getInt();
+            int dtdVersionName = in.getInt();
+
+            strings = new String[in.getInt()];
+            stringOffsets = in.position();
+            stringData = stringOffsets + (strings.length + 1) * 4;
+            recordCount = in.getInt(stringData + in.getInt(stringData - 4));
+            records = stringData + in.getInt(stringData - 4) + 4;
+            int tableSize = in.getInt(records + recordCount * 12);
+            tableMask = tableSize - 1;
+            table = records + recordCount * 12 + 4;
+            commentsStart = table + tableSize * 8;
+
+            setLocaleID(getString(localeId));
+            setNonInheriting(nonInheriting);
+            if (dtdTypeName >= 0) {
+                setXMLNormalizingDtdType(DtdType.valueOf(getString(dtdTypeName)));
+            }
+            dtdVersionInfo = dtdVersionName < 0 ? null : VersionInfo.getInstance(getString(dtdVersionName));
+            locked = true;
+        }
+
+        private String getString(int index) {
+            String result = strings[index];
+            if (result == null) {
+                int start = data.getInt(stringOffsets + index * 4);
+                byte[] bytes = new byte[data.getInt(stringOffsets + index * 4 + 4) - start];
+                ByteBuffer in = data.duplicate();
+                in.position(stringData + start);
+                in.get(bytes);
+                strings[index] = result = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return result;
+        }
+
+        /**
+         * @return the record for the path, or -1 if it has none
+         */
+        private int findRecord(String path) {
+            int hash = hash(path);
+            for (int slot = hash & tableMask;; slot = (slot + 1) & tableMask) {
+                int record = data.getInt(table + slot * 8 + 4);
+                if (record < 0) {
+                    return -1;
+                }
+                if (data.getInt(table + slot * 8) == hash && path.equals(getPath(record))) {
+                    return record;
+                }
+            }
+        }
+
+        private String getPath(int record) {
+            return getString(data.getInt(records + record * 12));
+        }
+
+        private String getValue(int record) {
+            return getString(data.getInt(records + record * 12 + 4));
+        }
+
+        @Override
+        public String getValueAtDPath(String path) {
+            int record = findRecord(path);
+            return record < 0 ? null : getValue(record);
+        }
+
+        @Override
+        public String getFullPathAtDPath(String path) {
+            int record = findRecord(path);
+            if (record < 0) {
+                return null;
+            }
+            int fullPath = data.getInt(records + record * 12 + 8);
+            return fullPath < 0 ? path : getString(fullPath); // we don't store duplicates
+        }
+
+        @Override
+        public Comments getXpathComments() {
+            Comments result = comments;
+            if (result == null) {
+                synchronized (this) {
+                    result = comments;
+                    if (result == null) {
+                        result = new Comments();
+                        int position = commentsStart;
+                        result.setInitialComment(getString(data.getInt(position)));
+                        result.setFinalComment(getString(data.getInt(position + 4)));
+                        position += 8;
+                        for (CommentType type : CommentType.values()) {
+                            int count = data.getInt(position);
+                            position += 4;
+                            for (; count > 0; --count, position += 8) {
+                                result.addComment(type, getString(data.getInt(position)),
+                                    getString(data.getInt(position + 4)));
+                            }
+                        }
+                        comments = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void setXpathComments(Comments comments) {
+            throw new UnsupportedOperationException("Attempt to modify locked object");
+        }
+
+        @Override
+        public void putFullPathAtDPath(String distinguishingXPath, String fullxpath) {
+            throw new UnsupportedOperationException("Attempt to modify locked object");
+        }
+
+        @Override
+        public void putValueAtDPath(String distinguishingXPath, String value) {
+            throw new UnsupportedOperationException("Attempt to modify locked object");
+        }
+
+        @Override
+        public void removeValueAtDPath(String distinguishingXPath) {
+            throw new UnsupportedOperationException("Attempt to modify locked object");
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < recordCount;
+                }
+
+                @Override
+                public String next() {
+                    if (next >= recordCount) {
+                        throw new NoSuchElementException();
+                    }
+                    return getPath(next++);
+                }
+            };
+        }
+
+        @Override
+        public void getPathsWithValue(String valueToMatch, String pathPrefix, Set<String> result) {
+            String normalizedValue = SimpleXMLSource.normalize(valueToMatch);
+            for (int record = 0; record < recordCount; ++record) {
+                String value = getValue(record);
+                if (CldrUtility.INHERITANCE_MARKER.equals(value)) {
+                    continue;
+                }
+                String path = getPath(record);
+                if ((pathPrefix == null || path.startsWith(pathPrefix))
+                    && normalizedValue.equals(SimpleXMLSource.normalize(value))) {
+                    result.add(path);
+                }
+            }
+        }
+
+        @Override
+        public VersionInfo getDtdVersionInfo() {
+            return dtdVersionInfo;
+        }
+
+        @Override
+        public XMLSource freeze() {
+            return this;
+        }
+
+        /**
+         * The mapped data can't be changed, so this copies it into a new SimpleXMLSource.
+         */
+        @Override
+        public XMLSource cloneAsThawed() {
+            SimpleXMLSource result = new SimpleXMLSource(getLocaleID());
+            result.setNonInheriting(isNonInheriting());
+            result.setXMLNormalizingDtdType(getXMLNormalizingDtdType());
+            result.setDtdVersionInfo(dtdVersionInfo);
+            for (int record = 0; record < recordCount; ++record) {
+                String path = getPath(record);
+                result.putValueAtDPath(path, getValue(record));
+                int fullPath = data.getInt(records + record * 12 + 8);
+                if (fullPath >= 0) {
+                    result.putFullPathAtDPath(path, getString(fullPath));
+                }
+            }
+            result.setXpathComments((Comments) getXpathComments().clone());
+            return result;
+        }
+    }
+
+    /**
+     * The distinct strings of a snapshot, in order of first use.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> map = new HashMap<>();
+        private final List<String> list = new ArrayList<>();
+
+        int add(String s) {
+            Integer result = map.get(s);
+            if (result == null) {
+                result = list.size();
+                map.put(s, result);
+                list.add(s);
+            }
+            return result;
+        }
+    }
+}
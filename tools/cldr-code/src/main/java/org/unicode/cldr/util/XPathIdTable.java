@@ -0,0 +1,86 @@
+package org.unicode.cldr.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide table assigning dense int ids (0, 1, 2, ...) to distinguishing paths, in order of first use.
+ * Each path string is also interned, so that all the sources using the table share a single copy of it.
+ * Like the Survey Tool's XPathTable, but without a database, and only for the lifetime of the process.
+ * <p>
+ * Thread-safe. Lookups of known paths don't lock; adding a new path does.
+ *
+ * @see InternedXMLSource
+ */
+public final class XPathIdTable {
+    private static final Map<String, Integer> PATH_TO_ID = new ConcurrentHashMap<>();
+    // guarded by PATH_TO_ID for writes; an id is only published in PATH_TO_ID after its path is stored here
+    private static volatile String[] idToPath = new String[1024];
+    private static int size = 0;
+
+    private XPathIdTable() {
+    }
+
+    /**
+     * Get the id for a path, adding the path if it doesn't have one yet.
+     */
+    public static int getId(String path) {
+        Integer result = PATH_TO_ID.get(path);
+        if (result != null) {
+            return result;
+        }
+        synchronized (PATH_TO_ID) {
+            result = PATH_TO_ID.get(path);
+            if (result != null) {
+                return result;
+            }
+            String[] paths = idToPath;
+            if (size == paths.length) {
+                paths = Arrays.copyOf(paths, paths.length * 2);
+            }
+            paths[size] = path;
+            idToPath = paths;
+            PATH_TO_ID.put(path, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Get the id for a path, or -1 if the path has none.
+     */
+    public static int peekId(String path) {
+        Integer result = PATH_TO_ID.get(path);
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * Get the path for an id, which must have been returned by getId.
+     *
+     * @throws IllegalArgumentException if no path has the id
+     */
+    public static String getPath(int id) {
+        String[] paths = idToPath;
+        String result = id < 0 || id >= paths.length ? null : paths[id];
+        if (result == null) {
+            throw new IllegalArgumentException("Unknown path id: " + id);
+        }
+        return result;
+    }
+
+    /**
+     * Get the shared instance of a path, adding the path if needed.
+     */
+    public static String intern(String path) {
+        return getPath(getId(path));
+    }
+
+    /**
+     * @return the number of ids assigned so far; all ids are less than this.
+     */
+    public static int size() {
+        synchronized (PATH_TO_ID) {
+            return size;
+        }
+    }
+}
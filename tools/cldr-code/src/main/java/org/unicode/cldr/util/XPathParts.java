@@ -15,16 +15,23 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.util.Freezable;
 
@@ -46,7 +53,38 @@ public final class XPathParts implements Freezable<XPathParts>, Comparable<XPath
 
     private DtdData dtdData = null;
 
-    private static final Map<String, XPathParts> cache = new ConcurrentHashMap<>();
+    /**
+     * How getFrozenInstance caches the XPathParts it creates.
+     */
+    public enum CachePolicy {
+        /** Keep every XPathParts ever created (the default). Fastest, but grows with every path seen. */
+        UNBOUNDED,
+        /** Keep at most maximumSize XPathParts, evicting the least recently used. */
+        BOUNDED,
+        /** Keep an XPathParts only while something else references it. */
+        WEAK,
+        /** Don't cache: parse the path every time. */
+        NONE
+    }
+
+    /**
+     * The cache for CachePolicy.UNBOUNDED, or null. A plain map, so that the default policy costs no more than a
+     * map lookup; statistics aren't recorded for it.
+     */
+    private static volatile Map<String, XPathParts> unboundedCache;
+
+    /**
+     * The cache for the other policies, or null.
+     */
+    private static volatile Cache<String, XPathParts> cache;
+
+    // The cache policy can be set with -DCLDR_XPATHPARTS_CACHE=UNBOUNDED, BOUNDED:maximumSize, WEAK, or NONE.
+    // (A system property, since CLDRConfig itself uses XPathParts.)
+    static {
+        String[] policySpec = System.getProperty("CLDR_XPATHPARTS_CACHE", "UNBOUNDED").split(":");
+        setCachePolicy(CachePolicy.valueOf(policySpec[0].trim().toUpperCase(Locale.ROOT)),
+            policySpec.length > 1 ? Integer.parseInt(policySpec[1].trim()) : 100_000);
+    }
 
     /**
      * Construct a new empty XPathParts object.
@@ -196,6 +234,13 @@ public final class XPathParts implements Freezable<XPathParts>, Comparable<XPath
             return comments.get(style).get(xpath);
         }
 
+        /**
+         * @return an unmodifiable view of the comments of the given style, keyed by path
+         */
+        public Map<String, String> getComments(CommentType style) {
+            return Collections.unmodifiableMap(comments.get(style));
+        }
+
         public Comments addComment(CommentType style, String xpath, String comment) {
             String existing = comments.get(style).get(xpath);
             if (existing != null) {
@@ -1294,9 +1339,77 @@ public final class XPathParts implements Freezable<XPathParts>, Comparable<XPath
     }
 
     public static XPathParts getFrozenInstance(String path) {
-        XPathParts result = cache.computeIfAbsent(path,
-            (String forPath) -> new XPathParts().addInternal(forPath, true).freeze());
-        return result;
+        Map<String, XPathParts> map = unboundedCache;
+        if (map != null) {
+            return map.computeIfAbsent(path, XPathParts::makeFrozenInstance);
+        }
+        try {
+            return cache.get(path, () -> makeFrozenInstance(path));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalArgumentException(e.getCause());
+        }
+    }
+
+    private static XPathParts makeFrozenInstance(String path) {
+        return new XPathParts().addInternal(path, true).freeze();
+    }
+
+    /**
+     * Change how getFrozenInstance caches. The current cache (and its statistics) is discarded.
+     *
+     * @param maximumSize only used for CachePolicy.BOUNDED
+     */
+    public static synchronized void setCachePolicy(CachePolicy policy, int maximumSize) {
+        // Set the new cache before clearing the old one, so that getFrozenInstance always finds one of them.
+        if (policy == CachePolicy.UNBOUNDED) {
+            unboundedCache = new ConcurrentHashMap<>();
+            cache = null;
+        } else {
+            cache = makeCache(policy, maximumSize);
+            unboundedCache = null;
+        }
+    }
+
+    /**
+     * Get the hit, miss, load time, and eviction counts for getFrozenInstance, since the cache policy was last set.
+     * They aren't recorded for CachePolicy.UNBOUNDED, so all the counts are then zero.
+     */
+    public static CacheStats getCacheStatistics() {
+        Cache<String, XPathParts> current = cache;
+        return current == null ? new CacheStats(0, 0, 0, 0, 0, 0) : current.stats();
+    }
+
+    /**
+     * @return the number of XPathParts currently cached
+     */
+    public static long getCacheSize() {
+        Map<String, XPathParts> map = unboundedCache;
+        if (map != null) {
+            return map.size();
+        }
+        Cache<String, XPathParts> current = cache;
+        return current == null ? 0 : current.size();
+    }
+
+    private static Cache<String, XPathParts> makeCache(CachePolicy policy, int maximumSize) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .recordStats();
+        switch (policy) {
+        case BOUNDED:
+            builder.maximumSize(maximumSize);
+            break;
+        case WEAK:
+            builder.weakValues();
+            break;
+        case NONE:
+            builder.maximumSize(0);
+            break;
+        case UNBOUNDED:
+            break;
+        }
+        return builder.build();
     }
 
     public DtdData getDtdData() {
@@ -0,0 +1,435 @@
+package org.unicode.cldr.util;
+
+import java.util.Arrays;
+
+/**
+ * A lightweight, reusable view of an xpath such as
+ *     //ldml/characters/exemplarCharacters[@type="auxiliary"]
+ * Unlike {@link XPathParts}, it doesn't create Element objects, attribute maps or substrings: {@link #set(CharSequence)}
+ * scans the path once and records the offsets of the element names and of the attribute names and values,
+ * and the accessors read straight from the source. It also has methods for writing a (possibly modified) copy of
+ * the path into a StringBuilder, so that a path can be rewritten without materializing an XPathParts.
+ * <p>
+ * The attributes are kept in source order, and the path is not checked against the DTD. For paths in CLDR's
+ * canonical form (attributes in DTD order, values in double quotes, as produced by XPathParts.toString()),
+ * appending all the elements and attributes gives back the same string that XPathParts.toString() would.
+ * <p>
+ * Not thread-safe; a view is meant to be reused by one thread, e.g. in a loop over the paths of a file.
+ */
+public final class XPathView {
+    private CharSequence source = "";
+    private boolean singleQuotes;
+
+    private int elementCount;
+    // start and limit of each element name, and index of its first attribute; firstAttribute[elementCount] == attributeCount
+    private int[] elementStart = new int[8];
+    private int[] elementLimit = new int[8];
+    private int[] firstAttribute = new int[9];
+
+    private int attributeCount;
+    private int[] nameStart = new int[8];
+    private int[] nameLimit = new int[8];
+    private int[] valueStart = new int[8];
+    private int[] valueLimit = new int[8];
+
+    /**
+     * Parse a path, replacing whatever the view held before. The syntax is the same as for
+     * {@link XPathParts#getFrozenInstance(String)}.
+     *
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    public XPathView set(CharSequence xPath) {
+        source = xPath;
+        singleQuotes = false;
+        elementCount = 0;
+        attributeCount = 0;
+        int len = xPath.length();
+        if (len < 2 || xPath.charAt(0) != '/' || xPath.charAt(1) != '/') {
+            throw parseError(0);
+        }
+        int stringStart = 2;
+        int lastNameStart = 0;
+        int lastNameLimit = 0;
+        char state = 'p';
+        // same state machine as XPathParts.addInternal
+        for (int i = 2; i < len; ++i) {
+            char cp = xPath.charAt(i);
+            if (cp != state && (state == '\"' || state == '\'')) {
+                continue; // stay in quotation
+            }
+            switch (cp) {
+            case '/':
+            case '[':
+                if (state != 'p' || stringStart >= i) {
+                    throw parseError(i);
+                }
+                if (stringStart > 0) {
+                    addElement(stringStart, i);
+                }
+                if (cp == '/') {
+                    stringStart = i + 1;
+                } else {
+                    state = cp;
+                }
+                break;
+            case '@':
+                if (state != '[') {
+                    throw parseError(i);
+                }
+                stringStart = i + 1;
+                state = cp;
+                break;
+            case '=':
+                if (state != '@' || stringStart >= i) {
+                    throw parseError(i);
+                }
+                lastNameStart = stringStart;
+                lastNameLimit = i;
+                state = cp;
+                break;
+            case '\"':
+            case '\'':
+                if (state == cp) { // finished
+                    if (stringStart > i) {
+                        throw parseError(i);
+                    }
+                    addAttribute(lastNameStart, lastNameLimit, stringStart, i);
+                    state = 'e';
+                    break;
+                }
+                if (state != '=') {
+                    throw parseError(i);
+                }
+                singleQuotes |= cp == '\'';
+                stringStart = i + 1;
+                state = cp;
+                break;
+            case ']':
+                if (state != 'e') {
+                    throw parseError(i);
+                }
+                state = 'p';
+                stringStart = -1;
+                break;
+            }
+        }
+        // check to make sure terminated
+        if (state != 'p' || stringStart >= len) {
+            throw parseError(len);
+        }
+        if (stringStart > 0) {
+            addElement(stringStart, len);
+        }
+        return this;
+    }
+
+    private void addElement(int start, int limit) {
+        if (elementCount == elementStart.length) {
+            elementStart = Arrays.copyOf(elementStart, elementCount * 2);
+            elementLimit = Arrays.copyOf(elementLimit, elementCount * 2);
+            firstAttribute = Arrays.copyOf(firstAttribute, elementCount * 2 + 1);
+        }
+        elementStart[elementCount] = start;
+        elementLimit[elementCount] = limit;
+        firstAttribute[elementCount] = attributeCount;
+        firstAttribute[++elementCount] = attributeCount;
+    }
+
+    private void addAttribute(int nStart, int nLimit, int vStart, int vLimit) {
+        if (elementCount == 0) {
+            throw parseError(nStart);
+        }
+        if (attributeCount == nameStart.length) {
+            nameStart = Arrays.copyOf(nameStart, attributeCount * 2);
+            nameLimit = Arrays.copyOf(nameLimit, attributeCount * 2);
+            valueStart = Arrays.copyOf(valueStart, attributeCount * 2);
+            valueLimit = Arrays.copyOf(valueLimit, attributeCount * 2);
+        }
+        nameStart[attributeCount] = nStart;
+        nameLimit[attributeCount] = nLimit;
+        valueStart[attributeCount] = vStart;
+        valueLimit[attributeCount] = vLimit;
+        firstAttribute[elementCount] = ++attributeCount;
+    }
+
+    private IllegalArgumentException parseError(int i) {
+        return new IllegalArgumentException("Malformed xPath '" + source + "' at " + i);
+    }
+
+    /**
+     * @return the path that was last set
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * @return true if any attribute value of the path is in single quotes. Such a path is not in canonical form,
+     * and the append methods (which always use double quotes) won't reproduce it.
+     */
+    public boolean hasSingleQuotes() {
+        return singleQuotes;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return elementCount;
+    }
+
+    /**
+     * @return the name of the element at the index. This allocates a String; use {@link #elementEquals} to compare.
+     */
+    public String getElement(int elementIndex) {
+        if (elementIndex < 0) {
+            elementIndex += elementCount;
+        }
+        checkElement(elementIndex);
+        return source.subSequence(elementStart[elementIndex], elementLimit[elementIndex]).toString();
+    }
+
+    /**
+     * @return true if the element at the index has the given name
+     */
+    public boolean elementEquals(int elementIndex, String element) {
+        if (elementIndex < 0) {
+            elementIndex += elementCount;
+        }
+        checkElement(elementIndex);
+        return regionEquals(elementStart[elementIndex], elementLimit[elementIndex], element);
+    }
+
+    /**
+     * @return the index of the first element with the given name, or -1 if there is none
+     */
+    public int findElement(String element) {
+        for (int i = 0; i < elementCount; ++i) {
+            if (regionEquals(elementStart[i], elementLimit[i], element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the path contains an element with the given name
+     */
+    public boolean containsElement(String element) {
+        return findElement(element) >= 0;
+    }
+
+    /**
+     * @return the number of attributes of the element at the index
+     */
+    public int getAttributeCount(int elementIndex) {
+        if (elementIndex < 0) {
+            elementIndex += elementCount;
+        }
+        checkElement(elementIndex);
+        return firstAttribute[elementIndex + 1] - firstAttribute[elementIndex];
+    }
+
+    /**
+     * @return the name of an attribute of an element, by position within the element. Allocates a String.
+     */
+    public String getAttributeName(int elementIndex, int attributeIndex) {
+        int a = attribute(elementIndex, attributeIndex);
+        return source.subSequence(nameStart[a], nameLimit[a]).toString();
+    }
+
+    /**
+     * @return the value of an attribute of an element, by position within the element. Allocates a String.
+     */
+    public String getAttributeValue(int elementIndex, int attributeIndex) {
+        int a = attribute(elementIndex, attributeIndex);
+        return source.subSequence(valueStart[a], valueLimit[a]).toString();
+    }
+
+    /**
+     * @return true if the attribute at the position within the element has the given name
+     */
+    public boolean attributeNameEquals(int elementIndex, int attributeIndex, String attribute) {
+        int a = attribute(elementIndex, attributeIndex);
+        return regionEquals(nameStart[a], nameLimit[a], attribute);
+    }
+
+    /**
+     * @return true if the attribute at the position within the element has the given value
+     */
+    public boolean attributeValueEquals(int elementIndex, int attributeIndex, String value) {
+        int a = attribute(elementIndex, attributeIndex);
+        return regionEquals(valueStart[a], valueLimit[a], value);
+    }
+
+    /**
+     * @return the offset of the first occurrence of the string in the value of the attribute (relative to the
+     * start of the value), or -1 if it doesn't occur
+     */
+    public int indexOfInAttributeValue(int elementIndex, int attributeIndex, String s) {
+        int a = attribute(elementIndex, attributeIndex);
+        int start = valueStart[a];
+        int last = valueLimit[a] - s.length();
+        for (int i = start; i <= last; ++i) {
+            if (regionEquals(i, i + s.length(), s)) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position within the element of the attribute with the given name, or -1 if there is none
+     */
+    public int indexOfAttribute(int elementIndex, String attribute) {
+        if (elementIndex < 0) {
+            elementIndex += elementCount;
+        }
+        checkElement(elementIndex);
+        int first = firstAttribute[elementIndex];
+        for (int a = first; a < firstAttribute[elementIndex + 1]; ++a) {
+            if (regionEquals(nameStart[a], nameLimit[a], attribute)) {
+                return a - first;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if any element of the path has the attribute
+     */
+    public boolean containsAttribute(String attribute) {
+        for (int a = 0; a < attributeCount; ++a) {
+            if (regionEquals(nameStart[a], nameLimit[a], attribute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if any element of the path has the attribute with the value
+     */
+    public boolean containsAttributeValue(String attribute, String value) {
+        for (int a = 0; a < attributeCount; ++a) {
+            if (regionEquals(nameStart[a], nameLimit[a], attribute)
+                && regionEquals(valueStart[a], valueLimit[a], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the value of an attribute of the first element with the given name, like
+     * {@link XPathParts#findAttributeValue(String, String)}. Only the result is allocated.
+     *
+     * @return the value, or null if the element or the attribute is missing
+     */
+    public String findAttributeValue(String element, String attribute) {
+        int elementIndex = findElement(element);
+        if (elementIndex < 0) {
+            return null;
+        }
+        int attributeIndex = indexOfAttribute(elementIndex, attribute);
+        return attributeIndex < 0 ? null : getAttributeValue(elementIndex, attributeIndex);
+    }
+
+    /**
+     * Append "/element" for the element at the index, without its attributes.
+     */
+    public StringBuilder appendElement(StringBuilder target, int elementIndex) {
+        checkElement(elementIndex);
+        return target.append('/').append(source, elementStart[elementIndex], elementLimit[elementIndex]);
+    }
+
+    /**
+     * Append [@attribute="value"] for an attribute, by position within the element.
+     */
+    public StringBuilder appendAttribute(StringBuilder target, int elementIndex, int attributeIndex) {
+        int a = attribute(elementIndex, attributeIndex);
+        return appendAttributeAt(target, a, valueLimit[a] - valueStart[a]);
+    }
+
+    /**
+     * Append [@attribute="value"] for an attribute, keeping only the first valueLength chars of the value.
+     */
+    public StringBuilder appendAttribute(StringBuilder target, int elementIndex, int attributeIndex, int valueLength) {
+        int a = attribute(elementIndex, attributeIndex);
+        if (valueLength < 0 || valueLength > valueLimit[a] - valueStart[a]) {
+            throw new IndexOutOfBoundsException("Bad value length: " + valueLength);
+        }
+        return appendAttributeAt(target, a, valueLength);
+    }
+
+    /**
+     * Append [@attribute="value"] for an attribute, with a replacement value.
+     */
+    public StringBuilder appendAttribute(StringBuilder target, int elementIndex, int attributeIndex, CharSequence value) {
+        int a = attribute(elementIndex, attributeIndex);
+        return target.append("[@").append(source, nameStart[a], nameLimit[a]).append("=\"").append(value).append("\"]");
+    }
+
+    private StringBuilder appendAttributeAt(StringBuilder target, int a, int valueLength) {
+        return target.append("[@").append(source, nameStart[a], nameLimit[a])
+            .append("=\"").append(source, valueStart[a], valueStart[a] + valueLength).append("\"]");
+    }
+
+    /**
+     * Append the element at the index with all of its attributes.
+     */
+    public StringBuilder appendElementWithAttributes(StringBuilder target, int elementIndex) {
+        appendElement(target, elementIndex);
+        for (int a = firstAttribute[elementIndex]; a < firstAttribute[elementIndex + 1]; ++a) {
+            appendAttributeAt(target, a, valueLimit[a] - valueStart[a]);
+        }
+        return target;
+    }
+
+    /**
+     * Append the whole path, normalized to double quotes: "/" followed by each element with its attributes.
+     */
+    public StringBuilder appendTo(StringBuilder target) {
+        target.append('/');
+        for (int i = 0; i < elementCount; ++i) {
+            appendElementWithAttributes(target, i);
+        }
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(source.length())).toString();
+    }
+
+    private int attribute(int elementIndex, int attributeIndex) {
+        if (elementIndex < 0) {
+            elementIndex += elementCount;
+        }
+        checkElement(elementIndex);
+        int a = firstAttribute[elementIndex] + attributeIndex;
+        if (attributeIndex < 0 || a >= firstAttribute[elementIndex + 1]) {
+            throw new IndexOutOfBoundsException("Attribute index " + attributeIndex + " out of range for element " + elementIndex);
+        }
+        return a;
+    }
+
+    private void checkElement(int elementIndex) {
+        if (elementIndex < 0 || elementIndex >= elementCount) {
+            throw new IndexOutOfBoundsException("Element index " + elementIndex + " out of range: " + elementCount);
+        }
+    }
+
+    private boolean regionEquals(int start, int limit, String s) {
+        if (limit - start != s.length()) {
+            return false;
+        }
+        CharSequence source = this.source;
+        for (int i = start; i < limit; ++i) {
+            if (source.charAt(i) != s.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -16,6 +16,7 @@ public class AllTests extends TestGroup {
         CldrPathTest.class,
         CldrValueTest.class,
         FilteredDataTest.class,
+        MappedDataSupplierTest.class,
         PathMatcherTest.class,
         PrefixVisitorTest.class,
         XmlDataSourceTest.class);
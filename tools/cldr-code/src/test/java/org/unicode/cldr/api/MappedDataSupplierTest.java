@@ -0,0 +1,94 @@
+package org.unicode.cldr.api;
+
+import static org.unicode.cldr.api.CldrData.PathOrder.DTD;
+import static org.unicode.cldr.api.CldrDataSupplier.CldrResolution.RESOLVED;
+import static org.unicode.cldr.api.CldrDataSupplier.CldrResolution.UNRESOLVED;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.unicode.cldr.api.CldrDataSupplier.CldrResolution;
+import org.unicode.cldr.util.CLDRPaths;
+
+import com.google.common.collect.ImmutableSet;
+import com.ibm.icu.dev.test.TestFmwk;
+
+public class MappedDataSupplierTest extends TestFmwk {
+    private static final ImmutableSet<String> LOCALES = ImmutableSet.of("root", "en", "en_GB", "de_CH");
+
+    public void TestSameDataAsSource() throws IOException {
+        CldrDataSupplier source = CldrDataSupplier.forCldrFilesIn(Paths.get(CLDRPaths.BASE_DIRECTORY));
+        Path dataFile = Files.createTempFile("MappedDataSupplierTest", ".bin");
+        try {
+            CldrDataSupplier.writeMappedDataFile(source, CldrDraftStatus.UNCONFIRMED, LOCALES,
+                EnumSet.allOf(CldrResolution.class), EnumSet.of(CldrDataType.BCP47), dataFile);
+            CldrDataSupplier mapped = CldrDataSupplier.forMappedDataFile(dataFile);
+
+            assertEquals("locales", LOCALES, mapped.getAvailableLocaleIds());
+            for (String localeId : LOCALES) {
+                for (CldrResolution resolution : CldrResolution.values()) {
+                    assertSameData(localeId + " " + resolution,
+                        source.getDataForLocale(localeId, resolution),
+                        mapped.getDataForLocale(localeId, resolution));
+                }
+            }
+            assertSameData("bcp47",
+                source.getDataForType(CldrDataType.BCP47), mapped.getDataForType(CldrDataType.BCP47));
+            assertEquals("unknown locale", 0, getValues(mapped.getDataForLocale("fr", UNRESOLVED)).size());
+
+            // Filtering by draft status after the fact works for unresolved data.
+            CldrDataSupplier approved = source.withDraftStatusAtLeast(CldrDraftStatus.APPROVED);
+            CldrDataSupplier mappedApproved = mapped.withDraftStatusAtLeast(CldrDraftStatus.APPROVED);
+            assertSameData("de_CH approved",
+                approved.getDataForLocale("de_CH", UNRESOLVED),
+                mappedApproved.getDataForLocale("de_CH", UNRESOLVED));
+        } finally {
+            Files.deleteIfExists(dataFile);
+        }
+    }
+
+    public void TestGet() throws IOException {
+        CldrDataSupplier source = CldrDataSupplier.forCldrFilesIn(Paths.get(CLDRPaths.BASE_DIRECTORY));
+        Path dataFile = Files.createTempFile("MappedDataSupplierTest", ".bin");
+        try {
+            CldrDataSupplier.writeMappedDataFile(source, CldrDraftStatus.UNCONFIRMED,
+                ImmutableSet.of("en_GB"), EnumSet.of(RESOLVED), EnumSet.noneOf(CldrDataType.class), dataFile);
+            CldrData expected = source.getDataForLocale("en_GB", RESOLVED);
+            CldrData actual = CldrDataSupplier.forMappedDataFile(dataFile).getDataForLocale("en_GB", RESOLVED);
+            List<CldrValue> values = getValues(expected);
+            for (int i = 0; i < values.size(); i += 97) {
+                CldrValue value = values.get(i);
+                assertEquals(value.getPath().toString(), value, actual.get(value.getPath()));
+            }
+            CldrPath missing = CldrPath.parseDistinguishingPath("//ldml/localeDisplayNames/languages/language[@type=\"xyz\"]");
+            assertNull("missing path", actual.get(missing));
+        } finally {
+            Files.deleteIfExists(dataFile);
+        }
+    }
+
+    private void assertSameData(String message, CldrData expected, CldrData actual) {
+        List<CldrValue> expectedValues = getValues(expected);
+        List<CldrValue> actualValues = getValues(actual);
+        assertEquals(message + " size", expectedValues.size(), actualValues.size());
+        assertEquals(message + " values", ImmutableSet.copyOf(expectedValues), ImmutableSet.copyOf(actualValues));
+        for (int i = 0; i < Math.min(expectedValues.size(), actualValues.size()); i++) {
+            if (!assertEquals(message + " draft status", expectedValues.get(i).getPath().getDraftStatus(),
+                actualValues.get(i).getPath().getDraftStatus())) {
+                break;
+            }
+        }
+    }
+
+    private static List<CldrValue> getValues(CldrData data) {
+        List<CldrValue> values = new ArrayList<>();
+        data.accept(DTD, values::add);
+        values.sort((a, b) -> a.getPath().compareTo(b.getPath()));
+        return values;
+    }
+}
@@ -0,0 +1,65 @@
+package org.unicode.cldr.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRPaths;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+class Ldml2JsonConverterTest {
+    /**
+     * The converter builds each section tree once, writes it to both the modern and the full package, and streams it
+     * to the file. Each file must be byte-identical to what the previous writer made of the same tree: the tree
+     * turned into a String with gson.toJson, and then printed with println.
+     */
+    @Test
+    void testOutputMatchesPreviousWriter(@TempDir Path outputDir) throws IOException, ParseException {
+        Ldml2JsonConverter converter = new Ldml2JsonConverter(CLDRPaths.COMMON_DIRECTORY, outputDir.toString(),
+            "main", false, false, "optional", "fr", true, null, "1.0.0", true, true);
+        final Map<File, JsonObject> trees = new ConcurrentHashMap<>();
+        converter.sectionWritten = (file, tree) -> assertNull(trees.put(file, tree), file.toString());
+        converter.processDirectory("main", DraftStatus.unconfirmed);
+
+        // fr is in the modern tier, so it is written to both packages, from the same tree
+        final File modern = outputDir.resolve("cldr-dates-modern/main/fr/ca-gregorian.json").toFile();
+        final File full = outputDir.resolve("cldr-dates-full/main/fr/ca-gregorian.json").toFile();
+        assertTrue(trees.containsKey(modern), modern.toString());
+        assertSame(trees.get(modern), trees.get(full), "one tree for both packages");
+
+        assertTrue(trees.size() > 20, "sections written: " + trees.size());
+        for (Map.Entry<File, JsonObject> entry : trees.entrySet()) {
+            final File file = entry.getKey();
+            assertArrayEquals(previousWriter(converter.gson, entry.getValue()), Files.readAllBytes(file.toPath()),
+                file.toString());
+        }
+    }
+
+    /**
+     * What the previous writer made of a tree.
+     */
+    private static byte[] previousWriter(Gson gson, JsonObject tree) {
+        final StringWriter result = new StringWriter();
+        try (PrintWriter outf = new PrintWriter(result)) {
+            outf.println(gson.toJson(tree));
+        }
+        return result.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package org.unicode.cldr.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.CompoundCheckCLDR;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.test.CheckCLDR.Phase;
+import org.unicode.cldr.test.ConsoleCheckCLDR.LocaleCheck;
+import org.unicode.cldr.test.ConsoleCheckCLDR.LocaleChecker;
+import org.unicode.cldr.test.ConsoleCheckCLDR.PathCheck;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.Level;
+import org.unicode.cldr.util.PathHeader;
+
+public class TestConsoleCheckCLDR {
+    private static final CLDRConfig CONFIG = CLDRConfig.getInstance();
+
+    /**
+     * Checking with several threads must give the same results, in the same order, as with one, and handleFinish
+     * must report the same thing once rather than once per thread.
+     */
+    @Test
+    void testParallelMatchesSerial() {
+        List<String> serialFinish = new ArrayList<>();
+        List<String> serial = check(1, serialFinish);
+        List<String> parallelFinish = new ArrayList<>();
+        List<String> parallel = check(4, parallelFinish);
+        assertTrue(serial.size() > 2000, "enough paths to be split into runs: " + serial.size());
+        assertEquals(serial, parallel);
+        assertEquals(serialFinish, parallelFinish);
+    }
+
+    /**
+     * Check fr the way ConsoleCheckCLDR.main does, returning a line for each result, and adding the lines that
+     * handleFinish prints to finishOutput.
+     */
+    private List<String> check(int threadCount, List<String> finishOutput) {
+        Factory cldrFactory = CONFIG.getCldrFactory();
+        CLDRFile english = CONFIG.getEnglish();
+        CompoundCheckCLDR checkCldr = CheckCLDR.getCheckAll(cldrFactory, ".*");
+        checkCldr.setEnglishFile(english);
+        LocaleChecker localeChecker = new LocaleChecker(checkCldr, threadCount, cldrFactory, ".*", english,
+            PathHeader.getFactory(english), ".*", null, null, false, false, false);
+
+        Map<String, String> options = new HashMap<>();
+        options.put(Options.Option.phase.getKey(), Phase.SUBMISSION.toString());
+        List<LocaleCheck> localeChecks = Collections.singletonList(new LocaleCheck("fr", true, Level.BASIC, options));
+
+        List<String> result = new ArrayList<>();
+        try {
+            for (LocaleCheck localeCheck : localeChecker.check(localeChecks)) {
+                for (CheckStatus status : localeCheck.possibleErrors) {
+                    result.add(localeCheck.localeID + "\t" + status);
+                }
+                for (PathCheck pathCheck : localeCheck.pathChecks) {
+                    result.add(pathCheck.path + "\t" + pathCheck.value + "\t" + pathCheck.result);
+                }
+            }
+        } finally {
+            localeChecker.shutdown();
+        }
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream finish = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(finish, true));
+            localeChecker.handleFinish();
+        } finally {
+            System.setOut(out);
+        }
+        Collections.addAll(finishOutput, finish.toString().split("\n"));
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package org.unicode.cldr.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.unicode.cldr.util.CLDRPaths;
+
+import com.google.common.collect.ImmutableSet;
+
+public class TestGenerateProductionData {
+    private static final List<String> LOCALES = Arrays.asList("root", "de", "de_AT", "fr", "fr_CA", "fr_CH");
+    private static final FileTime OLD = FileTime.fromMillis(0);
+
+    /**
+     * An incremental run must only rewrite the locales whose inputs changed: a changed parent, and all its
+     * descendants. What it leaves must be byte-identical to a full run on the same source.
+     */
+    @Test
+    void testIncrementalMatchesFull(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("source/common");
+        final Path sourceMain = source.resolve("main");
+        Files.createDirectories(sourceMain);
+        for (String locale : LOCALES) {
+            Files.copy(Paths.get(CLDRPaths.MAIN_DIRECTORY, locale + ".xml"), sourceMain.resolve(locale + ".xml"));
+        }
+        final Path incremental = tempDir.resolve("incremental/common");
+        final Path incrementalMain = incremental.resolve("main");
+
+        // with no manifest yet, everything is generated
+        generate(source, incremental, true);
+        assertEquals(fileNames(LOCALES), rewritten(incrementalMain), "first run");
+        assertTrue(Files.isRegularFile(tempDir.resolve("incremental/" + GenerateProductionData.Manifest.FILE_NAME)));
+
+        markOld(incrementalMain);
+        generate(source, incremental, true);
+        assertEquals(Collections.emptySet(), rewritten(incrementalMain), "nothing changed");
+
+        // a change to a parent locale regenerates it and its descendants, and nothing else
+        final Path fr = sourceMain.resolve("fr.xml");
+        final String frText = new String(Files.readAllBytes(fr), StandardCharsets.UTF_8);
+        final String changedText = frText.replace("<language type=\"de\">allemand</language>",
+            "<language type=\"de\">allemand (modifié)</language>");
+        assertNotEquals(frText, changedText, "fr.xml changed");
+        Files.write(fr, changedText.getBytes(StandardCharsets.UTF_8));
+
+        markOld(incrementalMain);
+        generate(source, incremental, true);
+        assertEquals(ImmutableSet.of("fr.xml", "fr_CA.xml", "fr_CH.xml"), rewritten(incrementalMain), "fr changed");
+
+        final Path full = tempDir.resolve("full/common");
+        generate(source, full, false);
+        assertEquals(contents(full), contents(incremental), "incremental run matches full run");
+    }
+
+    private static void generate(Path source, Path destination, boolean incremental) {
+        GenerateProductionData.main(new String[] {
+            "--sourceDirectory", source.toString(),
+            "--destinationDirectory", destination.toString(),
+            "--incremental", String.valueOf(incremental),
+        });
+    }
+
+    private static Set<String> fileNames(List<String> locales) {
+        return locales.stream().map(locale -> locale + ".xml").collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Set the modification time of every file in the directory far back, so that rewritten files can be told apart.
+     */
+    private static void markOld(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, OLD);
+            }
+        }
+    }
+
+    /**
+     * The names of the files in the directory that were written since {@link #markOld(Path)}
+     */
+    private static Set<String> rewritten(Path directory) throws IOException {
+        Set<String> result = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.getLastModifiedTime(file).equals(OLD)) {
+                    result.add(file.getFileName().toString());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The contents of all the files under the directory, by relative path
+     */
+    private static Map<String, String> contents(Path directory) throws IOException {
+        Map<String, String> result = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    result.put(directory.relativize(file).toString(),
+                        new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -15,6 +15,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +49,8 @@ import org.unicode.cldr.util.SimpleFactory;
 import org.unicode.cldr.util.SupplementalDataInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralType;
+import org.unicode.cldr.util.XPathParts;
+import org.unicode.cldr.util.XPathView;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
@@ -882,4 +887,124 @@ public class TestCLDRFile extends TestFmwk {
             errln("Failure: " + Joiner.on('\n').join(Sets.difference(es.getRawExtraPaths(), es_US.getRawExtraPaths())));
         }
     }
+
+    public void TestXPathView() {
+        XPathView view = new XPathView();
+        StringBuilder buffer = new StringBuilder();
+        for (String locale : Arrays.asList("root", "de", "de_CH")) {
+            CLDRFile cldrFile = cldrFactory.make(locale, false);
+            for (String path : cldrFile) {
+                String fullPath = cldrFile.getFullXPath(path);
+                XPathParts parts = XPathParts.getFrozenInstance(fullPath);
+                view.set(fullPath);
+                buffer.setLength(0);
+                if (!assertEquals(locale + " toString", parts.toString(), view.appendTo(buffer).toString())) {
+                    continue;
+                }
+                assertEquals(fullPath + " size", parts.size(), view.size());
+                for (int i = 0; i < parts.size(); ++i) {
+                    assertTrue(fullPath + " element " + i, view.elementEquals(i, parts.getElement(i)));
+                    assertEquals(fullPath + " count " + i, parts.getAttributeCount(i), view.getAttributeCount(i));
+                }
+                for (String attribute : Arrays.asList("draft", "alt", "type", "count")) {
+                    assertEquals(fullPath + " " + attribute, parts.containsAttribute(attribute), view.containsAttribute(attribute));
+                }
+                String last = parts.getElement(-1);
+                assertEquals(fullPath + " type", parts.findAttributeValue(last, "type"), view.findAttributeValue(last, "type"));
+            }
+        }
+
+        String[][] tests = {
+            { "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@alt=\"short-proposed-x1\"][@draft=\"provisional\"]",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@alt=\"short\"]" },
+            { "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@alt=\"proposed-x1\"]",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en\"]" },
+            { "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@alt=\"variant\"][@draft=\"contributed\"]",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@alt=\"variant\"]" },
+            { "//ldml/localeDisplayNames/languages/language[@type='en'][@draft='contributed']",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en\"]" },
+            // duplicate attributes: the last one wins, as in XPathParts
+            { "//ldml/localeDisplayNames/languages/language[@type=\"en_GB\"][@alt=\"short\"][@alt=\"proposed-x1\"]",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en_GB\"]" },
+            // attributes out of DTD order are put in order
+            { "//ldml/localeDisplayNames/languages/language[@alt=\"variant\"][@type=\"en\"][@draft=\"contributed\"]",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@alt=\"variant\"]" },
+        };
+        for (String[] test : tests) {
+            assertEquals(test[0], test[1], CLDRFile.getNondraftNonaltXPath(test[0]));
+        }
+    }
+
+    /**
+     * getNondraftNonaltXPath doesn't lock; check that many threads calling it at once
+     * get the same results as the XPathParts-based computation.
+     */
+    public void TestNondraftNonaltXPathThreads() throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (String locale : Arrays.asList("root", "de", "fr", "ja")) {
+            CLDRFile cldrFile = cldrFactory.make(locale, false);
+            for (String path : cldrFile) {
+                String fullPath = cldrFile.getFullXPath(path);
+                paths.add(fullPath);
+                if (fullPath.startsWith("//ldml/localeDisplayNames")) {
+                    // add some proposed variants, with and without another alt value
+                    paths.add(fullPath + "[@alt=\"proposed-x1\"]");
+                    paths.add(fullPath + "[@alt=\"variant-proposed-x2\"][@draft=\"unconfirmed\"]");
+                }
+            }
+        }
+        String[] pathArray = paths.toArray(new String[paths.size()]);
+        String[] expected = new String[pathArray.length];
+        for (int i = 0; i < pathArray.length; ++i) {
+            expected[i] = nondraftNonaltByXPathParts(pathArray[i]);
+        }
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; ++t) {
+                final int offset = t * pathArray.length / threads; // start each thread at a different place
+                futures.add(pool.submit(() -> {
+                    String[] actual = new String[pathArray.length];
+                    for (int j = 0; j < pathArray.length; ++j) {
+                        int i = (j + offset) % pathArray.length;
+                        actual[i] = CLDRFile.getNondraftNonaltXPath(pathArray[i]);
+                    }
+                    return actual;
+                }));
+            }
+            for (Future<String[]> future : futures) {
+                String[] actual = future.get();
+                for (int i = 0; i < pathArray.length; ++i) {
+                    if (!assertEquals(pathArray[i], expected[i], actual[i])) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The former implementation of getNondraftNonaltXPath, as a reference.
+     */
+    private static String nondraftNonaltByXPathParts(String xpath) {
+        if (xpath.indexOf("draft=\"") < 0 && xpath.indexOf("alt=\"") < 0) {
+            return xpath;
+        }
+        XPathParts parts = XPathParts.getFrozenInstance(xpath).cloneAsThawed();
+        for (int i = 0; i < parts.size(); ++i) {
+            parts.removeAttribute(i, "draft");
+            String alt = parts.getAttributeValue(i, "alt");
+            if (alt != null) {
+                int proposedPos = alt.indexOf("proposed");
+                if (proposedPos >= 0) {
+                    parts.setAttribute(i, "alt", proposedPos > 0 ? alt.substring(0, proposedPos - 1) : null);
+                }
+            }
+        }
+        return parts.toString();
+    }
 }
@@ -177,6 +177,59 @@ public class TestCheckCLDR extends TestFmwk {
         }
     }
 
+    /**
+     * A change to one path should only remove the cached results that read it, not the whole TestResultBundle.
+     */
+    public void TestTestCacheInvalidation() {
+        String localeString = "fr";
+        CheckCLDR.Options checkCldrOptions = new Options(CLDRLocale.getInstance(localeString), Phase.SUBMISSION, "default", "basic");
+        TestCache testCache = new TestCache();
+        testCache.setFactory(testInfo.getCldrFactory(), ".*");
+        final CLDRFile cldrFile = testInfo.getCLDRFile(localeString, true);
+        final String changedPath = "//ldml/localeDisplayNames/territories/territory[@type=\"FR\"]";
+        final String otherPath = "//ldml/delimiters/quotationStart";
+        List<CheckStatus> result = new ArrayList<>();
+
+        TestResultBundle bundle = testCache.getBundle(checkCldrOptions);
+        bundle.check(changedPath, result, cldrFile.getStringValue(changedPath));
+        bundle.check(otherPath, result, cldrFile.getStringValue(otherPath));
+        assertEquals("misses before the change", 2, testCache.getMissCount());
+
+        testCache.valueChanged(changedPath, new SimpleXMLSource(localeString));
+        assertEquals("bundles invalidated", 0, testCache.getBundleInvalidationCount());
+        assertTrue("results invalidated", testCache.getInvalidationCount() >= 1);
+
+        bundle = testCache.getBundle(checkCldrOptions);
+        bundle.check(otherPath, result, cldrFile.getStringValue(otherPath));
+        assertEquals("hits after the change", 1, testCache.getHitCount());
+        bundle.check(changedPath, result, cldrFile.getStringValue(changedPath));
+        assertEquals("misses after the change", 3, testCache.getMissCount());
+    }
+
+    /**
+     * CheckDates builds a DateTimePatternGenerator from the availableFormats of the locale and its parents when it
+     * first checks a datetimeSkeleton, without the reads being recorded, so a change to one of those must drop the
+     * whole TestResultBundle.
+     */
+    public void TestTestCacheLazyState() {
+        String localeString = "fr";
+        CheckCLDR.Options checkCldrOptions = new Options(CLDRLocale.getInstance(localeString), Phase.SUBMISSION, "default", "basic");
+        TestCache testCache = new TestCache();
+        testCache.setFactory(testInfo.getCldrFactory(), ".*");
+        final CLDRFile cldrFile = testInfo.getCLDRFile(localeString, true);
+        final String calendarPath = "//ldml/dates/calendars/calendar[@type=\"gregorian\"]";
+        final String skeletonPath = calendarPath
+            + "/dateFormats/dateFormatLength[@type=\"short\"]/dateFormat[@type=\"standard\"]/datetimeSkeleton";
+        final String availableFormatPath = calendarPath
+            + "/dateTimeFormats/availableFormats/dateFormatItem[@id=\"yMd\"]";
+        List<CheckStatus> result = new ArrayList<>();
+
+        TestResultBundle bundle = testCache.getBundle(checkCldrOptions);
+        bundle.check(skeletonPath, result, cldrFile.getStringValue(skeletonPath));
+        testCache.valueChanged(availableFormatPath, new SimpleXMLSource(localeString));
+        assertEquals("bundles invalidated", 1, testCache.getBundleInvalidationCount());
+    }
+
     /**
      * Test the "collisionless" error/warning messages.
      */
@@ -11,6 +11,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 
 import org.unicode.cldr.util.CLDRConfig;
@@ -18,12 +20,14 @@ import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.LocaleIDParser;
 import org.unicode.cldr.util.SimpleFactory;
 import org.unicode.cldr.util.SimpleXMLSource;
 import org.unicode.cldr.util.SupplementalDataInfo;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 public class TestCldrFactory extends TestFmwkPlus {
     private static final boolean DEBUG = false;
@@ -198,4 +202,39 @@ public class TestCldrFactory extends TestFmwkPlus {
         pw.flush();
         return stringWriter.toString();
     }
+
+    public void testPreload() {
+        Factory factory = testInfo.getCldrFactory();
+        Set<String> locales = ImmutableSet.of("sr_Latn_BA", "sr_Latn", "de_CH", "de", "en_AU", "fr", "root");
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        Map<String, CLDRFile> preloaded;
+        try {
+            preloaded = factory.preload(locales, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals("locales", locales, preloaded.keySet());
+
+        // parents come before their children
+        Set<String> done = new TreeSet<>();
+        for (String locale : preloaded.keySet()) {
+            String parent = LocaleIDParser.getParent(locale);
+            if (parent != null && locales.contains(parent)) {
+                assertTrue(parent + " before " + locale, done.contains(parent));
+            }
+            done.add(locale);
+        }
+
+        // same contents as the files made one at a time
+        for (Map.Entry<String, CLDRFile> entry : preloaded.entrySet()) {
+            CLDRFile expected = factory.make(entry.getKey(), true);
+            CLDRFile actual = entry.getValue();
+            assertTrue(entry.getKey() + " resolved", actual.isResolved());
+            for (String path : expected) {
+                if (!assertEquals(entry.getKey() + " " + path, expected.getStringValue(path), actual.getStringValue(path))) {
+                    break;
+                }
+            }
+        }
+    }
 }
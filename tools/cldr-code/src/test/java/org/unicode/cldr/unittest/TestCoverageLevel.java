@@ -24,6 +24,7 @@ import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.ChainedMap;
 import org.unicode.cldr.util.ChainedMap.M4;
+import org.unicode.cldr.util.CoverageInfo;
 import org.unicode.cldr.util.Counter2;
 import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.DtdData.Element;
@@ -850,4 +851,26 @@ public class TestCoverageLevel extends TestFmwkPlus {
         result.putAll("actual-expected", bMinusA);
         return result;
     }
+
+    public void TestPrecomputedLevels() {
+        CoverageInfo explicit = new CoverageInfo(SDI);
+        explicit.precompute(testInfo.getCLDRFile("de", true));
+        CoverageInfo automatic = new CoverageInfo(SDI, testInfo.getCldrFactory());
+        CoverageInfo onFirstUse = new CoverageInfo(SDI);
+        CLDRFile de = testInfo.getCLDRFile("de", true);
+        onFirstUse.precomputeOnFirstUse(de);
+        CoverageLevel2 coverageLevel2 = CoverageLevel2.getInstance(SDI, "de");
+        Set<String> paths = new TreeSet<>();
+        testInfo.getCLDRFile("de", true).fullIterable().forEach(paths::add);
+        ENGLISH.fullIterable().forEach(paths::add);
+        paths.add("//ldml/localeDisplayNames/languages/language[@type=\"xyz\"]"); // not in either
+        for (String path : paths) {
+            Level expected = coverageLevel2.getLevel(path);
+            if (!assertEquals("explicit " + path, expected, explicit.getCoverageLevel(path, "de"))
+                || !assertEquals("automatic " + path, expected, automatic.getCoverageLevel(path, "de"))
+                || !assertEquals("on first use " + path, expected, onFirstUse.getCoverageLevel(path, "de"))) {
+                break;
+            }
+        }
+    }
 }
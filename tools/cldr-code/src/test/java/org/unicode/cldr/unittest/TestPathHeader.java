@@ -4,6 +4,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -50,6 +51,9 @@ import org.unicode.cldr.util.PatternCache;
 import org.unicode.cldr.util.PatternPlaceholders;
 import org.unicode.cldr.util.PatternPlaceholders.PlaceholderInfo;
 import org.unicode.cldr.util.PatternPlaceholders.PlaceholderStatus;
+import org.unicode.cldr.util.RegexLookup;
+import org.unicode.cldr.util.RegexLookup.Finder;
+import org.unicode.cldr.util.RegexLookup.LookupType;
 import org.unicode.cldr.util.StandardCodes;
 import org.unicode.cldr.util.SupplementalDataInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo;
@@ -68,6 +72,7 @@ import com.google.common.collect.TreeMultimap;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.impl.Row.R2;
+import com.ibm.icu.util.Output;
 
 public class TestPathHeader extends TestFmwkPlus {
     private static final DtdType DEBUG_DTD_TYPE = null; // DtdType.supplementalData;
@@ -1543,4 +1548,82 @@ public class TestPathHeader extends TestFmwkPlus {
             }
         }
     }
+
+    /**
+     * The prefix trie must pick the same PathHeader.txt rule, with the same arguments, as the
+     * (default) directory tree lookup.
+     */
+    public void TestPrefixTrieLookup() {
+        RegexLookup<String> treeLookup = new RegexLookup<String>(LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP)
+            .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+            .loadFromFile(PathHeader.class, "data/PathHeader.txt");
+        RegexLookup<String> trieLookup = new RegexLookup<String>(LookupType.PREFIX_TRIE_LOOKUP)
+            .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+            .loadFromFile(PathHeader.class, "data/PathHeader.txt");
+        assertEquals("size", treeLookup.size(), trieLookup.size());
+
+        Output<String[]> treeArgs = new Output<>();
+        Output<String[]> trieArgs = new Output<>();
+        Output<Finder> treeFinder = new Output<>();
+        Output<Finder> trieFinder = new Output<>();
+        for (String path : english.fullIterable()) {
+            String treeValue = treeLookup.get(path, null, treeArgs, treeFinder, null);
+            String trieValue = trieLookup.get(path, null, trieArgs, trieFinder, null);
+            if (!assertEquals(path, treeValue, trieValue)
+                || !assertEquals(path, String.valueOf(treeFinder.value), String.valueOf(trieFinder.value))
+                || !assertEquals(path, Arrays.asList(treeArgs.value == null ? new String[0] : treeArgs.value),
+                    Arrays.asList(trieArgs.value == null ? new String[0] : trieArgs.value))) {
+                return;
+            }
+        }
+    }
+
+    public void TestWarmUpAndCacheStatistics() {
+        PathHeader.Factory phf = PathHeader.getFactory(english);
+        int count = phf.warmUp(english);
+        assertNotEquals("paths warmed up", 0, count);
+
+        long hits = phf.getCacheStatistics().hitCount();
+        int found = 0;
+        for (String path : english.fullIterable()) {
+            if (phf.fromPath(path) != null) {
+                ++found;
+            }
+        }
+        // paths without a PathHeader are never cached, so they are misses each time
+        assertRelation("hits after warmUp", true, phf.getCacheStatistics().hitCount(), GEQ, hits + found);
+    }
+
+    /**
+     * A PathHeader that is evicted from the cache and made again must sort the same as before, whatever order the
+     * paths are looked up in.
+     */
+    public void TestOrderStableAfterEviction() {
+        PathHeader.Factory phf = PathHeader.getFactory(english);
+        Map<String, PathHeader> before = new LinkedHashMap<>();
+        for (String path : english.fullIterable()) {
+            PathHeader pathHeader = phf.fromPath(path);
+            if (pathHeader != null) {
+                before.put(path, pathHeader);
+            }
+        }
+        phf.clearCache();
+        List<String> reversed = new ArrayList<>(before.keySet());
+        Collections.reverse(reversed);
+        Map<String, PathHeader> after = new HashMap<>();
+        for (String path : reversed) {
+            after.put(path, phf.fromPath(path));
+        }
+
+        for (Entry<String, PathHeader> entry : before.entrySet()) {
+            PathHeader remade = after.get(entry.getKey());
+            assertTrue(entry.getKey() + " made again", entry.getValue() != remade);
+            assertEquals(entry.getKey(), 0, entry.getValue().compareTo(remade));
+        }
+        List<String> sortedBefore = new ArrayList<>(before.keySet());
+        sortedBefore.sort((a, b) -> before.get(a).compareTo(before.get(b)));
+        List<String> sortedAfter = new ArrayList<>(before.keySet());
+        sortedAfter.sort((a, b) -> after.get(a).compareTo(after.get(b)));
+        assertEquals("sort order", sortedBefore, sortedAfter);
+    }
 }
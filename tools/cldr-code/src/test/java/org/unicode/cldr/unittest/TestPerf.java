@@ -1,20 +1,42 @@
 package org.unicode.cldr.unittest;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.unicode.cldr.draft.Keyboard;
+import org.unicode.cldr.draft.Keyboard.KeyMap;
+import org.unicode.cldr.draft.Keyboard.TransformStatus;
+import org.unicode.cldr.draft.Keyboard.TransformType;
+import org.unicode.cldr.draft.Keyboard.Transforms;
+import org.unicode.cldr.draft.Keyboard.Typer;
+import org.unicode.cldr.test.CoverageLevel2;
+import org.unicode.cldr.test.ExampleGenerator;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.DtdData.AttributeValueComparator;
+import org.unicode.cldr.util.DtdData.DtdComparator;
 import org.unicode.cldr.util.DtdType;
+import org.unicode.cldr.util.Level;
+import org.unicode.cldr.util.SupplementalDataInfo;
 import org.unicode.cldr.util.Timer;
 import org.unicode.cldr.util.XPathParts;
+import org.unicode.cldr.util.XPathParts.CachePolicy;
 
+import com.google.common.cache.CacheStats;
 import com.ibm.icu.util.Output;
 
 public class TestPerf extends TestFmwkPlus {
@@ -175,6 +197,150 @@ public class TestPerf extends TestFmwkPlus {
         assertRelation("DtdComparator", true, newSeconds, LEQ, seconds * .5);
     }
 
+    /**
+     * Sorting all the paths of a full locale in DTD order, with the sort keys of DtdComparator and by comparing the
+     * XPathParts of the paths each time. Checks that the orders are the same, and logs the times.
+     */
+    public void TestDtdSortKeys() {
+        List<String> paths = new ArrayList<>();
+        CLDRConfig.getInstance().getCldrFactory().make("de", true).fullIterable().forEach(paths::add);
+        Collections.shuffle(paths, new Random(0));
+        DtdComparator keyComparator = DtdData.getInstance(DtdType.ldml).getDtdComparator();
+        Comparator<String> partsComparator = (a, b) -> keyComparator.xpathComparator(
+            XPathParts.getFrozenInstance(a), XPathParts.getFrozenInstance(b));
+
+        // warmup, which also makes the sort keys
+        List<String> byParts = sort(paths, partsComparator);
+        List<String> byKeys = sort(paths, keyComparator);
+        assertEquals("same order", byParts, byKeys);
+
+        Timer timer = new Timer();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            sort(paths, partsComparator);
+        }
+        long partsTime = timer.stop();
+        timer.start();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            sort(paths, keyComparator);
+        }
+        long keysTime = timer.stop();
+        logln("Sorting " + paths.size() + " paths, " + ITERATIONS + " times"
+            + "\tby XPathParts: " + partsTime / 1_000_000 + " ms"
+            + "\tby sort keys: " + keysTime / 1_000_000 + " ms");
+        assertRelation("sort keys are faster", true, keysTime, LEQ, partsTime);
+    }
+
+    static final int TYPED_KEYS = 1000;
+
+    /**
+     * Types random keystrokes through the transforms of every keyboard, checking the compiled {@link Typer} against
+     * typing by matching the pending characters against the rules themselves, and logs the throughput of both.
+     */
+    public void TestKeyboardTyping() {
+        Random random = new Random(0);
+        Set<Exception> errors = new LinkedHashSet<>();
+        long typerKeys = 0;
+        long typerTime = 0;
+        long matchingKeys = 0;
+        long matchingTime = 0;
+        for (String platformId : Keyboard.getPlatformIDs()) {
+            for (String keyboardId : Keyboard.getKeyboardIDs(platformId)) {
+                Keyboard keyboard = Keyboard.getKeyboard(platformId, keyboardId, errors);
+                Transforms transforms = keyboard.getTransforms().get(TransformType.SIMPLE);
+                if (transforms == null) {
+                    continue;
+                }
+                List<String> keyOutputs = new ArrayList<>();
+                for (KeyMap keyMap : keyboard.getKeyMaps()) {
+                    for (Keyboard.Output output : keyMap.getIso2Output().values()) {
+                        if (output.getTransformStatus() == TransformStatus.DEFAULT
+                            && output.getOutput() != null && !output.getOutput().isEmpty()) {
+                            keyOutputs.add(output.getOutput());
+                        }
+                    }
+                }
+                if (keyOutputs.isEmpty()) {
+                    continue;
+                }
+                String[] keys = new String[TYPED_KEYS];
+                for (int i = 0; i < keys.length; ++i) {
+                    keys[i] = keyOutputs.get(random.nextInt(keyOutputs.size()));
+                }
+
+                Timer timer = new Timer();
+                String expected = typeByMatching(transforms, keys);
+                matchingTime += timer.stop();
+                matchingKeys += keys.length;
+
+                Typer typer = transforms.newTyper();
+                timer.start();
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    typer.reset();
+                    for (String key : keys) {
+                        typer.type(key);
+                    }
+                    typer.flush();
+                }
+                typerTime += timer.stop();
+                typerKeys += (long) ITERATIONS * keys.length;
+                assertEquals(platformId + "/" + keyboardId, expected, typer.toString());
+            }
+        }
+        double typerNanosPerKey = typerTime / (double) typerKeys;
+        double matchingNanosPerKey = matchingTime / (double) matchingKeys;
+        logln("Typing " + typerKeys + " keys with Typer: " + (long) typerNanosPerKey + " ns/key"
+            + "\tby matching the rules: " + (long) matchingNanosPerKey + " ns/key");
+        assertRelation("Typer is faster", true, typerNanosPerKey, LEQ, matchingNanosPerKey);
+    }
+
+    /**
+     * Type the keys by matching the pending text directly against the rules, with no trie: wait while some from string
+     * is longer than the pending text and starts with it, and otherwise replace the longest from string that the
+     * pending text starts with.
+     */
+    private static String typeByMatching(Transforms transforms, String[] keys) {
+        Map<String, String> rules = transforms.getRules();
+        StringBuilder result = new StringBuilder();
+        StringBuilder pending = new StringBuilder();
+        for (String key : keys) {
+            for (int i = 0; i < key.length(); ++i) {
+                pending.append(key.charAt(i));
+                resolveByMatching(rules, pending, result, false);
+            }
+        }
+        resolveByMatching(rules, pending, result, true);
+        return result.toString();
+    }
+
+    private static void resolveByMatching(Map<String, String> rules, StringBuilder pending, StringBuilder result,
+        boolean flush) {
+        while (pending.length() > 0) {
+            String text = pending.toString();
+            String longest = null;
+            for (String from : rules.keySet()) {
+                if (!flush && from.length() > text.length() && from.startsWith(text)) {
+                    return; // may still match a longer from string
+                }
+                if (!from.isEmpty() && text.startsWith(from) && (longest == null || from.length() > longest.length())) {
+                    longest = from;
+                }
+            }
+            if (longest != null) {
+                result.append(rules.get(longest));
+                pending.delete(0, longest.length());
+            } else {
+                result.append(pending.charAt(0));
+                pending.delete(0, 1);
+            }
+        }
+    }
+
+    private static List<String> sort(List<String> paths, Comparator<String> comparator) {
+        List<String> result = new ArrayList<>(paths);
+        result.sort(comparator);
+        return result;
+    }
+
     private double checkCost(String[] sortedArray, Comparator<String> comp,
         int iterations, Output<Integer> failures2) {
         Timer timer = new Timer();
@@ -195,6 +361,163 @@ public class TestPerf extends TestFmwkPlus {
         return timer.getSeconds() / iterations;
     }
 
+    /**
+     * Many threads hammering the one shared coverage RegexLookup&lt;Level&gt;. Checks that the results are identical
+     * to a single-threaded run, and logs the times so that contention can be compared.
+     */
+    public void TestRegexLookupContention() throws Exception {
+        SupplementalDataInfo sdi = CLDRConfig.getInstance().getSupplementalDataInfo();
+        CoverageLevel2 coverage = CoverageLevel2.getInstance(sdi, "de");
+
+        // serial baseline (also the warmup)
+        Level[] expected = new Level[sortedArray.length];
+        for (int i = 0; i < sortedArray.length; ++i) {
+            expected[i] = coverage.getLevel(sortedArray[i]);
+        }
+        Timer timer = new Timer();
+        for (String path : sortedArray) {
+            coverage.getLevel(path);
+        }
+        timer.stop();
+        logln("RegexLookup serial:\t" + timer.toString());
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Level[]>> futures = new ArrayList<>();
+            timer.start();
+            for (int t = 0; t < threads; ++t) {
+                futures.add(pool.submit(() -> {
+                    Level[] actual = new Level[sortedArray.length];
+                    for (int i = 0; i < sortedArray.length; ++i) {
+                        actual[i] = coverage.getLevel(sortedArray[i]);
+                    }
+                    return actual;
+                }));
+            }
+            List<Level[]> results = new ArrayList<>();
+            for (Future<Level[]> future : futures) {
+                results.add(future.get());
+            }
+            timer.stop();
+            logln("RegexLookup " + threads + " threads:\t" + timer.toString(threads));
+
+            for (Level[] actual : results) {
+                for (int i = 0; i < sortedArray.length; ++i) {
+                    if (!assertEquals(sortedArray[i], expected[i], actual[i])) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parse cost vs. cache hit rate for the XPathParts cache policies, sweeping the paths of a set of locales.
+     * Run with -v to see the numbers.
+     */
+    public void TestXPathPartsCachePolicy() {
+        List<String> sweep = new ArrayList<>();
+        for (String locale : new String[] { "root", "en", "de", "fr", "ja", "ru", "ar", "zh", "hi", "sw" }) {
+            CLDRConfig.getInstance().getCldrFactory().make(locale, true).forEach(sweep::add);
+        }
+        Object[][] policies = {
+            { CachePolicy.NONE, 0 },
+            { CachePolicy.BOUNDED, 1_000 },
+            { CachePolicy.BOUNDED, 10_000 },
+            { CachePolicy.BOUNDED, 100_000 },
+            { CachePolicy.WEAK, 0 },
+            { CachePolicy.UNBOUNDED, 0 },
+        };
+        try {
+            for (Object[] row : policies) {
+                CachePolicy policy = (CachePolicy) row[0];
+                int maximumSize = (Integer) row[1];
+                XPathParts.setCachePolicy(policy, maximumSize);
+                Timer timer = new Timer();
+                int size = 0;
+                for (String path : sweep) {
+                    size += XPathParts.getFrozenInstance(path).size();
+                }
+                timer.stop();
+                CacheStats stats = XPathParts.getCacheStatistics();
+                logln(policy + (policy == CachePolicy.BOUNDED ? "(" + maximumSize + ")" : "")
+                    + "\ttime: " + timer.toString()
+                    + "\thit rate: " + stats.hitRate()
+                    + "\tcached: " + XPathParts.getCacheSize()
+                    + "\telements: " + size);
+                if (policy != CachePolicy.UNBOUNDED) { // UNBOUNDED doesn't record statistics
+                    assertEquals(policy + " requests", sweep.size(), stats.requestCount());
+                }
+            }
+        } finally {
+            XPathParts.setCachePolicy(CachePolicy.UNBOUNDED, 0);
+        }
+    }
+
+    /**
+     * Many threads rendering the examples of all the paths of a locale with one shared ExampleGenerator, the way the Survey Tool
+     * shares them. Checks that the results are identical to a single-threaded run without the cache, and logs the times.
+     */
+    public void TestExampleGeneratorThreads() throws Exception {
+        CLDRConfig config = CLDRConfig.getInstance();
+        CLDRFile cldrFile = config.getCldrFactory().make("de", true);
+        CLDRFile englishFile = config.getEnglish();
+        List<String> paths = new ArrayList<>();
+        cldrFile.forEach(paths::add);
+        final int size = paths.size();
+
+        // serial baseline, without the cache
+        ExampleGenerator serial = new ExampleGenerator(cldrFile, englishFile, CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
+        serial.setCachingEnabled(false);
+        String[] expected = new String[size];
+        Timer timer = new Timer();
+        for (int i = 0; i < size; ++i) {
+            String path = paths.get(i);
+            expected[i] = serial.getExampleHtml(path, cldrFile.getStringValue(path));
+        }
+        timer.stop();
+        logln("ExampleGenerator serial, " + size + " paths:\t" + timer.toString());
+
+        ExampleGenerator shared = new ExampleGenerator(cldrFile, englishFile, CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String[]>> futures = new ArrayList<>();
+            timer.start();
+            for (int t = 0; t < threads; ++t) {
+                final int start = t * size / threads; // so that the threads don't all ask for the same example at once
+                futures.add(pool.submit(() -> {
+                    String[] actual = new String[size];
+                    for (int j = 0; j < size; ++j) {
+                        int i = (start + j) % size;
+                        String path = paths.get(i);
+                        actual[i] = shared.getExampleHtml(path, cldrFile.getStringValue(path));
+                    }
+                    return actual;
+                }));
+            }
+            List<String[]> results = new ArrayList<>();
+            for (Future<String[]> future : futures) {
+                results.add(future.get());
+            }
+            timer.stop();
+            logln("ExampleGenerator " + threads + " threads:\t" + timer.toString(threads));
+
+            for (String[] actual : results) {
+                for (int i = 0; i < size; ++i) {
+                    if (!assertEquals(paths.get(i), expected[i], actual[i])) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     public void TestUnused() {
 
     }
@@ -8,14 +8,21 @@ package org.unicode.cldr.unittest;
  * cldr/tools/cldr-code/src/test/java/org/unicode/cldr/unittest/TestUtilities.java
  */
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.StringWriter;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -609,6 +616,90 @@ public class TestUtilities extends TestFmwkPlus {
         assertEquals("", "foo", new ArrayList<>(counts.keySet()).get(0));
     }
 
+    /**
+     * Changing the votes one at a time with setVote must give the same results as adding all the current votes
+     * to a new resolver; so must a resolver that was serialized and read back.
+     */
+    public void TestIncrementalVotes() throws IOException, ClassNotFoundException {
+        VoteResolver.setVoterToInfo(testdata);
+        TestUser[] voters = { TestUser.googleV, TestUser.googleV2, TestUser.googleS, TestUser.appleV, TestUser.adobeE,
+            TestUser.adobeV, TestUser.ibmV, TestUser.ibmT, TestUser.gnomeV, TestUser.guestS };
+        String[] values = { "bailey", "foo", "fii", "fuu", CldrUtility.INHERITANCE_MARKER };
+        Random random = new Random(0);
+        Map<Integer, String> voterToValue = new LinkedHashMap<>(); // in the order the votes were made
+        Map<Integer, Date> voterToDate = new HashMap<>();
+        VoteResolver<String> incremental = newIncrementalTestResolver();
+        for (int i = 0; i < 300; ++i) {
+            int voter = voters[random.nextInt(voters.length)].voterId;
+            String value = random.nextInt(4) == 0 ? null : values[random.nextInt(values.length)];
+            Date date = new Date(1000 + i);
+            incremental.setVote(value, voter, null, date);
+            voterToValue.remove(voter);
+            if (value != null) {
+                voterToValue.put(voter, value);
+                voterToDate.put(voter, date);
+            }
+
+            VoteResolver<String> rebuilt = newIncrementalTestResolver();
+            for (Entry<Integer, String> entry : voterToValue.entrySet()) {
+                rebuilt.add(entry.getValue(), entry.getKey(), null, voterToDate.get(entry.getKey()));
+            }
+            if (!assertSameResolution("vote " + i, rebuilt, incremental)) {
+                break;
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(incremental);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            VoteResolver<String> read = (VoteResolver<String>) in.readObject();
+            assertSameResolution("serialized", incremental, read);
+            int voter = TestUser.appleV.voterId;
+            incremental.setVote("fii", voter, null, new Date(5000));
+            read.setVote("fii", voter, null, new Date(5000));
+            assertSameResolution("serialized, then voted", incremental, read);
+        }
+
+        // a frozen copy keeps the results it had, and can't be changed
+        VoteResolver<String> frozen = incremental.frozenCopy();
+        assertSameResolution("frozen", incremental, frozen);
+        String winner = frozen.getWinningValue();
+        Status status = frozen.getWinningStatus();
+        incremental.setVote("fuu", TestUser.googleV.voterId, null, new Date(6000));
+        incremental.setVote("fuu", TestUser.ibmV.voterId, null, new Date(6001));
+        assertEquals("frozen winner after votes", winner, frozen.getWinningValue());
+        assertEquals("frozen status after votes", status, frozen.getWinningStatus());
+        try {
+            frozen.setVote("fii", TestUser.appleV.voterId, null, new Date(7000));
+            errln("No exception for changing a frozen copy");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    private VoteResolver<String> newIncrementalTestResolver() {
+        VoteResolver<String> resolver = new VoteResolver<>();
+        resolver.setLocale(CLDRLocale.getInstance("de"), null);
+        resolver.setBaileyValue("bailey");
+        resolver.setBaseline("foo", Status.contributed);
+        resolver.add("foo");
+        return resolver;
+    }
+
+    private boolean assertSameResolution(String message, VoteResolver<String> expected, VoteResolver<String> actual) {
+        return assertEquals(message + " winning value", expected.getWinningValue(), actual.getWinningValue())
+            && assertEquals(message + " winning status", expected.getWinningStatus(), actual.getWinningStatus())
+            && assertEquals(message + " same votes", expected.getValuesWithSameVotes(), actual.getValuesWithSameVotes())
+            && assertEquals(message + " conflicted", expected.getConflictedOrganizations(), actual.getConflictedOrganizations())
+            && assertEquals(message + " counts", expected.getResolvedVoteCounts(), actual.getResolvedVoteCounts())
+            && assertEquals(message + " google", expected.getStatusForOrganization(Organization.google),
+                actual.getStatusForOrganization(Organization.google))
+            && assertEquals(message + " size", expected.size(), actual.size());
+    }
+
     private void verifyRequiredVotes(VoteResolver<String> resolver, String locale,
         String xpath, Status baselineStatus, int required) {
         StringBuilder sb = new StringBuilder();
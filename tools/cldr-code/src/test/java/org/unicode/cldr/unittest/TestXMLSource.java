@@ -1,16 +1,35 @@
 package org.unicode.cldr.unittest;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRFile.Status;
+import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.CldrUtility;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.ICUServiceBuilder;
+import org.unicode.cldr.util.InternedXMLSource;
+import org.unicode.cldr.util.PathValueIndex;
+import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.XMLNormalizingLoader;
 import org.unicode.cldr.util.XMLSource;
+import org.unicode.cldr.util.XMLSourceSnapshot;
+import org.unicode.cldr.util.XPathIdTable;
 import org.unicode.cldr.util.XPathParts.Comments;
+import org.unicode.cldr.util.XPathParts.Comments.CommentType;
 
 import com.ibm.icu.dev.test.TestFmwk;
 
@@ -134,4 +153,227 @@ public class TestXMLSource extends TestFmwk {
         }
 
     }
+
+    public void TestInternedXMLSource() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        for (String locale : new String[] { "root", "en", "de_CH" }) {
+            CLDRFile file = factory.make(locale, false);
+            XMLSource interned = new InternedXMLSource(locale);
+            for (String path : file) {
+                interned.putValueAtPath(file.getFullXPath(path), file.getStringValue(path));
+            }
+            interned.freeze();
+
+            Set<String> paths = new HashSet<>();
+            for (String path : file) {
+                paths.add(path);
+                assertEquals(locale + " value " + path, file.getStringValue(path), interned.getValueAtDPath(path));
+                assertEquals(locale + " fullpath " + path, file.getFullXPath(path), interned.getFullPathAtDPath(path));
+            }
+            Set<String> internedPaths = new HashSet<>();
+            for (String path : interned) {
+                internedPaths.add(path);
+            }
+            assertEquals(locale + " paths", paths, internedPaths);
+        }
+        for (int id : new int[] { -1, XPathIdTable.size() + 10_000, Integer.MAX_VALUE }) {
+            try {
+                XPathIdTable.getPath(id);
+                errln("No exception for unassigned id " + id);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void TestSnapshot() throws IOException {
+        File[] files = {
+            new File(CLDRPaths.MAIN_DIRECTORY, "root.xml"),
+            new File(CLDRPaths.MAIN_DIRECTORY, "de.xml"),
+            new File(CLDRPaths.ANNOTATIONS_DIRECTORY, "en.xml"),
+            new File(CLDRPaths.SUPPLEMENTAL_DIRECTORY, "supplementalData.xml"),
+        };
+        for (File file : files) {
+            String localeId = file.getName().replace(".xml", "");
+            XMLSource parsed = XMLNormalizingLoader.loadXMLFile(file, localeId, DraftStatus.unconfirmed);
+            File snapshot = File.createTempFile("TestSnapshot", ".bin");
+            try {
+                XMLSourceSnapshot.write(parsed, snapshot);
+                XMLSource read = XMLSourceSnapshot.read(snapshot);
+                String name = file.getParentFile().getName() + "/" + localeId;
+                assertTrue(name + " frozen", read.isFrozen());
+                assertNull(name + " missing path", read.getValueAtDPath("//ldml/no/such/path"));
+
+                assertEquals(name + " locale", parsed.getLocaleID(), read.getLocaleID());
+                assertEquals(name + " nonInheriting", parsed.isNonInheriting(), read.isNonInheriting());
+                assertEquals(name + " dtdType", parsed.getXMLNormalizingDtdType(), read.getXMLNormalizingDtdType());
+                assertEquals(name + " dtdVersion", parsed.getDtdVersionInfo(), read.getDtdVersionInfo());
+                Set<String> paths = new HashSet<>();
+                for (String path : parsed) {
+                    paths.add(path);
+                    assertEquals(name + " value " + path, parsed.getValueAtDPath(path), read.getValueAtDPath(path));
+                    assertEquals(name + " fullpath " + path, parsed.getFullPathAtDPath(path), read.getFullPathAtDPath(path));
+                }
+                Set<String> readPaths = new HashSet<>();
+                for (String path : read) {
+                    readPaths.add(path);
+                }
+                assertEquals(name + " paths", paths, readPaths);
+
+                Comments parsedComments = parsed.getXpathComments();
+                Comments readComments = read.getXpathComments();
+                assertEquals(name + " initial comment", parsedComments.getInitialComment(), readComments.getInitialComment());
+                assertEquals(name + " final comment", parsedComments.getFinalComment(), readComments.getFinalComment());
+                for (CommentType type : CommentType.values()) {
+                    assertEquals(name + " " + type + " comments", parsedComments.getComments(type), readComments.getComments(type));
+                }
+
+                // a thawed copy no longer depends on the snapshot, and can be changed
+                XMLSource thawed = read.cloneAsThawed();
+                assertFalse(name + " thawed", thawed.isFrozen());
+                for (String path : parsed) {
+                    assertEquals(name + " thawed value " + path, parsed.getValueAtDPath(path), thawed.getValueAtDPath(path));
+                    assertEquals(name + " thawed fullpath " + path, parsed.getFullPathAtDPath(path), thawed.getFullPathAtDPath(path));
+                }
+                thawed.putValueAtDPath("//ldml/identity/version", "changed");
+                assertEquals(name + " changed", "changed", thawed.getValueAtDPath("//ldml/identity/version"));
+            } finally {
+                snapshot.delete();
+            }
+        }
+    }
+
+    public void TestPathValueIndex() {
+        CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        PathValueIndex index = new PathValueIndex(english);
+        for (String query : new String[] { "Swiss", "mon", "{0} h", "ab", "zzzzz" }) {
+            String normalized = SimpleXMLSource.normalize(query);
+            Set<String> expected = new HashSet<>();
+            for (String path : english) {
+                String value = english.getStringValue(path);
+                if (value != null && SimpleXMLSource.normalize(value).contains(normalized)) {
+                    expected.add(path);
+                }
+            }
+            assertEquals("containing " + query, expected, index.getPathsContaining(query, new HashSet<>()));
+        }
+        String swissGerman = "//ldml/localeDisplayNames/languages/language[@type=\"gsw\"]";
+        assertTrue("word prefix", index.getPathsWithWordPrefix("Germ", new HashSet<>()).contains(swissGerman));
+
+        // changes are picked up incrementally
+        String path1 = "//ldml/localeDisplayNames/languages/language[@type=\"de\"]";
+        String path2 = "//ldml/localeDisplayNames/languages/language[@type=\"fr\"]";
+        XMLSource source = new SimpleXMLSource("xx");
+        source.putValueAtDPath(path1, "Old Value");
+        source.putValueAtDPath(path2, "Other");
+        PathValueIndex changing = new PathValueIndex(new CLDRFile(source));
+        source.addListener(changing);
+        assertEquals("before", Collections.singleton(path1), changing.search("value", new HashSet<>()));
+        source.putValueAtDPath(path1, "New Text");
+        source.notifyListeners(path1);
+        assertEquals("after", Collections.emptySet(), changing.search("value", new HashSet<>()));
+        assertEquals("after, new text", Collections.singleton(path1), changing.search("ne", new HashSet<>()));
+        source.removeValueAtDPath(path2);
+        source.notifyListeners(path2);
+        assertEquals("removed", Collections.emptySet(), changing.search("other", new HashSet<>()));
+
+        // through a resolving source, which hears of the change first since it was added as a listener first
+        XMLSource child = new SimpleXMLSource("xx");
+        XMLSource root = new SimpleXMLSource("root");
+        root.putValueAtDPath(path1, "Root Value");
+        PathValueIndex resolving = new PathValueIndex(new CLDRFile(child, root));
+        child.addListener(resolving);
+        assertEquals("inherited", Collections.singleton(path1), resolving.search("root value", new HashSet<>()));
+        child.putValueAtDPath(path1, "Child Text");
+        child.notifyListeners(path1);
+        assertEquals("overridden, old value", Collections.emptySet(), resolving.search("root value", new HashSet<>()));
+        assertEquals("overridden, new value", Collections.singleton(path1), resolving.search("child text", new HashSet<>()));
+        child.removeValueAtDPath(path1);
+        child.notifyListeners(path1);
+        assertEquals("inherited again", Collections.singleton(path1), resolving.search("root value", new HashSet<>()));
+    }
+
+    public void TestDataStamp() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        XMLSource de = factory.makeSource("de").cloneAsThawed();
+        assertNotEquals("copies have their own stamps", factory.makeSource("de").getDataStamp(), de.getDataStamp());
+        CLDRFile resolved = new CLDRFile(de, factory.makeSource("root"));
+        String before = resolved.getDataStamp();
+        assertEquals("same data, same stamp", before, resolved.getDataStamp());
+        assertTrue("the stamp is only built once", before == resolved.getDataStamp());
+
+        // the formats are shared by the builders, and rebuilt when the data changes
+        ICUServiceBuilder builder = new ICUServiceBuilder().setCldrFile(resolved);
+        String formatted = builder.getNumberFormat(1).format(1234.5);
+        assertEquals("other builder", formatted, new ICUServiceBuilder().setCldrFile(resolved).getNumberFormat(1).format(1234.5));
+        de.putValueAtPath("//ldml/numbers/symbols[@numberSystem=\"latn\"]/decimal", "$");
+        assertNotEquals("changed data", before, resolved.getDataStamp());
+        assertTrue("the new stamp is only built once", resolved.getDataStamp() == resolved.getDataStamp());
+        assertEquals("changed format", formatted.replace(',', '$'), builder.getNumberFormat(1).format(1234.5));
+    }
+
+    public void TestFlatResolvingSource() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        assertSameResolution("de", factory.make("de", true), factory.makeFlattened("de"));
+
+        // changes are picked up incrementally, including by the paths that alias to the changed one
+        XMLSource de = factory.makeSource("de").cloneAsThawed();
+        XMLSource root = factory.makeSource("root");
+        XMLSource flatSource = new XMLSource.FlatResolvingSource(Arrays.asList(de, root));
+        CLDRFile flat = new CLDRFile(flatSource);
+        assertSortedPaths("made", flatSource);
+        String changed = "//ldml/dates/calendars/calendar[@type=\"gregorian\"]/dayPeriods/dayContext[@type=\"format\"]/dayWidth[@type=\"wide\"]/dayPeriod[@type=\"am\"]";
+        String added = "//ldml/localeDisplayNames/languages/language[@type=\"xx\"]";
+        de.putValueAtPath(changed, "vormittags");
+        de.notifyListeners(changed);
+        de.putValueAtPath(added, "Xx");
+        de.notifyListeners(added);
+        assertEquals("changed", "vormittags", flat.getStringValue(changed));
+        assertEquals("added", "Xx", flat.getStringValue(added));
+        assertSameResolution("de, changed", new CLDRFile(de, root), flat);
+        assertSortedPaths("added", flatSource);
+
+        // paths that are removed, and aren't inherited from root, are gone from the paths too
+        String removed = "//ldml/localeDisplayNames/languages/language[@type=\"fr\"]";
+        de.removeValueAtPath(added);
+        de.notifyListeners(added);
+        de.removeValueAtPath(removed);
+        de.notifyListeners(removed);
+        assertNull("added and removed", flat.getStringValue(added));
+        assertNull("removed", flat.getStringValue(removed));
+        assertSameResolution("de, removed", new CLDRFile(de, root), flat);
+        assertSortedPaths("removed", flatSource);
+    }
+
+    /**
+     * The paths of a FlatResolvingSource are iterated in sorted order, also after paths are added or removed.
+     */
+    private void assertSortedPaths(String message, XMLSource flatSource) {
+        List<String> paths = new ArrayList<>();
+        flatSource.forEach(paths::add);
+        List<String> sorted = new ArrayList<>(paths);
+        Collections.sort(sorted);
+        assertEquals(message + ": sorted paths", sorted, paths);
+    }
+
+    private void assertSameResolution(String message, CLDRFile resolved, CLDRFile flat) {
+        Set<String> paths = new TreeSet<>();
+        resolved.forEach(paths::add);
+        Set<String> flatPaths = new TreeSet<>();
+        flat.forEach(flatPaths::add);
+        if (!assertEquals(message + ": paths", paths, flatPaths)) {
+            return;
+        }
+        Status status = new Status();
+        Status flatStatus = new Status();
+        for (String path : paths) {
+            if (!assertEquals(message + ": value of " + path, resolved.getStringValue(path), flat.getStringValue(path))
+                || !assertEquals(message + ": full path of " + path, resolved.getFullXPath(path), flat.getFullXPath(path))
+                || !assertEquals(message + ": source of " + path, resolved.getSourceLocaleID(path, status),
+                    flat.getSourceLocaleID(path, flatStatus))
+                || !assertEquals(message + ": path where found of " + path, status.pathWhereFound, flatStatus.pathWhereFound)) {
+                return;
+            }
+        }
+    }
 }